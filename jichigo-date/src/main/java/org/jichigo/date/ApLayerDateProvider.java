@@ -49,11 +49,21 @@ public class ApLayerDateProvider extends ModifiableDateProvider implements DateC
      */
     @Override
     public Date newDate() {
-        final Date date = new Date(System.currentTimeMillis());
+        final Date date = new Date(newEpochMillis());
         if (logger.isDebugEnabled()) {
             logger.debug("date is {}", date);
         }
         return date;
     }
 
+    /**
+     * New date as epoch milliseconds.
+     * 
+     * @return {@link System#currentTimeMillis()}.
+     */
+    @Override
+    protected long newEpochMillis() {
+        return System.currentTimeMillis();
+    }
+
 }
@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory class for get date from DB layer(DB Server) using calibrated offset.
+ * <p>
+ * date of DB server is queried periodically on background thread, and offset against {@link System#nanoTime()} is
+ * calculated with compensating half of round trip time.<br>
+ * provide method don't access DB server while calibration is valid.
+ * </p>
+ * <p>
+ * calibration sample is rejected if half of round trip time is over maxDriftMillis.<br>
+ * if calibration is older than maxStalenessMillis or not exists, behavior follows fallback policy.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class CalibratedDbLayerDateProvider extends DbLayerDateProvider {
+
+    /**
+     * Default resync interval(milliseconds).
+     */
+    private static final long DEFAULT_RESYNC_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Default max drift(milliseconds).
+     */
+    private static final long DEFAULT_MAX_DRIFT_MILLIS = 50;
+
+    /**
+     * Default max staleness(milliseconds).
+     */
+    private static final long DEFAULT_MAX_STALENESS_MILLIS = 300000;
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private final Logger logger = LoggerFactory.getLogger(CalibratedDbLayerDateProvider.class);
+
+    /**
+     * Resync interval(milliseconds).
+     */
+    private long resyncIntervalMillis = DEFAULT_RESYNC_INTERVAL_MILLIS;
+
+    /**
+     * Max drift(milliseconds).
+     */
+    private long maxDriftMillis = DEFAULT_MAX_DRIFT_MILLIS;
+
+    /**
+     * Max staleness(milliseconds).
+     */
+    private long maxStalenessMillis = DEFAULT_MAX_STALENESS_MILLIS;
+
+    /**
+     * Fallback policy.
+     */
+    private FallbackPolicy fallbackPolicy = FallbackPolicy.query;
+
+    /**
+     * Current calibration.
+     */
+    private volatile Calibration calibration;
+
+    /**
+     * Resync scheduler.
+     */
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Is starting. (guarded by this)
+     */
+    private boolean starting;
+
+    /**
+     * Is stopped.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Inject resync interval(milliseconds).
+     * 
+     * @param resyncIntervalMillis resync interval(milliseconds).
+     * @throws IllegalArgumentException if resyncIntervalMillis is less than 1.
+     */
+    public void setResyncIntervalMillis(final long resyncIntervalMillis) {
+        if (resyncIntervalMillis < 1) {
+            throw new IllegalArgumentException("resyncIntervalMillis must be greater than 0. resyncIntervalMillis is ["
+                    + resyncIntervalMillis + "].");
+        }
+        this.resyncIntervalMillis = resyncIntervalMillis;
+    }
+
+    /**
+     * Inject max drift(milliseconds).
+     * 
+     * @param maxDriftMillis max drift(milliseconds).
+     * @throws IllegalArgumentException if maxDriftMillis is negative.
+     */
+    public void setMaxDriftMillis(final long maxDriftMillis) {
+        if (maxDriftMillis < 0) {
+            throw new IllegalArgumentException("maxDriftMillis must not be negative. maxDriftMillis is ["
+                    + maxDriftMillis + "].");
+        }
+        this.maxDriftMillis = maxDriftMillis;
+    }
+
+    /**
+     * Inject max staleness(milliseconds).
+     * 
+     * @param maxStalenessMillis max staleness(milliseconds).
+     * @throws IllegalArgumentException if maxStalenessMillis is less than 1.
+     */
+    public void setMaxStalenessMillis(final long maxStalenessMillis) {
+        if (maxStalenessMillis < 1) {
+            throw new IllegalArgumentException("maxStalenessMillis must be greater than 0. maxStalenessMillis is ["
+                    + maxStalenessMillis + "].");
+        }
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Inject fallback policy.
+     * 
+     * @param fallbackPolicy fallback policy.
+     */
+    public void setFallbackPolicy(final FallbackPolicy fallbackPolicy) {
+        this.fallbackPolicy = fallbackPolicy;
+    }
+
+    /**
+     * Start resync scheduler.
+     * <p>
+     * calibrate on caller thread (without lock), and schedule resync.<br>
+     * if already started or starting by other thread, do nothing.<br>
+     * if not call this method, resync scheduler is started on first provide. (but not after stop)
+     * </p>
+     */
+    public void start() {
+        synchronized (this) {
+            if (scheduler != null || starting) {
+                return;
+            }
+            starting = true;
+            stopped = false;
+        }
+        try {
+            resync();
+        } finally {
+            synchronized (this) {
+                starting = false;
+                if (!stopped) {
+                    scheduler = newScheduler();
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("resync scheduler started. interval is {}ms.", resyncIntervalMillis);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop resync scheduler.
+     * <p>
+     * after stop, provide method does not restart scheduler, and uses current calibration until it is stale. (after
+     * that, behavior follows fallback policy)<br>
+     * if not started, do nothing.
+     * </p>
+     */
+    public synchronized void stop() {
+        stopped = true;
+        final ScheduledExecutorService oldScheduler = scheduler;
+        if (oldScheduler == null) {
+            return;
+        }
+        scheduler = null;
+        oldScheduler.shutdownNow();
+        if (logger.isDebugEnabled()) {
+            logger.debug("resync scheduler stopped.");
+        }
+    }
+
+    /**
+     * Calibrate offset.
+     * <p>
+     * query date of DB server and replace current calibration.
+     * </p>
+     * 
+     * @return true if calibration is replaced. false if sample is rejected by max drift.
+     * @throws IllegalStateException if fail get date from DB server.
+     */
+    public boolean calibrate() {
+        final long startNanos = System.nanoTime();
+        final Date dbDate = super.newDate();
+        final long endNanos = System.nanoTime();
+        final long halfRoundTripNanos = (endNanos - startNanos) / 2;
+        if (TimeUnit.MILLISECONDS.toNanos(maxDriftMillis) < halfRoundTripNanos) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("calibration sample is rejected. half of round trip time is {}ns. max drift is {}ms.",
+                        halfRoundTripNanos, maxDriftMillis);
+            }
+            return false;
+        }
+        calibration = new Calibration(dbDate.getTime(), startNanos + halfRoundTripNanos);
+        if (logger.isDebugEnabled()) {
+            logger.debug("calibrated. db date is {}. half of round trip time is {}ns.", dbDate, halfRoundTripNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Create New date.
+     * <p>
+     * calculate date using calibrated offset.
+     * </p>
+     * 
+     * @return calibrated date of DB server.
+     * @throws IllegalStateException if calibration is invalid and fallback policy is error.
+     * @throws IllegalStateException if fail get date from DB server on fallback.
+     */
+    @Override
+    public Date newDate() {
+        ensureStarted();
+        final long nowNanos = System.nanoTime();
+        final Calibration current = validCalibration(nowNanos);
+        if (current == null) {
+            return super.newDate();
+        }
+        final Date date = new Date(current.toMillis(nowNanos));
+        if (logger.isDebugEnabled()) {
+            logger.debug("date is {}", date);
+        }
+        return date;
+    }
+
+    /**
+     * Create New date with statement listener.
+     * <p>
+     * same as {@link #newDate()}. (statement of fallback query is not notified)
+     * </p>
+     * 
+     * @param listener listener of statement. (ignored)
+     * @return calibrated date of DB server.
+     */
+    @Override
+    Date newDate(final StatementListener listener) {
+        return newDate();
+    }
+
+    /**
+     * Create New date as epoch milliseconds.
+     * <p>
+     * calculate date using calibrated offset without allocate date.
+     * </p>
+     * 
+     * @return calibrated epoch milliseconds of DB server.
+     * @throws IllegalStateException if calibration is invalid and fallback policy is error.
+     * @throws IllegalStateException if fail get date from DB server on fallback.
+     */
+    @Override
+    protected long newEpochMillis() {
+        ensureStarted();
+        final long nowNanos = System.nanoTime();
+        final Calibration current = validCalibration(nowNanos);
+        if (current == null) {
+            return super.newDate().getTime();
+        }
+        return current.toMillis(nowNanos);
+    }
+
+    /**
+     * Get valid calibration.
+     * 
+     * @param nowNanos current nano time.
+     * @return valid calibration. if null, should query DB server.
+     */
+    private Calibration validCalibration(final long nowNanos) {
+        final Calibration current = calibration;
+        if (current == null || current.isStale(nowNanos, maxStalenessMillis)) {
+            return fallback(current);
+        }
+        return current;
+    }
+
+    /**
+     * Resync on background.
+     * <p>
+     * if occur error, log warn level and keep current calibration.
+     * </p>
+     */
+    private void resync() {
+        try {
+            calibrate();
+        } catch (final RuntimeException e) {
+            logger.warn("fail calibrate. keep current calibration.", e);
+        }
+    }
+
+    /**
+     * Fallback on invalid calibration.
+     * 
+     * @param current current calibration. null if not calibrated yet.
+     * @return calibration for use. null if date should be queried directly.
+     */
+    private Calibration fallback(final Calibration current) {
+        switch (fallbackPolicy) {
+        case stale:
+            if (current != null) {
+                return current;
+            }
+            return null;
+        case error:
+            throw new IllegalStateException("calibration is not available. calibration is [" + current
+                    + "]. max staleness is [" + maxStalenessMillis + "ms].");
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Create resync scheduler.
+     * 
+     * @return resync scheduler.
+     */
+    private ScheduledExecutorService newScheduler() {
+        final ScheduledExecutorService newScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "jichigo-db-clock-calibrator");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        newScheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                resync();
+            }
+        }, resyncIntervalMillis, resyncIntervalMillis, TimeUnit.MILLISECONDS);
+        return newScheduler;
+    }
+
+    /**
+     * Ensure started resync scheduler.
+     * <p>
+     * if stopped, do not restart.
+     * </p>
+     */
+    private void ensureStarted() {
+        if (scheduler == null && !stopped) {
+            start();
+        }
+    }
+
+    /**
+     * Fallback policy enum.
+     * <p>
+     * applied when calibration is not exists or stale.
+     * </p>
+     * 
+     * @since 1.0.0
+     * @version 1.0.0
+     */
+    public enum FallbackPolicy {
+        /**
+         * query date of DB server directly.
+         */
+        query,
+        /**
+         * use stale calibration. if not exists, query date of DB server directly.
+         */
+        stale,
+        /**
+         * throw {@link IllegalStateException}.
+         */
+        error;
+    }
+
+    /**
+     * Calibration class.
+     * <p>
+     * immutable pair of DB date and local nano time.
+     * </p>
+     */
+    private static final class Calibration {
+
+        /**
+         * Time millis of DB server.
+         */
+        private final long baseMillis;
+
+        /**
+         * Nano time at baseMillis.
+         */
+        private final long baseNanos;
+
+        /**
+         * Constructor.
+         * 
+         * @param baseMillis time millis of DB server.
+         * @param baseNanos nano time at baseMillis.
+         */
+        private Calibration(final long baseMillis, final long baseNanos) {
+            this.baseMillis = baseMillis;
+            this.baseNanos = baseNanos;
+        }
+
+        /**
+         * Convert nano time to time millis of DB server.
+         * 
+         * @param nowNanos nano time.
+         * @return time millis of DB server.
+         */
+        private long toMillis(final long nowNanos) {
+            return baseMillis + TimeUnit.NANOSECONDS.toMillis(nowNanos - baseNanos);
+        }
+
+        /**
+         * Is stale ?
+         * 
+         * @param nowNanos nano time.
+         * @param maxStalenessMillis max staleness(milliseconds).
+         * @return if older than maxStalenessMillis, true.
+         */
+        private boolean isStale(final long nowNanos, final long maxStalenessMillis) {
+            return TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis) < nowNanos - baseNanos;
+        }
+
+        /**
+         * To string.
+         * 
+         * @return string.
+         */
+        @Override
+        public String toString() {
+            return "Calibration [baseMillis=" + baseMillis + ", baseNanos=" + baseNanos + "]";
+        }
+    }
+
+}
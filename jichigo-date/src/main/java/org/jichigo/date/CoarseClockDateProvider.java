@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory class for get date from coarse-grained clock of AP layer(AP Server).
+ * <p>
+ * current time is kept in volatile field, and it is updated by daemon ticker thread at resolution interval.<br>
+ * provided date is late maximum resolution time than {@link System#currentTimeMillis()}.<br>
+ * if date modifier is pure function of time, please set pureDateModifier to true. modified time is cached on ticker
+ * thread.<br>
+ * after {@link #stop()}, ticker thread is not started again on provide, and {@link System#currentTimeMillis()} is
+ * used directly. (until {@link #start()} is called)
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class CoarseClockDateProvider extends ModifiableDateProvider implements DateCreator {
+
+    /**
+     * Default resolution(milliseconds).
+     */
+    private static final long DEFAULT_RESOLUTION_MILLIS = 10;
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private final Logger logger = LoggerFactory.getLogger(CoarseClockDateProvider.class);
+
+    /**
+     * Resolution(milliseconds) of clock.
+     */
+    private long resolutionMillis = DEFAULT_RESOLUTION_MILLIS;
+
+    /**
+     * Pure date modifier flag.
+     * <p>
+     * true is date modifier's result depends only on target date.
+     * </p>
+     */
+    private volatile boolean pureDateModifier;
+
+    /**
+     * Current time millis of clock.
+     */
+    private volatile long currentMillis;
+
+    /**
+     * Modified time millis of clock.
+     * <p>
+     * valid only if pureDateModifier is true.
+     * </p>
+     */
+    private volatile long modifiedMillis;
+
+    /**
+     * Ticker thread.
+     */
+    private volatile Thread tickerThread;
+
+    /**
+     * Is stopped.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Inject resolution(milliseconds) of clock.
+     * 
+     * @param resolutionMillis resolution(milliseconds) of clock.
+     * @throws IllegalArgumentException if resolutionMillis is less than 1.
+     */
+    public void setResolutionMillis(final long resolutionMillis) {
+        if (resolutionMillis < 1) {
+            throw new IllegalArgumentException("resolutionMillis must be greater than 0. resolutionMillis is ["
+                    + resolutionMillis + "].");
+        }
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    /**
+     * Inject pure date modifier flag.
+     * 
+     * @param pureDateModifier if date modifier is pure function of time, true.
+     */
+    public void setPureDateModifier(final boolean pureDateModifier) {
+        this.pureDateModifier = pureDateModifier;
+        if (tickerThread != null) {
+            tick();
+        }
+    }
+
+    /**
+     * Inject date modifier.
+     * 
+     * @param dateModifier date modifier.
+     */
+    @Override
+    public void setDateModifier(final DateModifier dateModifier) {
+        super.setDateModifier(dateModifier);
+        if (tickerThread != null) {
+            tick();
+        }
+    }
+
+    /**
+     * Start ticker thread.
+     * <p>
+     * if already started, do nothing. if stopped, restart.<br>
+     * if not call this method, ticker thread is started on first provide. (but not after stop)
+     * </p>
+     */
+    public synchronized void start() {
+        stopped = false;
+        startTicker();
+    }
+
+    /**
+     * Start ticker thread if not started.
+     */
+    private synchronized void startTicker() {
+        if (tickerThread != null) {
+            return;
+        }
+        tick();
+        final Thread thread = new Thread(new Ticker(), "jichigo-coarse-clock-" + resolutionMillis + "ms");
+        thread.setDaemon(true);
+        tickerThread = thread;
+        thread.start();
+        if (logger.isDebugEnabled()) {
+            logger.debug("ticker thread started. resolution is {}ms.", resolutionMillis);
+        }
+    }
+
+    /**
+     * Stop ticker thread.
+     * <p>
+     * if not started, do nothing.
+     * </p>
+     */
+    public synchronized void stop() {
+        stopped = true;
+        final Thread thread = tickerThread;
+        if (thread == null) {
+            return;
+        }
+        tickerThread = null;
+        thread.interrupt();
+        if (logger.isDebugEnabled()) {
+            logger.debug("ticker thread stopped.");
+        }
+    }
+
+    /**
+     * Provide date as epoch milliseconds.
+     * <p>
+     * if date modifier is not set, implements {@link EpochMillisModifier} or pureDateModifier is true, don't allocate
+     * any object.
+     * </p>
+     * 
+     * @return modified epoch milliseconds.
+     */
+    @Override
+    public long provideEpochMillis() {
+        ensureStarted();
+        if (stopped) {
+            return modifyEpochMillis(System.currentTimeMillis());
+        }
+        if (pureDateModifier) {
+            return modifiedMillis;
+        }
+        return modifyEpochMillis(currentMillis);
+    }
+
+    /**
+     * Provide date.
+     * <p>
+     * if pureDateModifier is true, return cached modified date.
+     * </p>
+     * 
+     * @return date.
+     */
+    @Override
+    public Date provide() {
+        ensureStarted();
+        if (pureDateModifier && !stopped) {
+            return new Date(modifiedMillis);
+        }
+        return super.provide();
+    }
+
+    /**
+     * New date.
+     * 
+     * @return {@link java.uti.Date#Date(long)}. Constructor argument is current time millis of clock.
+     */
+    @Override
+    public Date newDate() {
+        ensureStarted();
+        final Date date = new Date(clockMillis());
+        if (logger.isDebugEnabled()) {
+            logger.debug("date is {}", date);
+        }
+        return date;
+    }
+
+    /**
+     * New date as epoch milliseconds.
+     * 
+     * @return current time millis of clock.
+     */
+    @Override
+    protected long newEpochMillis() {
+        ensureStarted();
+        return clockMillis();
+    }
+
+    /**
+     * Get current time millis of clock.
+     * 
+     * @return current time millis of clock. if stopped, {@link System#currentTimeMillis()}.
+     */
+    private long clockMillis() {
+        if (stopped) {
+            return System.currentTimeMillis();
+        }
+        return currentMillis;
+    }
+
+    /**
+     * Ensure started ticker thread.
+     * <p>
+     * if stopped, do not restart.
+     * </p>
+     */
+    private void ensureStarted() {
+        if (tickerThread == null && !stopped) {
+            synchronized (this) {
+                if (!stopped) {
+                    startTicker();
+                }
+            }
+        }
+    }
+
+    /**
+     * Update clock.
+     */
+    private void tick() {
+        final long nowMillis = System.currentTimeMillis();
+        if (pureDateModifier) {
+            modifiedMillis = modifyEpochMillis(nowMillis);
+        }
+        currentMillis = nowMillis;
+    }
+
+    /**
+     * Ticker of clock.
+     */
+    private class Ticker implements Runnable {
+
+        /**
+         * Update clock at resolution interval until interrupted.
+         */
+        public void run() {
+            final Thread currentThread = Thread.currentThread();
+            while (tickerThread == currentThread) {
+                try {
+                    Thread.sleep(resolutionMillis);
+                } catch (final InterruptedException e) {
+                    return;
+                }
+                try {
+                    tick();
+                } catch (final RuntimeException e) {
+                    logger.error("fail update clock.", e);
+                }
+            }
+        }
+    }
+
+}
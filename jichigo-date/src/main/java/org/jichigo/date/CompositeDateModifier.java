@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Date modifier class for apply multiple date modifiers in order.
+ * <p>
+ * chain is compiled on inject.<br>
+ * consecutive {@link OffsetDateModifier}s are fused into one addition, and {@link EpochMillisModifier}s are applied to
+ * epoch milliseconds without allocate date. date is allocated only for other date modifiers.<br>
+ * {@link OffsetDateModifier} in chain is read on inject, so change of its offset after inject is not applied.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class CompositeDateModifier extends EpochMillisDateModifier {
+
+    /**
+     * Compiled steps.
+     */
+    private EpochMillisModifier[] steps = new EpochMillisModifier[0];
+
+    /**
+     * Default constructor.
+     */
+    public CompositeDateModifier() {
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param dateModifiers date modifiers applied in order.
+     */
+    public CompositeDateModifier(final List<DateModifier> dateModifiers) {
+        setDateModifiers(dateModifiers);
+    }
+
+    /**
+     * Inject date modifiers.
+     * 
+     * @param dateModifiers date modifiers applied in order.
+     */
+    public void setDateModifiers(final List<DateModifier> dateModifiers) {
+        final List<EpochMillisModifier> compiledSteps = new ArrayList<EpochMillisModifier>();
+        long offsetMillis = 0;
+        boolean hasOffset = false;
+        for (final DateModifier dateModifier : dateModifiers) {
+            if (dateModifier instanceof OffsetDateModifier) {
+                offsetMillis += ((OffsetDateModifier) dateModifier).getOffsetMillis();
+                hasOffset = true;
+                continue;
+            }
+            if (hasOffset && offsetMillis != 0) {
+                compiledSteps.add(new OffsetDateModifier(offsetMillis));
+            }
+            offsetMillis = 0;
+            hasOffset = false;
+            if (dateModifier instanceof CompositeDateModifier) {
+                Collections.addAll(compiledSteps, ((CompositeDateModifier) dateModifier).steps);
+            } else if (dateModifier instanceof EpochMillisModifier) {
+                compiledSteps.add((EpochMillisModifier) dateModifier);
+            } else {
+                compiledSteps.add(new DateModifierAdapter(dateModifier));
+            }
+        }
+        if (hasOffset && offsetMillis != 0) {
+            compiledSteps.add(new OffsetDateModifier(offsetMillis));
+        }
+        this.steps = compiledSteps.toArray(new EpochMillisModifier[compiledSteps.size()]);
+    }
+
+    /**
+     * Get count of compiled steps.
+     * 
+     * @return count of compiled steps.
+     */
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * Modify epoch milliseconds.
+     * 
+     * @param targetMillis target epoch milliseconds.
+     * @return epoch milliseconds modified by all steps.
+     */
+    public long modify(final long targetMillis) {
+        final EpochMillisModifier[] currentSteps = steps;
+        long millis = targetMillis;
+        for (int index = 0; index < currentSteps.length; index++) {
+            millis = currentSteps[index].modify(millis);
+        }
+        return millis;
+    }
+
+    /**
+     * Adapter of date modifier.
+     */
+    private static class DateModifierAdapter implements EpochMillisModifier {
+
+        /**
+         * Date modifier.
+         */
+        private final DateModifier dateModifier;
+
+        /**
+         * Constructor.
+         * 
+         * @param dateModifier date modifier.
+         */
+        private DateModifierAdapter(final DateModifier dateModifier) {
+            this.dateModifier = dateModifier;
+        }
+
+        /**
+         * Modify epoch milliseconds by date modifier.
+         * 
+         * @param targetMillis target epoch milliseconds.
+         * @return modified epoch milliseconds.
+         */
+        public long modify(final long targetMillis) {
+            return dateModifier.modify(new Date(targetMillis)).getTime();
+        }
+    }
+
+}
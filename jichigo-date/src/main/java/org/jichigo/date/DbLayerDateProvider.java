@@ -22,10 +22,13 @@
 package org.jichigo.date;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -46,6 +49,14 @@ import org.slf4j.LoggerFactory;
  */
 public class DbLayerDateProvider extends ModifiableDateProvider implements DateCreator {
 
+    /**
+     * Max rows of prepared statement.
+     * <p>
+     * 2 rows are enough for detect multiple result set.
+     * </p>
+     */
+    private static final int PREPARED_STATEMENT_MAX_ROWS = 2;
+
     /**
      * Logger instance of slf4j.
      */
@@ -61,11 +72,23 @@ public class DbLayerDateProvider extends ModifiableDateProvider implements DateC
      */
     protected String sql;
 
+    /**
+     * Use prepared statement flag.
+     * <p>
+     * true is use {@link PreparedStatement} and read single {@link Timestamp} directly. default is false.
+     * </p>
+     */
+    protected boolean usePreparedStatement;
+
     /**
      * Create New date.
      * <p>
      * Get date using sql from data Source(DB Server).
      * </p>
+     * <p>
+     * if usePreparedStatement is true, execute sql by poolable {@link PreparedStatement} with fetch size & max rows
+     * are 2.
+     * </p>
      * 
      * @return {@link java.sql.ResultSet#getTimestamp(int)}. Method argument is 1.
      * @throws IllegalStateException if dataSource is null.
@@ -76,6 +99,30 @@ public class DbLayerDateProvider extends ModifiableDateProvider implements DateC
      */
     @Override
     public Date newDate() {
+        return queryDate(null);
+    }
+
+    /**
+     * Create New date with statement listener.
+     * <p>
+     * same as {@link #newDate()}, and notify statement of query to listener. (for cancel query from other thread)
+     * </p>
+     * 
+     * @param listener listener of statement.
+     * @return date of DB server.
+     * @throws IllegalStateException same as {@link #newDate()}.
+     */
+    Date newDate(final StatementListener listener) {
+        return queryDate(listener);
+    }
+
+    /**
+     * Query date.
+     * 
+     * @param listener listener of statement. (nullable)
+     * @return date of DB server.
+     */
+    private Date queryDate(final StatementListener listener) {
 
         // check setting.
         if (dataSource == null) {
@@ -96,33 +143,55 @@ public class DbLayerDateProvider extends ModifiableDateProvider implements DateC
         try {
             // execute query.
             connection = dataSource.getConnection();
-            statement = connection.createStatement();
-            resultSet = statement.executeQuery(sql);
-            final List<Date> dates = new ArrayList<Date>();
-            while (resultSet.next()) {
-                dates.add((Date) resultSet.getObject(1));
-            }
-            // check result.
-            if (dates.isEmpty()) {
-                // if not exists.
-                final String msg = "date is not found. please confirm setting. dataSource is [" + dataSource
-                        + "]. sql is [" + sql + "].";
-                throw new IllegalStateException(msg);
+            if (usePreparedStatement) {
+                final PreparedStatement preparedStatement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement = preparedStatement;
+                preparedStatement.setPoolable(true);
+                preparedStatement.setFetchSize(PREPARED_STATEMENT_MAX_ROWS);
+                preparedStatement.setMaxRows(PREPARED_STATEMENT_MAX_ROWS);
+                if (listener != null) {
+                    listener.executing(statement);
+                }
+                resultSet = preparedStatement.executeQuery();
+                // check result & set date.
+                if (!resultSet.next()) {
+                    throw newNotFoundException();
+                }
+                final Timestamp timestamp = resultSet.getTimestamp(1);
+                if (resultSet.next()) {
+                    throw newFoundMultipleException(Arrays.<Date> asList(timestamp, resultSet.getTimestamp(1)));
+                }
+                date = timestamp;
+            } else {
+                statement = connection.createStatement();
+                if (listener != null) {
+                    listener.executing(statement);
+                }
+                resultSet = statement.executeQuery(sql);
+                final List<Date> dates = new ArrayList<Date>();
+                while (resultSet.next()) {
+                    dates.add((Date) resultSet.getObject(1));
+                }
+                // check result.
+                if (dates.isEmpty()) {
+                    throw newNotFoundException();
+                }
+                if (1 < dates.size()) {
+                    throw newFoundMultipleException(dates);
+                }
+                // set date.
+                date = dates.get(0);
             }
-            if (1 < dates.size()) {
-                // if exists multiple.
-                final String msg = "date is found multiple. found date is " + dates
-                        + ". please confirm setting. dataSource is [" + dataSource + "]. sql is [" + sql + "].";
-                throw new IllegalStateException(msg);
-            }
-            // set date.
-            date = dates.get(0);
         } catch (final SQLException e) {
             final String msg = "fail get date from db server. please confirm setting. dataSource is [" + dataSource
                     + "]. sql is [" + sql + "].";
             throw new IllegalStateException(msg, e);
         } finally {
             // close.
+            if (listener != null && statement != null) {
+                listener.executed(statement);
+            }
             close(resultSet);
             close(statement);
             close(connection);
@@ -152,6 +221,62 @@ public class DbLayerDateProvider extends ModifiableDateProvider implements DateC
         this.sql = sql;
     }
 
+    /**
+     * Inject use prepared statement flag.
+     * 
+     * @param usePreparedStatement if use prepared statement, true.
+     */
+    public void setUsePreparedStatement(final boolean usePreparedStatement) {
+        this.usePreparedStatement = usePreparedStatement;
+    }
+
+    /**
+     * Listener interface of statement.
+     * <p>
+     * called on query thread.
+     * </p>
+     */
+    interface StatementListener {
+
+        /**
+         * Called before execute statement.
+         * 
+         * @param statement statement of query.
+         * @throws IllegalStateException if query is already cancelled.
+         */
+        void executing(Statement statement);
+
+        /**
+         * Called after execute statement. (before close)
+         * 
+         * @param statement statement of query.
+         */
+        void executed(Statement statement);
+    }
+
+    /**
+     * New exception for not exists result set.
+     * 
+     * @return exception.
+     */
+    private IllegalStateException newNotFoundException() {
+        final String msg = "date is not found. please confirm setting. dataSource is [" + dataSource + "]. sql is ["
+                + sql + "].";
+        return new IllegalStateException(msg);
+    }
+
+    /**
+     * New exception for exists multiple result set.
+     * 
+     * @param dates found dates.
+     * @return exception.
+     */
+    private IllegalStateException newFoundMultipleException(final List<Date> dates) {
+        final String msg = "date is found multiple. found date is " + dates
+                + ". please confirm setting. dataSource is [" + dataSource + "]. sql is [" + sql + "].";
+        return new IllegalStateException(msg);
+    }
+
     /**
      * Close connection.
      * <p>
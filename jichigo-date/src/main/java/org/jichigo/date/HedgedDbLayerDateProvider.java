@@ -0,0 +1,585 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jichigo.date.DbLayerDateProvider.StatementListener;
+import org.jichigo.utility.timer.LatencyHistogram;
+import org.jichigo.utility.timer.LatencyRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory class for get date from multiple DB layer(DB Server) using hedged query.
+ * <p>
+ * query first source, and if it has not responded within hedge delay, query next source too.<br>
+ * first successful answer is used and other queries are cancelled by {@link Statement#cancel()}.<br>
+ * if query failed, query next source immediately.
+ * </p>
+ * <p>
+ * hedge delay of each source is percentile of its latency in recent window (default is p95 of 10 seconds).<br>
+ * window is extended until it has enough samples, and until first window is completed, initial hedge delay is used.
+ * </p>
+ * <p>
+ * default executor is bounded. if all threads are busy, query runs on caller thread. (without hedge)
+ * </p>
+ * <p>
+ * please call {@link #stop()} on shutdown. after stop, sources are queried in order on caller thread without hedge.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class HedgedDbLayerDateProvider extends ModifiableDateProvider implements DateCreator {
+
+    /**
+     * Default initial hedge delay(milliseconds).
+     */
+    private static final long DEFAULT_INITIAL_HEDGE_DELAY_MILLIS = 50;
+
+    /**
+     * Default hedge percentile.
+     */
+    private static final double DEFAULT_HEDGE_PERCENTILE = 95.0;
+
+    /**
+     * Default min samples for adaptive hedge delay.
+     */
+    private static final long DEFAULT_MIN_SAMPLES = 20;
+
+    /**
+     * Default window of hedge delay(milliseconds).
+     */
+    private static final long DEFAULT_HEDGE_DELAY_WINDOW_MILLIS = 10000;
+
+    /**
+     * Default max threads of query.
+     */
+    private static final int DEFAULT_MAX_QUERY_THREADS = 8;
+
+    /**
+     * Keep alive time of idle query thread(seconds).
+     */
+    private static final long QUERY_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private final Logger logger = LoggerFactory.getLogger(HedgedDbLayerDateProvider.class);
+
+    /**
+     * Date providers of each source. (ordered)
+     */
+    private List<DbLayerDateProvider> dateProviders = Collections.emptyList();
+
+    /**
+     * Latencies of each source.
+     */
+    private List<SourceLatency> sourceLatencies = Collections.emptyList();
+
+    /**
+     * Executor for query.
+     */
+    private ExecutorService executorService;
+
+    /**
+     * Is executor created by this instance. (guarded by this)
+     */
+    private boolean ownedExecutorService;
+
+    /**
+     * Is stopped. (guarded by this)
+     */
+    private boolean stopped;
+
+    /**
+     * Initial hedge delay(milliseconds).
+     */
+    private long initialHedgeDelayMillis = DEFAULT_INITIAL_HEDGE_DELAY_MILLIS;
+
+    /**
+     * Hedge percentile.
+     */
+    private double hedgePercentile = DEFAULT_HEDGE_PERCENTILE;
+
+    /**
+     * Min samples for adaptive hedge delay.
+     */
+    private long minSamples = DEFAULT_MIN_SAMPLES;
+
+    /**
+     * Window of hedge delay(milliseconds).
+     */
+    private long hedgeDelayWindowMillis = DEFAULT_HEDGE_DELAY_WINDOW_MILLIS;
+
+    /**
+     * Max threads of query.
+     */
+    private int maxQueryThreads = DEFAULT_MAX_QUERY_THREADS;
+
+    /**
+     * Inject date providers of each source.
+     * <p>
+     * each date provider has own data source & sql. date modifier of them is not applied.
+     * </p>
+     * 
+     * @param dateProviders ordered date providers.
+     */
+    public void setDateProviders(final List<DbLayerDateProvider> dateProviders) {
+        final List<SourceLatency> latencies = new ArrayList<SourceLatency>(dateProviders.size());
+        for (int index = 0; index < dateProviders.size(); index++) {
+            latencies.add(new SourceLatency());
+        }
+        this.dateProviders = new ArrayList<DbLayerDateProvider>(dateProviders);
+        this.sourceLatencies = Collections.unmodifiableList(latencies);
+    }
+
+    /**
+     * Inject executor for query.
+     * <p>
+     * if not inject, bounded thread pool of daemon threads is created on first provide. (see
+     * {@link #setMaxQueryThreads(int)})<br>
+     * injected executor is not shut down by {@link #stop()}.
+     * </p>
+     * 
+     * @param executorService executor for query.
+     */
+    public synchronized void setExecutorService(final ExecutorService executorService) {
+        this.executorService = executorService;
+        this.ownedExecutorService = false;
+    }
+
+    /**
+     * Inject initial hedge delay(milliseconds).
+     * 
+     * @param initialHedgeDelayMillis hedge delay used until latency histogram has enough samples.
+     */
+    public void setInitialHedgeDelayMillis(final long initialHedgeDelayMillis) {
+        this.initialHedgeDelayMillis = initialHedgeDelayMillis;
+    }
+
+    /**
+     * Inject hedge percentile.
+     * 
+     * @param hedgePercentile percentile of latency used as hedge delay. (0.0 - 100.0)
+     */
+    public void setHedgePercentile(final double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * Inject min samples for adaptive hedge delay.
+     * 
+     * @param minSamples min samples of window.
+     */
+    public void setMinSamples(final long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Inject window of hedge delay(milliseconds).
+     * 
+     * @param hedgeDelayWindowMillis window of latency used for hedge delay. hedge delay is updated per window.
+     */
+    public void setHedgeDelayWindowMillis(final long hedgeDelayWindowMillis) {
+        this.hedgeDelayWindowMillis = hedgeDelayWindowMillis;
+    }
+
+    /**
+     * Inject max threads of query.
+     * <p>
+     * applied to executor created by this instance. if all threads are busy, query runs on caller thread.
+     * </p>
+     * 
+     * @param maxQueryThreads max threads of query.
+     * @throws IllegalArgumentException if maxQueryThreads is less than 1.
+     */
+    public void setMaxQueryThreads(final int maxQueryThreads) {
+        if (maxQueryThreads < 1) {
+            throw new IllegalArgumentException("maxQueryThreads must be greater than 0. maxQueryThreads is ["
+                    + maxQueryThreads + "].");
+        }
+        this.maxQueryThreads = maxQueryThreads;
+    }
+
+    /**
+     * Start.
+     * <p>
+     * create executor for query if not injected. if stopped, restart hedged query.<br>
+     * if not call this method, executor is created on first provide. (but not after stop)
+     * </p>
+     */
+    public synchronized void start() {
+        stopped = false;
+        getExecutorService();
+    }
+
+    /**
+     * Stop.
+     * <p>
+     * shut down executor created by this instance. after stop, sources are queried in order on caller thread.<br>
+     * if not started, do nothing.
+     * </p>
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (ownedExecutorService && executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+            ownedExecutorService = false;
+            if (logger.isDebugEnabled()) {
+                logger.debug("executor for query stopped.");
+            }
+        }
+    }
+
+    /**
+     * Get latency recorders of each source.
+     * <p>
+     * latency of successful query is recorded in nano seconds.<br>
+     * interval snapshot is taken by this instance per window, so please read total histogram of them.
+     * </p>
+     * 
+     * @return latency recorders. (same order as date providers)
+     */
+    public List<LatencyRecorder> getLatencyRecorders() {
+        final List<LatencyRecorder> recorders = new ArrayList<LatencyRecorder>(sourceLatencies.size());
+        for (final SourceLatency latency : sourceLatencies) {
+            recorders.add(latency.recorder);
+        }
+        return recorders;
+    }
+
+    /**
+     * Get hedge delay of source.
+     * <p>
+     * if window is elapsed, update hedge delay by latency of window.
+     * </p>
+     * 
+     * @param index index of source.
+     * @return hedge delay(nano seconds).
+     */
+    public long getHedgeDelayNanos(final int index) {
+        return sourceLatencies.get(index).getHedgeDelayNanos();
+    }
+
+    /**
+     * Create New date.
+     * 
+     * @return date of first responded source.
+     * @throws IllegalStateException if dateProviders is empty.
+     * @throws IllegalStateException if all sources failed.
+     * @throws IllegalStateException if interrupted.
+     */
+    @Override
+    public Date newDate() {
+        final int sourceCount = dateProviders.size();
+        if (sourceCount == 0) {
+            throw new IllegalStateException("dateProviders is empty. please set.");
+        }
+        final ExecutorService executor = getExecutorService();
+        if (executor == null) {
+            return newDateInOrder();
+        }
+        final CompletionService<Date> completionService = new ExecutorCompletionService<Date>(executor);
+        final List<Future<Date>> futures = new ArrayList<Future<Date>>(sourceCount);
+        final List<Query> queries = new ArrayList<Query>(sourceCount);
+        RuntimeException lastException = null;
+        int pendingCount = 0;
+        try {
+            submit(completionService, futures, queries);
+            pendingCount++;
+            while (0 < pendingCount) {
+                final Future<Date> future;
+                if (futures.size() < sourceCount) {
+                    future = completionService.poll(getHedgeDelayNanos(futures.size() - 1), TimeUnit.NANOSECONDS);
+                } else {
+                    future = completionService.take();
+                }
+                if (future == null) {
+                    // hedge to next source.
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("hedge to source[{}].", futures.size());
+                    }
+                    submit(completionService, futures, queries);
+                    pendingCount++;
+                    continue;
+                }
+                pendingCount--;
+                try {
+                    final Date date = future.get();
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("date is {}", date);
+                    }
+                    return date;
+                } catch (final ExecutionException e) {
+                    lastException = toRuntimeException(e.getCause());
+                    logger.warn("fail get date from source.", lastException);
+                    if (futures.size() < sourceCount) {
+                        submit(completionService, futures, queries);
+                        pendingCount++;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while get date from db server.", e);
+        } finally {
+            // JDBC query is generally not interruptible, so cancel statement too.
+            for (final Query query : queries) {
+                query.cancel();
+            }
+            for (final Future<Date> future : futures) {
+                future.cancel(true);
+            }
+        }
+        throw new IllegalStateException("fail get date from all db servers. source count is [" + sourceCount + "].",
+                lastException);
+    }
+
+    /**
+     * Submit query of next source.
+     * 
+     * @param completionService completion service of query.
+     * @param futures futures of submitted queries.
+     * @param queries submitted queries.
+     */
+    private void submit(final CompletionService<Date> completionService, final List<Future<Date>> futures,
+            final List<Query> queries) {
+        final Query query = new Query(futures.size());
+        queries.add(query);
+        futures.add(completionService.submit(query));
+    }
+
+    /**
+     * Create New date by querying sources in order on caller thread.
+     * 
+     * @return date of first successful source.
+     * @throws IllegalStateException if all sources failed.
+     */
+    private Date newDateInOrder() {
+        RuntimeException lastException = null;
+        for (int index = 0; index < dateProviders.size(); index++) {
+            try {
+                return new Query(index).call();
+            } catch (final RuntimeException e) {
+                lastException = e;
+                logger.warn("fail get date from source.", e);
+            }
+        }
+        throw new IllegalStateException("fail get date from all db servers. source count is [" + dateProviders.size()
+                + "].", lastException);
+    }
+
+    /**
+     * Get executor for query.
+     * 
+     * @return executor for query. if stopped and not injected, null.
+     */
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null && !stopped) {
+            ownedExecutorService = true;
+            final AtomicInteger threadNumber = new AtomicInteger();
+            // bounded, and run on caller thread if all threads are busy. (hedge fires when DB is slow)
+            executorService = new ThreadPoolExecutor(0, maxQueryThreads, QUERY_THREAD_KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                        public Thread newThread(final Runnable runnable) {
+                            final Thread thread = new Thread(runnable, "jichigo-hedged-db-date-"
+                                    + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return executorService;
+    }
+
+    /**
+     * Convert to runtime exception.
+     * 
+     * @param cause cause of execution.
+     * @return runtime exception.
+     */
+    private RuntimeException toRuntimeException(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Latency of one source.
+     */
+    private class SourceLatency {
+
+        /**
+         * Latency recorder.
+         */
+        private final LatencyRecorder recorder = new LatencyRecorder();
+
+        /**
+         * Latency of current window. (guarded by this)
+         */
+        private final LatencyHistogram windowHistogram = new LatencyHistogram();
+
+        /**
+         * Start time of current window(nano seconds). (guarded by this)
+         */
+        private long windowStartNanos = System.nanoTime();
+
+        /**
+         * Hedge delay(nano seconds). (negative until first window is completed)
+         */
+        private volatile long hedgeDelayNanos = -1;
+
+        /**
+         * Get hedge delay.
+         * 
+         * @return hedge delay(nano seconds).
+         */
+        private long getHedgeDelayNanos() {
+            final long nowNanos = System.nanoTime();
+            synchronized (this) {
+                if (TimeUnit.MILLISECONDS.toNanos(hedgeDelayWindowMillis) <= nowNanos - windowStartNanos) {
+                    windowHistogram.add(recorder.takeIntervalSnapshot());
+                    if (minSamples <= windowHistogram.getTotalCount()) {
+                        hedgeDelayNanos = windowHistogram.getValueAtPercentile(hedgePercentile);
+                        windowHistogram.reset();
+                        windowStartNanos = nowNanos;
+                    }
+                }
+            }
+            final long currentHedgeDelayNanos = hedgeDelayNanos;
+            if (currentHedgeDelayNanos < 0) {
+                return TimeUnit.MILLISECONDS.toNanos(initialHedgeDelayMillis);
+            }
+            return currentHedgeDelayNanos;
+        }
+    }
+
+    /**
+     * Query for one source.
+     */
+    private class Query implements Callable<Date>, StatementListener {
+
+        /**
+         * Index of source.
+         */
+        private final int index;
+
+        /**
+         * Executing statement. (guarded by this)
+         */
+        private Statement statement;
+
+        /**
+         * Is cancelled. (guarded by this)
+         */
+        private boolean cancelled;
+
+        /**
+         * Constructor.
+         * 
+         * @param index index of source.
+         */
+        private Query(final int index) {
+            this.index = index;
+        }
+
+        /**
+         * Get date from source and record latency.
+         * 
+         * @return date of source.
+         */
+        public Date call() {
+            final long startNanos = System.nanoTime();
+            final Date date = dateProviders.get(index).newDate(this);
+            sourceLatencies.get(index).recorder.record(System.nanoTime() - startNanos);
+            return date;
+        }
+
+        /**
+         * Keep executing statement for cancel.
+         * 
+         * @param executingStatement statement of query.
+         * @throws IllegalStateException if query is already cancelled.
+         */
+        public synchronized void executing(final Statement executingStatement) {
+            if (cancelled) {
+                throw new IllegalStateException("query is cancelled. source index is [" + index + "].");
+            }
+            this.statement = executingStatement;
+        }
+
+        /**
+         * Release executed statement.
+         * 
+         * @param executedStatement statement of query.
+         */
+        public synchronized void executed(final Statement executedStatement) {
+            this.statement = null;
+        }
+
+        /**
+         * Cancel query.
+         * <p>
+         * if query is executing, cancel statement. if occur SQLException, log debug level and continue process.
+         * </p>
+         */
+        private synchronized void cancel() {
+            cancelled = true;
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (final SQLException e) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("fail cancel of statement. source index is [" + index + "].", e);
+                    }
+                }
+                statement = null;
+            }
+        }
+    }
+
+}
@@ -22,18 +22,20 @@
 package org.jichigo.date;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Modifiable data provider.
  * <p>
- * if want date modify, please inject custom date modifier. default is not modified.
+ * if want date modify, please inject custom date modifier. default is not modified.<br>
+ * if date modifier implements {@link EpochMillisModifier}, {@link #provideEpochMillis()} doesn't allocate date.
  * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0
  * @author created by Kazuki Shimizu
  */
-public abstract class ModifiableDateProvider implements DateProvider {
+public abstract class ModifiableDateProvider implements DateProvider, EpochMillisProvider {
 
     /**
      * Date modifier.
@@ -50,6 +52,15 @@ public abstract class ModifiableDateProvider implements DateProvider {
         return dateModifier.modify(newDate);
     }
 
+    /**
+     * Provide date as epoch milliseconds.
+     * 
+     * @return modified epoch milliseconds.
+     */
+    public long provideEpochMillis() {
+        return modifyEpochMillis(newEpochMillis());
+    }
+
     /**
      * New date.
      * 
@@ -57,6 +68,34 @@ public abstract class ModifiableDateProvider implements DateProvider {
      */
     protected abstract Date newDate();
 
+    /**
+     * New date as epoch milliseconds.
+     * <p>
+     * default is adapter of {@link #newDate()}. if can create without date, please override.
+     * </p>
+     * 
+     * @return epoch milliseconds.
+     */
+    protected long newEpochMillis() {
+        return newDate().getTime();
+    }
+
+    /**
+     * Modify epoch milliseconds by date modifier.
+     * 
+     * @param targetMillis target epoch milliseconds.
+     * @return modified epoch milliseconds.
+     */
+    protected long modifyEpochMillis(final long targetMillis) {
+        if (dateModifier instanceof DoNotAnythingDateModifier) {
+            return targetMillis;
+        }
+        if (dateModifier instanceof EpochMillisModifier) {
+            return ((EpochMillisModifier) dateModifier).modify(targetMillis);
+        }
+        return dateModifier.modify(new Date(targetMillis)).getTime();
+    }
+
     /**
      * Inject date modifier.
      * 
@@ -66,13 +105,29 @@ public abstract class ModifiableDateProvider implements DateProvider {
         this.dateModifier = dateModifier;
     }
 
+    /**
+     * Inject date modifiers.
+     * <p>
+     * date modifiers are compiled to {@link CompositeDateModifier}.
+     * </p>
+     * 
+     * @param dateModifiers date modifiers applied in order.
+     */
+    public void setDateModifiers(final List<DateModifier> dateModifiers) {
+        setDateModifier(new CompositeDateModifier(dateModifiers));
+    }
+
     /**
      * Don't anything date modifier.
      */
-    protected class DoNotAnythingDateModifier implements DateModifier {
+    protected class DoNotAnythingDateModifier implements DateModifier, EpochMillisModifier {
         public Date modify(Date targetDate) {
             return targetDate;
         }
+
+        public long modify(long targetMillis) {
+            return targetMillis;
+        }
     }
 
 }
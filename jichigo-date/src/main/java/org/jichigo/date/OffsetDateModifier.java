@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+/**
+ * Date modifier class for add constant offset.
+ * <p>
+ * e.g. test time offset, rollover of business date.<br>
+ * consecutive offset modifiers in {@link CompositeDateModifier} are fused into one addition.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class OffsetDateModifier extends EpochMillisDateModifier {
+
+    /**
+     * Offset(milliseconds).
+     */
+    private long offsetMillis;
+
+    /**
+     * Default constructor.
+     */
+    public OffsetDateModifier() {
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param offsetMillis offset(milliseconds).
+     */
+    public OffsetDateModifier(final long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    /**
+     * Inject offset(milliseconds).
+     * 
+     * @param offsetMillis offset(milliseconds). negative value is past.
+     */
+    public void setOffsetMillis(final long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    /**
+     * Get offset(milliseconds).
+     * 
+     * @return offset(milliseconds).
+     */
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    /**
+     * Modify epoch milliseconds.
+     * 
+     * @param targetMillis target epoch milliseconds.
+     * @return target epoch milliseconds + offset.
+     */
+    public long modify(final long targetMillis) {
+        return targetMillis + offsetMillis;
+    }
+
+}
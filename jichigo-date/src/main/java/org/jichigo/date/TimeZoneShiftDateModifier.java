@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.TimeZone;
+
+/**
+ * Date modifier class for shift wall clock time between time zones.
+ * <p>
+ * modified date formatted in base time zone shows wall clock time of target time zone.<br>
+ * offset of time zone is cached per 15 minutes, so modify is allocation free in the common case.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class TimeZoneShiftDateModifier extends EpochMillisDateModifier {
+
+    /**
+     * Target time zone offset cache.
+     */
+    private ZoneOffsetCache targetZoneOffsetCache;
+
+    /**
+     * Base time zone offset cache.
+     */
+    private ZoneOffsetCache baseZoneOffsetCache = new ZoneOffsetCache(TimeZone.getDefault());
+
+    /**
+     * Inject target time zone id.
+     * 
+     * @param timeZoneId target time zone id. (e.g. America/New_York)
+     */
+    public void setTimeZoneId(final String timeZoneId) {
+        this.targetZoneOffsetCache = new ZoneOffsetCache(TimeZone.getTimeZone(timeZoneId));
+    }
+
+    /**
+     * Inject base time zone id.
+     * <p>
+     * default is default time zone of JVM.
+     * </p>
+     * 
+     * @param baseTimeZoneId base time zone id.
+     */
+    public void setBaseTimeZoneId(final String baseTimeZoneId) {
+        this.baseZoneOffsetCache = new ZoneOffsetCache(TimeZone.getTimeZone(baseTimeZoneId));
+    }
+
+    /**
+     * Modify epoch milliseconds.
+     * 
+     * @param targetMillis target epoch milliseconds.
+     * @return shifted epoch milliseconds.
+     * @throws IllegalStateException if timeZoneId is not set.
+     */
+    public long modify(final long targetMillis) {
+        if (targetZoneOffsetCache == null) {
+            throw new IllegalStateException("timeZoneId is null. please set.");
+        }
+        return targetMillis + targetZoneOffsetCache.getOffset(targetMillis)
+                - baseZoneOffsetCache.getOffset(targetMillis);
+    }
+
+    /**
+     * Cache of time zone offset.
+     * <p>
+     * zone transitions are assumed to be on 15 minutes boundary.
+     * </p>
+     */
+    private static class ZoneOffsetCache {
+
+        /**
+         * Cache unit(milliseconds).
+         */
+        private static final long UNIT_MILLIS = 15 * 60 * 1000;
+
+        /**
+         * Time zone.
+         */
+        private final TimeZone timeZone;
+
+        /**
+         * Last looked up entry.
+         */
+        private volatile Entry entry;
+
+        /**
+         * Constructor.
+         * 
+         * @param timeZone time zone. (copied)
+         */
+        private ZoneOffsetCache(final TimeZone timeZone) {
+            this.timeZone = (TimeZone) timeZone.clone();
+        }
+
+        /**
+         * Get offset of time zone.
+         * 
+         * @param millis epoch milliseconds.
+         * @return offset(milliseconds).
+         */
+        private int getOffset(final long millis) {
+            final long unit = millis >= 0 ? millis / UNIT_MILLIS : (millis + 1) / UNIT_MILLIS - 1;
+            Entry current = entry;
+            if (current == null || current.unit != unit) {
+                current = new Entry(unit, timeZone.getOffset(millis));
+                entry = current;
+            }
+            return current.offset;
+        }
+
+        /**
+         * Entry of cache.
+         */
+        private static class Entry {
+
+            /**
+             * Cache unit number.
+             */
+            private final long unit;
+
+            /**
+             * Offset(milliseconds).
+             */
+            private final int offset;
+
+            /**
+             * Constructor.
+             * 
+             * @param unit cache unit number.
+             * @param offset offset(milliseconds).
+             */
+            private Entry(final long unit, final int offset) {
+                this.unit = unit;
+                this.offset = offset;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test Case of CalibratedDbLayerDateProvider.
+ */
+public class CalibratedDbLayerDateProviderTest {
+
+    /**
+     * sql for get date.
+     */
+    private static final String SQL = "SELECT current_timestamp";
+
+    /**
+     * test target.
+     */
+    private final CalibratedDbLayerDateProvider target = new CalibratedDbLayerDateProvider();
+
+    /**
+     * stop resync scheduler.
+     */
+    @After
+    public void tearDown() {
+        target.stop();
+    }
+
+    /**
+     * if success,<br>
+     * 1. verify calibrated date.(main verify)<br>
+     * 2. verify DB is accessed only on calibration.(main verify)
+     */
+    @Test
+    public void provideSuccess() throws SQLException, InterruptedException {
+
+        // ------
+        // setup
+        // ------
+        long dbMillis = System.currentTimeMillis() - 3600000;
+        DataSource mockDataSource = mockDataSource(new Timestamp(dbMillis));
+        target.setDataSource(mockDataSource);
+        target.setSql(SQL);
+
+        // ------
+        // test
+        // ------
+        Date actualDate1 = target.provide();
+        Thread.sleep(50);
+        Date actualDate2 = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(dbMillis <= actualDate1.getTime());
+        Assert.assertTrue(actualDate1.getTime() < dbMillis + 50);
+        Assert.assertTrue(actualDate1.getTime() + 50 <= actualDate2.getTime());
+        Mockito.verify(mockDataSource, Mockito.times(1)).getConnection();
+
+    }
+
+    /**
+     * if DB server is unreachable and fallback policy is stale,<br>
+     * 1. verify keep current calibration.
+     */
+    @Test
+    public void provideFallbackStale() throws SQLException {
+
+        // ------
+        // setup
+        // ------
+        long dbMillis = System.currentTimeMillis() - 3600000;
+        DataSource mockDataSource = mockDataSource(new Timestamp(dbMillis));
+        target.setDataSource(mockDataSource);
+        target.setSql(SQL);
+        target.setMaxStalenessMillis(1);
+        target.setFallbackPolicy(CalibratedDbLayerDateProvider.FallbackPolicy.stale);
+        target.start();
+        Mockito.when(mockDataSource.getConnection()).thenThrow(new SQLException("unreachable"));
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(dbMillis <= actualDate.getTime());
+        Assert.assertTrue(actualDate.getTime() < dbMillis + 60000);
+
+    }
+
+    /**
+     * if DB server is unreachable and fallback policy is error,<br>
+     * 1. verify {@link IllegalStateException}.
+     */
+    @Test
+    public void provideFallbackError() throws SQLException {
+
+        // ------
+        // setup
+        // ------
+        DataSource mockDataSource = Mockito.mock(DataSource.class);
+        Mockito.when(mockDataSource.getConnection()).thenThrow(new SQLException("unreachable"));
+        target.setDataSource(mockDataSource);
+        target.setSql(SQL);
+        target.setFallbackPolicy(CalibratedDbLayerDateProvider.FallbackPolicy.error);
+
+        // ------
+        // test
+        // ------
+        IllegalStateException actualException = null;
+        try {
+            target.provide();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            actualException = e;
+        }
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(actualException.getMessage().startsWith("calibration is not available."));
+
+    }
+
+    /**
+     * if half of round trip time is over max drift,<br>
+     * 1. verify sample is rejected.
+     */
+    @Test
+    public void calibrateRejected() throws SQLException {
+
+        // ------
+        // setup
+        // ------
+        DataSource mockDataSource = mockDataSource(new Timestamp(System.currentTimeMillis()));
+        target.setDataSource(mockDataSource);
+        target.setSql(SQL);
+        target.setMaxDriftMillis(0);
+
+        // ------
+        // test & assert
+        // ------
+        Assert.assertFalse(target.calibrate());
+
+    }
+
+    /**
+     * if provide after stop,<br>
+     * 1. verify scheduler is not restarted and current calibration is used.(main verify)
+     */
+    @Test
+    public void provideAfterStop() throws SQLException {
+
+        // ------
+        // setup
+        // ------
+        long dbMillis = System.currentTimeMillis() - 3600000;
+        DataSource mockDataSource = mockDataSource(new Timestamp(dbMillis));
+        target.setDataSource(mockDataSource);
+        target.setSql(SQL);
+        target.start();
+        target.stop();
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(dbMillis <= actualDate.getTime());
+        Assert.assertTrue(actualDate.getTime() < dbMillis + 60000);
+        Mockito.verify(mockDataSource, Mockito.times(1)).getConnection();
+
+    }
+
+    /**
+     * Mock data source.
+     * 
+     * @param timestamp timestamp of DB server.
+     * @return mock data source.
+     */
+    private DataSource mockDataSource(Timestamp timestamp) throws SQLException {
+        DataSource mockDataSource = Mockito.mock(DataSource.class);
+        Connection mockConnection = Mockito.mock(Connection.class);
+        Statement mockStatement = Mockito.mock(Statement.class);
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        Mockito.when(mockConnection.createStatement()).thenReturn(mockStatement);
+        Mockito.when(mockStatement.executeQuery(SQL)).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, false);
+        Mockito.when(mockResultSet.getObject(1)).thenReturn(timestamp);
+        return mockDataSource;
+    }
+
+}
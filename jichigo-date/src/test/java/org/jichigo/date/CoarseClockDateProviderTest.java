@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test Case of CoarseClockDateProvider.
+ */
+public class CoarseClockDateProviderTest {
+
+    /**
+     * test target.
+     */
+    private final CoarseClockDateProvider target = new CoarseClockDateProvider();
+
+    /**
+     * stop ticker thread.
+     */
+    @After
+    public void tearDown() {
+        target.stop();
+    }
+
+    /**
+     * if success,<br>
+     * 1. verify get date within resolution.
+     */
+    @Test
+    public void provideSuccess() {
+
+        // ------
+        // setup
+        // ------
+        target.setResolutionMillis(5);
+
+        // ------
+        // test
+        // ------
+        long beforeMillis = System.currentTimeMillis();
+        Date actualDate = target.provide();
+        long afterMillis = System.currentTimeMillis();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(beforeMillis - 5 <= actualDate.getTime());
+        Assert.assertTrue(actualDate.getTime() <= afterMillis);
+
+    }
+
+    /**
+     * if provide after stop,<br>
+     * 1. verify ticker thread is not started again.(main verify)<br>
+     * 2. verify current time is provided.
+     */
+    @Test
+    public void provideAfterStop() {
+
+        // ------
+        // setup
+        // ------
+        target.setResolutionMillis(60000);
+        target.stop();
+
+        // ------
+        // test
+        // ------
+        long beforeMillis = System.currentTimeMillis();
+        long actualMillis = target.provideEpochMillis();
+        Date actualDate = target.provide();
+        long afterMillis = System.currentTimeMillis();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(beforeMillis <= actualMillis);
+        Assert.assertTrue(actualDate.getTime() <= afterMillis);
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            Assert.assertFalse(thread.getName().equals("jichigo-coarse-clock-60000ms") && thread.isAlive());
+        }
+
+    }
+
+    /**
+     * if ticker thread is running,<br>
+     * 1. verify clock is advanced.
+     */
+    @Test
+    public void provideEpochMillisAdvanced() throws InterruptedException {
+
+        // ------
+        // setup
+        // ------
+        target.setResolutionMillis(1);
+        target.start();
+
+        // ------
+        // test
+        // ------
+        long actualMillis1 = target.provideEpochMillis();
+        Thread.sleep(50);
+        long actualMillis2 = target.provideEpochMillis();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertTrue(actualMillis1 < actualMillis2);
+
+    }
+
+    /**
+     * if pureDateModifier is true,<br>
+     * 1. verify modified time is cached per tick.(main verify)<br>
+     * 2. verify modified date.
+     */
+    @Test
+    public void provideEpochMillisPureDateModifier() throws InterruptedException {
+
+        // ------
+        // setup
+        // ------
+        final AtomicInteger modifyCounter = new AtomicInteger(0);
+        target.setResolutionMillis(60000);
+        target.setDateModifier(new DateModifier() {
+            public Date modify(Date targetDate) {
+                modifyCounter.incrementAndGet();
+                return new Date(targetDate.getTime() + 1000);
+            }
+        });
+        target.setPureDateModifier(true);
+
+        // ------
+        // test
+        // ------
+        long actualMillis = target.provideEpochMillis();
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(1, modifyCounter.get());
+        Assert.assertEquals(actualMillis, actualDate.getTime());
+        Assert.assertEquals(target.newDate().getTime() + 1000, actualMillis);
+
+    }
+
+    /**
+     * if pureDateModifier is false,<br>
+     * 1. verify modified per call.
+     */
+    @Test
+    public void provideEpochMillisImpureDateModifier() {
+
+        // ------
+        // setup
+        // ------
+        final AtomicInteger modifyCounter = new AtomicInteger(0);
+        target.setResolutionMillis(60000);
+        target.setDateModifier(new DateModifier() {
+            public Date modify(Date targetDate) {
+                return new Date(targetDate.getTime() + modifyCounter.incrementAndGet());
+            }
+        });
+
+        // ------
+        // test
+        // ------
+        long actualMillis1 = target.provideEpochMillis();
+        long actualMillis2 = target.provideEpochMillis();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(2, modifyCounter.get());
+        Assert.assertEquals(actualMillis1 + 1, actualMillis2);
+
+    }
+
+    /**
+     * if date modifier is epoch millis date modifier,<br>
+     * 1. verify modified by epoch millis.(main verify)<br>
+     * 2. verify date is modified by same modifier.
+     */
+    @Test
+    public void provideEpochMillisEpochMillisModifier() {
+
+        // ------
+        // setup
+        // ------
+        target.setResolutionMillis(60000);
+        target.setDateModifier(new EpochMillisDateModifier() {
+            public long modify(long targetMillis) {
+                return targetMillis + 1000;
+            }
+        });
+
+        // ------
+        // test
+        // ------
+        long actualMillis = target.provideEpochMillis();
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(target.newDate().getTime() + 1000, actualMillis);
+        Assert.assertEquals(actualMillis, actualDate.getTime());
+
+    }
+
+    /**
+     * if resolutionMillis is 0,<br>
+     * 1. verify {@link IllegalArgumentException} (message).
+     */
+    @Test
+    public void setResolutionMillisInvalid() {
+
+        // ------
+        // test
+        // ------
+        IllegalArgumentException actualException = null;
+        try {
+            target.setResolutionMillis(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            actualException = e;
+        }
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals("resolutionMillis must be greater than 0. resolutionMillis is [0].",
+                actualException.getMessage());
+
+    }
+
+}
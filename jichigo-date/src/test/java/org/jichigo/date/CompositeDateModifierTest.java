@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test Case of CompositeDateModifier.
+ */
+public class CompositeDateModifierTest {
+
+    /**
+     * if consecutive offset modifiers,<br>
+     * 1. verify fused into one step.(main verify)<br>
+     * 2. verify modified date.
+     */
+    @Test
+    public void modifyFusedOffset() {
+
+        // ------
+        // setup
+        // ------
+        CompositeDateModifier target = new CompositeDateModifier(Arrays.<DateModifier> asList(
+                new OffsetDateModifier(1000), new OffsetDateModifier(-300), new OffsetDateModifier(50)));
+
+        // ------
+        // test
+        // ------
+        long actualMillis = target.modify(10000L);
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(1, target.getStepCount());
+        Assert.assertEquals(10750, actualMillis);
+
+    }
+
+    /**
+     * if offset modifiers are separated by date modifier,<br>
+     * 1. verify applied in order.
+     */
+    @Test
+    public void modifyInOrder() {
+
+        // ------
+        // setup
+        // ------
+        DateModifier doubleDateModifier = new DateModifier() {
+            public Date modify(Date targetDate) {
+                return new Date(targetDate.getTime() * 2);
+            }
+        };
+        CompositeDateModifier target = new CompositeDateModifier(Arrays.<DateModifier> asList(
+                new OffsetDateModifier(1), doubleDateModifier, new OffsetDateModifier(1), new OffsetDateModifier(2)));
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.modify(new Date(10));
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(3, target.getStepCount());
+        Assert.assertEquals(25, actualDate.getTime());
+
+    }
+
+    /**
+     * if set to provider,<br>
+     * 1. verify offsets cancelled out are removed.(main verify)<br>
+     * 2. verify provided date is not modified.
+     */
+    @Test
+    public void setDateModifiers() {
+
+        // ------
+        // setup
+        // ------
+        final Date expectedDate = new Date(10000);
+        ModifiableDateProvider provider = new ModifiableDateProvider() {
+            protected Date newDate() {
+                return new Date(expectedDate.getTime());
+            }
+        };
+        CompositeDateModifier target = new CompositeDateModifier(Arrays.<DateModifier> asList(
+                new OffsetDateModifier(1000), new OffsetDateModifier(-1000)));
+        provider.setDateModifier(target);
+
+        // ------
+        // test
+        // ------
+        long actualMillis = provider.provideEpochMillis();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(0, target.getStepCount());
+        Assert.assertEquals(expectedDate.getTime(), actualMillis);
+
+    }
+
+}
@@ -22,6 +22,7 @@
 package org.jichigo.date;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -443,4 +444,125 @@ public class DbLayerDateProviderTest {
         }
     }
 
+    /**
+     * if success using prepared statement,<br>
+     * 1. verify get date.(main verify)<br>
+     * 2. verify fetch size & max rows.(main verify)<br>
+     * 3. verify called close method.<br>
+     */
+    @Test
+    public void provideSuccessUsePreparedStatement() throws SQLException {
+
+        // ------
+        // setup.
+        // ------
+        // make mock.
+        DataSource mockDataSource = PowerMockito.mock(DataSource.class);
+        Connection mockConnection = PowerMockito.mock(Connection.class);
+        PreparedStatement mockStatement = PowerMockito.mock(PreparedStatement.class);
+        ResultSet mockResultSet = PowerMockito.mock(ResultSet.class);
+
+        // bind mock.
+        Mockito.when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        Mockito.when(
+                mockConnection.prepareStatement("SELECT current_timestamp", ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)).thenReturn(mockStatement);
+        Mockito.when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, false);
+
+        Timestamp expectedTimestamp = new Timestamp(System.currentTimeMillis());
+        Mockito.when(mockResultSet.getTimestamp(1)).thenReturn(expectedTimestamp);
+
+        // ------
+        // test
+        // ------
+        DbLayerDateProvider target = new DbLayerDateProvider();
+        target.setDataSource(mockDataSource);
+        target.setSql("SELECT current_timestamp");
+        target.setUsePreparedStatement(true);
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        {
+            Assert.assertEquals(expectedTimestamp, actualDate);
+        }
+        {
+            Mockito.verify(mockStatement, Mockito.times(1)).setPoolable(true);
+            Mockito.verify(mockStatement, Mockito.times(1)).setFetchSize(2);
+            Mockito.verify(mockStatement, Mockito.times(1)).setMaxRows(2);
+        }
+        {
+            Mockito.verify(mockResultSet, Mockito.times(1)).close();
+            Mockito.verify(mockStatement, Mockito.times(1)).close();
+            Mockito.verify(mockConnection, Mockito.times(1)).close();
+        }
+
+    }
+
+    /**
+     * if exists multiple resultSet using prepared statement,<br>
+     * 1. verify {@link IllegalStateException}. message & cause.<br>
+     * 2. verify called close method.<br>
+     */
+    @Test
+    public void provideMultipleResultSetUsePreparedStatement() throws SQLException {
+
+        // ------
+        // setup.
+        // ------
+        // make mock.
+        DataSource mockDataSource = PowerMockito.mock(DataSource.class);
+        Connection mockConnection = PowerMockito.mock(Connection.class);
+        PreparedStatement mockStatement = PowerMockito.mock(PreparedStatement.class);
+        ResultSet mockResultSet = PowerMockito.mock(ResultSet.class);
+
+        // bind mock.
+        Mockito.when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        Mockito.when(
+                mockConnection.prepareStatement("SELECT sys_date FROM systemdate WHERE type = '1'",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(mockStatement);
+        Mockito.when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, true, false);
+
+        Timestamp expectedTimestamp1 = new Timestamp(System.currentTimeMillis());
+        Timestamp expectedTimestamp2 = new Timestamp(expectedTimestamp1.getTime() + 1);
+        Mockito.when(mockResultSet.getTimestamp(1)).thenReturn(expectedTimestamp1, expectedTimestamp2);
+
+        // ------
+        // test
+        // ------
+        DbLayerDateProvider target = new DbLayerDateProvider();
+        target.setDataSource(mockDataSource);
+        target.setSql("SELECT sys_date FROM systemdate WHERE type = '1'");
+        target.setUsePreparedStatement(true);
+        IllegalStateException actualException = null;
+        try {
+            target.provide();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            actualException = e;
+        }
+
+        // ------
+        // assert
+        // ------
+        // assert exception.
+        {
+            String expectedExceptionMessage = "date is found multiple. found date is "
+                    + Arrays.asList(expectedTimestamp1, expectedTimestamp2)
+                    + ". please confirm setting. dataSource is [" + mockDataSource + "]. sql is ["
+                    + "SELECT sys_date FROM systemdate WHERE type = '1'" + "].";
+            Assert.assertThat(actualException.getMessage(), CoreMatchers.is(expectedExceptionMessage));
+            Assert.assertNull(actualException.getCause());
+        }
+        // verify called close method.
+        {
+            Mockito.verify(mockResultSet, Mockito.times(1)).close();
+            Mockito.verify(mockStatement, Mockito.times(1)).close();
+            Mockito.verify(mockConnection, Mockito.times(1)).close();
+        }
+    }
+
 }
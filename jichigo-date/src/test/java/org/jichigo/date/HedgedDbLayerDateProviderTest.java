@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jichigo.date.DbLayerDateProvider.StatementListener;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Test Case of HedgedDbLayerDateProvider.
+ */
+public class HedgedDbLayerDateProviderTest {
+
+    /**
+     * test target.
+     */
+    private final HedgedDbLayerDateProvider target = new HedgedDbLayerDateProvider();
+
+    /**
+     * if first source is slow,<br>
+     * 1. verify date of second source is returned.(main verify)<br>
+     * 2. verify latency is recorded to recorder of second source.
+     */
+    @Test
+    public void provideHedged() {
+
+        // ------
+        // setup
+        // ------
+        Date expectedDate = new Date(1000);
+        DbLayerDateProvider slowProvider = mockDateProvider(new Date(0), 2000, null);
+        DbLayerDateProvider fastProvider = mockDateProvider(expectedDate, 0, null);
+        target.setDateProviders(Arrays.asList(slowProvider, fastProvider));
+        target.setInitialHedgeDelayMillis(10);
+
+        // ------
+        // test
+        // ------
+        long startMillis = System.currentTimeMillis();
+        Date actualDate = target.provide();
+        long elapsedMillis = System.currentTimeMillis() - startMillis;
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(expectedDate, actualDate);
+        Assert.assertTrue(elapsedMillis < 1000);
+        Assert.assertEquals(0, target.getLatencyRecorders().get(0).takeIntervalSnapshot().getTotalCount());
+        Assert.assertEquals(1, target.getLatencyRecorders().get(1).takeIntervalSnapshot().getTotalCount());
+
+    }
+
+    /**
+     * if first source is failed,<br>
+     * 1. verify date of second source is returned without waiting hedge delay.
+     */
+    @Test
+    public void provideFailover() {
+
+        // ------
+        // setup
+        // ------
+        Date expectedDate = new Date(1000);
+        DbLayerDateProvider failedProvider = mockDateProvider(null, 0, new IllegalStateException("unreachable"));
+        DbLayerDateProvider fastProvider = mockDateProvider(expectedDate, 0, null);
+        target.setDateProviders(Arrays.asList(failedProvider, fastProvider));
+        target.setInitialHedgeDelayMillis(60000);
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(expectedDate, actualDate);
+
+    }
+
+    /**
+     * if all sources are failed,<br>
+     * 1. verify {@link IllegalStateException} with cause of last failure.
+     */
+    @Test
+    public void provideAllFailed() {
+
+        // ------
+        // setup
+        // ------
+        IllegalStateException expectedCause = new IllegalStateException("unreachable2");
+        DbLayerDateProvider failedProvider1 = mockDateProvider(null, 0, new IllegalStateException("unreachable1"));
+        DbLayerDateProvider failedProvider2 = mockDateProvider(null, 50, expectedCause);
+        target.setDateProviders(Arrays.asList(failedProvider1, failedProvider2));
+
+        // ------
+        // test
+        // ------
+        IllegalStateException actualException = null;
+        try {
+            target.provide();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            actualException = e;
+        }
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals("fail get date from all db servers. source count is [2].", actualException.getMessage());
+        Assert.assertSame(expectedCause, actualException.getCause());
+
+    }
+
+    /**
+     * if slow query is lost,<br>
+     * 1. verify statement of lost query is cancelled.(main verify)
+     */
+    @Test
+    public void provideCancelStatement() throws Exception {
+
+        // ------
+        // setup
+        // ------
+        Statement slowStatement = Mockito.mock(Statement.class);
+        DbLayerDateProvider slowProvider = mockDateProvider(new Date(0), 2000, null, slowStatement);
+        DbLayerDateProvider fastProvider = mockDateProvider(new Date(1000), 0, null);
+        target.setDateProviders(Arrays.asList(slowProvider, fastProvider));
+        target.setInitialHedgeDelayMillis(10);
+
+        // ------
+        // test
+        // ------
+        target.provide();
+
+        // ------
+        // assert
+        // ------
+        Mockito.verify(slowStatement).cancel();
+
+    }
+
+    /**
+     * if all query threads are busy,<br>
+     * 1. verify hedged query runs on caller thread.(main verify)
+     */
+    @Test
+    public void provideCallerRuns() {
+
+        // ------
+        // setup
+        // ------
+        Date expectedDate = new Date(1000);
+        final AtomicReference<Thread> queryThread = new AtomicReference<Thread>();
+        DbLayerDateProvider slowProvider = mockDateProvider(new Date(0), 2000, null);
+        DbLayerDateProvider fastProvider = Mockito.mock(DbLayerDateProvider.class);
+        Mockito.when(fastProvider.newDate(Mockito.any(StatementListener.class))).thenAnswer(new Answer<Date>() {
+            public Date answer(InvocationOnMock invocation) {
+                queryThread.set(Thread.currentThread());
+                return new Date(1000);
+            }
+        });
+        target.setDateProviders(Arrays.asList(slowProvider, fastProvider));
+        target.setInitialHedgeDelayMillis(10);
+        target.setMaxQueryThreads(1);
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(expectedDate, actualDate);
+        Assert.assertSame(Thread.currentThread(), queryThread.get());
+
+    }
+
+    /**
+     * if window has enough samples,<br>
+     * 1. verify hedge delay is percentile of latency.
+     */
+    @Test
+    public void getHedgeDelayNanos() {
+
+        // ------
+        // setup
+        // ------
+        target.setDateProviders(Arrays.asList(mockDateProvider(new Date(0), 0, null)));
+        target.setMinSamples(10);
+        target.setInitialHedgeDelayMillis(50);
+        target.setHedgeDelayWindowMillis(0);
+
+        // ------
+        // test & assert
+        // ------
+        Assert.assertEquals(50000000, target.getHedgeDelayNanos(0));
+        for (int i = 0; i < 10; i++) {
+            target.getLatencyRecorders().get(0).record(1000);
+        }
+        Assert.assertEquals(1000, target.getHedgeDelayNanos(0));
+        for (int i = 0; i < 5; i++) {
+            target.getLatencyRecorders().get(0).record(200);
+        }
+        Assert.assertEquals(1000, target.getHedgeDelayNanos(0));
+        for (int i = 0; i < 5; i++) {
+            target.getLatencyRecorders().get(0).record(200);
+        }
+        Assert.assertEquals(200, target.getHedgeDelayNanos(0));
+
+    }
+
+    /**
+     * if provide after stop,<br>
+     * 1. verify sources are queried in order on caller thread.(main verify)
+     */
+    @Test
+    public void provideAfterStop() {
+
+        // ------
+        // setup
+        // ------
+        Date expectedDate = new Date(1000);
+        DbLayerDateProvider failedProvider = mockDateProvider(null, 0, new IllegalStateException("unreachable"));
+        DbLayerDateProvider fastProvider = mockDateProvider(expectedDate, 0, null);
+        target.setDateProviders(Arrays.asList(failedProvider, fastProvider));
+        target.start();
+        target.stop();
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.provide();
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals(expectedDate, actualDate);
+        Assert.assertEquals(1, target.getLatencyRecorders().get(1).takeIntervalSnapshot().getTotalCount());
+
+    }
+
+    /**
+     * Mock date provider.
+     * 
+     * @param date date of DB server.
+     * @param latencyMillis latency of query.
+     * @param exception exception of query.
+     * @return mock date provider.
+     */
+    private DbLayerDateProvider mockDateProvider(final Date date, final long latencyMillis,
+            final RuntimeException exception) {
+        return mockDateProvider(date, latencyMillis, exception, Mockito.mock(Statement.class));
+    }
+
+    /**
+     * Mock date provider.
+     * 
+     * @param date date of DB server.
+     * @param latencyMillis latency of query.
+     * @param exception exception of query.
+     * @param statement statement of query.
+     * @return mock date provider.
+     */
+    private DbLayerDateProvider mockDateProvider(final Date date, final long latencyMillis,
+            final RuntimeException exception, final Statement statement) {
+        DbLayerDateProvider mockDateProvider = Mockito.mock(DbLayerDateProvider.class);
+        Mockito.when(mockDateProvider.newDate(Mockito.any(StatementListener.class))).thenAnswer(new Answer<Date>() {
+            public Date answer(InvocationOnMock invocation) throws InterruptedException {
+                StatementListener listener = (StatementListener) invocation.getArguments()[0];
+                listener.executing(statement);
+                try {
+                    Thread.sleep(latencyMillis);
+                } finally {
+                    listener.executed(statement);
+                }
+                if (exception != null) {
+                    throw exception;
+                }
+                return date;
+            }
+        });
+        return mockDateProvider;
+    }
+
+}
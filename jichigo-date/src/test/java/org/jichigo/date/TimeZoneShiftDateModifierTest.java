@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.date;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test Case of TimeZoneShiftDateModifier.
+ */
+public class TimeZoneShiftDateModifierTest {
+
+    /**
+     * if success,<br>
+     * 1. verify wall clock time of target time zone in base time zone.
+     */
+    @Test
+    public void modifySuccess() throws Exception {
+
+        // ------
+        // setup
+        // ------
+        SimpleDateFormat utcFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        utcFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        TimeZoneShiftDateModifier target = new TimeZoneShiftDateModifier();
+        target.setTimeZoneId("Asia/Tokyo");
+        target.setBaseTimeZoneId("UTC");
+
+        // ------
+        // test
+        // ------
+        Date actualDate = target.modify(utcFormat.parse("2012-01-01 20:00"));
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals("2012-01-02 05:00", utcFormat.format(actualDate));
+
+    }
+
+    /**
+     * if target time zone has daylight saving time,<br>
+     * 1. verify offset is changed at transition.
+     */
+    @Test
+    public void modifyDaylightSavingTime() throws Exception {
+
+        // ------
+        // setup
+        // ------
+        SimpleDateFormat utcFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        utcFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        TimeZoneShiftDateModifier target = new TimeZoneShiftDateModifier();
+        target.setTimeZoneId("America/New_York");
+        target.setBaseTimeZoneId("UTC");
+
+        // ------
+        // test
+        // ------
+        long beforeMillis = target.modify(utcFormat.parse("2012-03-11 06:59").getTime());
+        long afterMillis = target.modify(utcFormat.parse("2012-03-11 07:00").getTime());
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals("2012-03-11 01:59", utcFormat.format(new Date(beforeMillis)));
+        Assert.assertEquals("2012-03-11 03:00", utcFormat.format(new Date(afterMillis)));
+
+    }
+
+    /**
+     * if timeZoneId is not set,<br>
+     * 1. verify {@link IllegalStateException} (message).
+     */
+    @Test
+    public void modifyNotSet() {
+
+        // ------
+        // test
+        // ------
+        IllegalStateException actualException = null;
+        try {
+            new TimeZoneShiftDateModifier().modify(0L);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            actualException = e;
+        }
+
+        // ------
+        // assert
+        // ------
+        Assert.assertEquals("timeZoneId is null. please set.", actualException.getMessage());
+
+    }
+
+}
@@ -1,10 +1,22 @@
 package org.jichigo.springframework.webmvc;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 
+import org.jichigo.utility.cache.BoundedCache;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.context.ApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import org.springframework.web.servlet.mvc.multiaction.NoSuchRequestHandlingMethodException;
+import org.springframework.web.util.UrlPathHelper;
 
 public class JichioDispatcherServlet extends DispatcherServlet {
 
@@ -13,12 +25,112 @@ public class JichioDispatcherServlet extends DispatcherServlet {
      */
     private static final long serialVersionUID = 1L;
 
+    private static final int DEFAULT_NOT_FOUND_CACHE_LIMIT = 1024;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    // cache of (method, lookup path) known to have no handler. evicted by clock algorithm if exceeds limit.
+    // lookup path matched by pattern of any request mapping is not cached, because lookup depends on other conditions
+    // (e.g. params, headers). null if not found cache limit is 0.
+    private volatile BoundedCache<String, NoSuchRequestHandlingMethodException> notFoundCache =
+            new BoundedCache<String, NoSuchRequestHandlingMethodException>(DEFAULT_NOT_FOUND_CACHE_LIMIT);
+
+    // handler mappings for decide whether not found request is cacheable.
+    private volatile List<HandlerMapping> handlerMappings = Collections.emptyList();
+
+    /**
+     * Inject limit of not found cache entries. if 0, not found request is not cached.
+     */
+    public void setNotFoundCacheLimit(int notFoundCacheLimit) {
+        this.notFoundCache = notFoundCacheLimit > 0 ? new BoundedCache<String, NoSuchRequestHandlingMethodException>(
+                notFoundCacheLimit) : null;
+    }
+
+    public void clearNotFoundCache() {
+        BoundedCache<String, NoSuchRequestHandlingMethodException> cache = notFoundCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public int getNotFoundCacheSize() {
+        BoundedCache<String, NoSuchRequestHandlingMethodException> cache = notFoundCache;
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    protected void onRefresh(ApplicationContext context) {
+        clearNotFoundCache();
+        super.onRefresh(context);
+        this.handlerMappings = new ArrayList<HandlerMapping>(BeanFactoryUtils.beansOfTypeIncludingAncestors(context,
+                HandlerMapping.class, true, false).values());
+    }
+
     protected HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+        BoundedCache<String, NoSuchRequestHandlingMethodException> cache = notFoundCache;
+        if (cache == null) {
+            HandlerExecutionChain handler = super.getHandler(request);
+            if (handler == null) {
+                throw new NoSuchRequestHandlingMethodException(request);
+            }
+            return handler;
+        }
+
+        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
+        String cacheKey = request.getMethod() + " " + lookupPath;
+        NoSuchRequestHandlingMethodException notFoundException = cache.get(cacheKey);
+        if (notFoundException != null) {
+            throw notFoundException;
+        }
+
         HandlerExecutionChain handler = super.getHandler(request);
         if (handler == null) {
-            throw new NoSuchRequestHandlingMethodException(request);
+            if (!isNotFoundCacheable(request)) {
+                throw new NoSuchRequestHandlingMethodException(request);
+            }
+            notFoundException = new NotFoundException(lookupPath, request.getMethod());
+            cache.putIfAbsent(cacheKey, notFoundException);
+            throw notFoundException;
         }
         return handler;
     }
 
+    // not found is cacheable if lookup path is not matched by pattern of any request mapping.
+    // url handler mapping depends only on lookup path. other handler mapping is unknown, so not cacheable.
+    private boolean isNotFoundCacheable(HttpServletRequest request) {
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            if (handlerMapping instanceof RequestMappingInfoHandlerMapping) {
+                for (RequestMappingInfo mappingInfo : ((RequestMappingInfoHandlerMapping) handlerMapping)
+                        .getHandlerMethods().keySet()) {
+                    if (mappingInfo.getPatternsCondition().getMatchingCondition(request) != null) {
+                        return false;
+                    }
+                }
+            } else if (!(handlerMapping instanceof AbstractUrlHandlerMapping)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stackless exception for request that has no handler. instance is shared by same (method, lookup path).
+     */
+    private static class NotFoundException extends NoSuchRequestHandlingMethodException {
+
+        /**
+         * serialVersionUID
+         */
+        private static final long serialVersionUID = 1L;
+
+        private NotFoundException(String lookupPath, String method) {
+            super(lookupPath, method, Collections.<String, String[]> emptyMap());
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
 }
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.springframework.webmvc.exception;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jichigo.web.base.util.AcceptMimeTypeMatcher;
+
+/**
+ * Pre-serialized template of error response.
+ * <p>
+ * template is selected by (status code, code, content type). code is error view name resolved by exception mappings,
+ * status code is status code of response (if null, any status code), and content type must be acceptable by Accept
+ * header of request.<br>
+ * static parts of template are serialized to byte array on inject, and {@value #MESSAGE_PLACEHOLDER} is replaced
+ * by exception message on write.<br>
+ * response is written to output stream directly without view rendering.<br>
+ * this class's instance is thread safe after injection.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class ErrorResponseTemplate {
+
+    /**
+     * Placeholder of exception message.
+     */
+    public static final String MESSAGE_PLACEHOLDER = "{message}";
+
+    /**
+     * Escape mode of message.
+     */
+    public static enum Escape {
+        /**
+         * Not escape.
+         */
+        none,
+        /**
+         * Escape as JSON string.
+         */
+        json,
+        /**
+         * Escape as XML(HTML) text.
+         */
+        xml
+    }
+
+    /**
+     * Default charset.
+     */
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    /**
+     * Status code. (null is any status code)
+     */
+    private Integer statusCode;
+
+    /**
+     * Code. (error view name)
+     */
+    private String code;
+
+    /**
+     * Content type.
+     */
+    private String contentType = "application/json";
+
+    /**
+     * Charset.
+     */
+    private String charset = DEFAULT_CHARSET;
+
+    /**
+     * Escape mode of message.
+     */
+    private Escape escape = Escape.json;
+
+    /**
+     * Template.
+     */
+    private String template = "";
+
+    /**
+     * Message used if exception message is null.
+     */
+    private String defaultMessage = "";
+
+    /**
+     * Pre-serialized static parts. message is inserted between each parts.
+     */
+    private volatile byte[][] staticParts = new byte[][] { new byte[0] };
+
+    /**
+     * Content type header value with charset.
+     */
+    private volatile String contentTypeHeader = contentType + ";charset=" + charset;
+
+    /**
+     * Matcher of Accept header for content type.
+     */
+    private final AcceptMimeTypeMatcher acceptMimeTypeMatcher = new AcceptMimeTypeMatcher();
+
+    /**
+     * Constructor.
+     */
+    public ErrorResponseTemplate() {
+        acceptMimeTypeMatcher.setTargetAcceptMimeTypes(Collections.singletonList(contentType));
+    }
+
+    /**
+     * Inject status code.
+     * 
+     * @param statusCode status code of response. if null, template is used for any status code.
+     */
+    public void setStatusCode(final Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Inject code.
+     * 
+     * @param code error view name resolved by exception mappings.
+     */
+    public void setCode(final String code) {
+        this.code = code;
+    }
+
+    /**
+     * Inject content type.
+     * 
+     * @param contentType content type. (without charset)
+     */
+    public void setContentType(final String contentType) {
+        acceptMimeTypeMatcher.setTargetAcceptMimeTypes(Collections.singletonList(contentType));
+        this.contentType = contentType;
+        compile();
+    }
+
+    /**
+     * Inject charset.
+     * 
+     * @param charset charset of response. default is UTF-8.
+     */
+    public void setCharset(final String charset) {
+        this.charset = charset;
+        compile();
+    }
+
+    /**
+     * Inject escape mode of message.
+     * 
+     * @param escape escape mode of message. default is json.
+     */
+    public void setEscape(final Escape escape) {
+        this.escape = escape;
+    }
+
+    /**
+     * Inject template.
+     * 
+     * @param template template of response body. {@value #MESSAGE_PLACEHOLDER} is replaced by exception message.
+     */
+    public void setTemplate(final String template) {
+        this.template = template;
+        compile();
+    }
+
+    /**
+     * Inject default message.
+     * 
+     * @param defaultMessage message used if exception message is null.
+     */
+    public void setDefaultMessage(final String defaultMessage) {
+        this.defaultMessage = defaultMessage;
+    }
+
+    /**
+     * Get status code.
+     * 
+     * @return status code. if null, any status code.
+     */
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get code.
+     * 
+     * @return error view name.
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Get content type.
+     * 
+     * @return content type. (without charset)
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Is applicable ?
+     * 
+     * @param responseStatusCode status code of response. (null if not determined)
+     * @param accept Accept header of request. (null if not exists)
+     * @return if status code is matched and content type is acceptable, return true.
+     */
+    public boolean isApplicable(final Integer responseStatusCode, final String accept) {
+        if (statusCode != null && !statusCode.equals(responseStatusCode)) {
+            return false;
+        }
+        return accept == null || acceptMimeTypeMatcher.matches(accept);
+    }
+
+    /**
+     * Write error response.
+     * <p>
+     * status code should be set before call this method.
+     * </p>
+     * 
+     * @param response http servlet response.
+     * @param ex resolved exception.
+     * @throws IOException if fail write.
+     */
+    public void write(final HttpServletResponse response, final Exception ex) throws IOException {
+        final byte[][] parts = staticParts;
+        byte[] messageBytes = null;
+        int contentLength = 0;
+        for (final byte[] part : parts) {
+            contentLength += part.length;
+        }
+        if (1 < parts.length) {
+            final String message = ex.getMessage() != null ? ex.getMessage() : defaultMessage;
+            messageBytes = escape(message).getBytes(charset);
+            contentLength += messageBytes.length * (parts.length - 1);
+        }
+        response.setContentType(contentTypeHeader);
+        response.setContentLength(contentLength);
+        final OutputStream out = response.getOutputStream();
+        for (int index = 0; index < parts.length; index++) {
+            if (index != 0) {
+                out.write(messageBytes);
+            }
+            out.write(parts[index]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Compile template to pre-serialized static parts.
+     * 
+     * @throws IllegalArgumentException if charset is not supported.
+     */
+    private synchronized void compile() {
+        final List<byte[]> parts = new ArrayList<byte[]>();
+        try {
+            int start = 0;
+            int placeholderIndex = template.indexOf(MESSAGE_PLACEHOLDER);
+            while (0 <= placeholderIndex) {
+                parts.add(template.substring(start, placeholderIndex).getBytes(charset));
+                start = placeholderIndex + MESSAGE_PLACEHOLDER.length();
+                placeholderIndex = template.indexOf(MESSAGE_PLACEHOLDER, start);
+            }
+            parts.add(template.substring(start).getBytes(charset));
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("charset is not supported. charset is [" + charset + "].", e);
+        }
+        this.staticParts = parts.toArray(new byte[parts.size()][]);
+        this.contentTypeHeader = contentType + ";charset=" + charset;
+    }
+
+    /**
+     * Escape message.
+     * 
+     * @param message message.
+     * @return escaped message.
+     */
+    private String escape(final String message) {
+        if (escape == Escape.none) {
+            return message;
+        }
+        StringBuilder escaped = null;
+        for (int index = 0; index < message.length(); index++) {
+            final char c = message.charAt(index);
+            final String replacement = escape == Escape.json ? escapeJson(c) : escapeXml(c);
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(message.length() + 16);
+                escaped.append(message, 0, index);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : message;
+    }
+
+    /**
+     * Escape character as JSON string.
+     * 
+     * @param c character.
+     * @return escaped string. if not need escape, null.
+     */
+    private static String escapeJson(final char c) {
+        switch (c) {
+        case '"':
+            return "\\\"";
+        case '\\':
+            return "\\\\";
+        case '\n':
+            return "\\n";
+        case '\r':
+            return "\\r";
+        case '\t':
+            return "\\t";
+        case '<':
+            return "\\u003c";
+        case '>':
+            return "\\u003e";
+        default:
+            if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                return String.format("\\u%04x", (int) c);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Escape character as XML text.
+     * 
+     * @param c character.
+     * @return escaped string. if not need escape, null.
+     */
+    private static String escapeXml(final char c) {
+        switch (c) {
+        case '<':
+            return "&lt;";
+        case '>':
+            return "&gt;";
+        case '&':
+            return "&amp;";
+        case '"':
+            return "&quot;";
+        case '\'':
+            return "&#39;";
+        default:
+            return null;
+        }
+    }
+
+}
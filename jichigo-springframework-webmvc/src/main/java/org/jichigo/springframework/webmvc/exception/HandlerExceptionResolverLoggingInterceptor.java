@@ -24,6 +24,8 @@ package org.jichigo.springframework.webmvc.exception;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -33,6 +35,11 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 
 /**
  * Interceptor class for logging handled excetion by {@link ExceptionHandler} annotation.
+ * <p>
+ * if AOP proxy is not needed, please use {@link LoggingHandlerExceptionResolver}.<br>
+ * {@link LoggingHandlerExceptionResolver} and exception resolvers delegated by it are not logged by this class,
+ * because they are logged by {@link LoggingHandlerExceptionResolver}.
+ * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0
@@ -41,6 +48,11 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 @Aspect
 public class HandlerExceptionResolverLoggingInterceptor {
 
+    /**
+     * Argument index of request.
+     */
+    private static final int ARGUMENT_INDEX_OF_REQUEST = 0;
+
     /**
      * Argument index of exception.
      */
@@ -84,10 +96,11 @@ public class HandlerExceptionResolverLoggingInterceptor {
      * @return return object of exception handling.
      * @throws Throwable if occur error.
      */
-    @Around("execution(* org.springframework.web.servlet.HandlerExceptionResolver.resolveException(..))")
+    @Around("execution(* org.springframework.web.servlet.HandlerExceptionResolver.resolveException(..))"
+            + " && !target(org.jichigo.springframework.webmvc.exception.LoggingHandlerExceptionResolver)")
     public Object logException(final ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
         final Object returnObj = proceedingJoinPoint.proceed();
-        if (returnObj != null) {
+        if (returnObj != null && !isLoggedByLoggingHandlerExceptionResolver(proceedingJoinPoint)) {
             final Exception exception = (Exception) proceedingJoinPoint.getArgs()[ARGUMENT_INDEX_OF_EXCEPTION];
             if (resolversForWarn.contains(proceedingJoinPoint.getTarget().getClass())) {
                 exceptionLogger.warn(exception);
@@ -98,4 +111,19 @@ public class HandlerExceptionResolverLoggingInterceptor {
         return returnObj;
     }
 
-}
\ No newline at end of file
+    /**
+     * Is logged by {@link LoggingHandlerExceptionResolver} ?
+     * 
+     * @param proceedingJoinPoint proceeding join point.
+     * @return if delegated by {@link LoggingHandlerExceptionResolver}, return true.
+     */
+    private boolean isLoggedByLoggingHandlerExceptionResolver(final ProceedingJoinPoint proceedingJoinPoint) {
+        final Object request = proceedingJoinPoint.getArgs()[ARGUMENT_INDEX_OF_REQUEST];
+        if (!(request instanceof HttpServletRequest)) {
+            return false;
+        }
+        final String attributeName = LoggingHandlerExceptionResolver.LOGGING_ATTRIBUTE_NAME;
+        return ((HttpServletRequest) request).getAttribute(attributeName) != null;
+    }
+
+}
\ No newline at end of file
@@ -21,19 +21,29 @@
  */
 package org.jichigo.springframework.webmvc.exception;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.aspectj.lang.annotation.Aspect;
+import org.jichigo.utility.cache.BoundedCache;
 import org.jichigo.utility.exception.ExceptionMapping;
+import org.jichigo.utility.regex.RegexSet;
 import org.jichigo.web.base.util.AcceptMimeTypeMatcher;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -60,18 +70,37 @@ import org.springframework.web.servlet.mvc.multiaction.NoSuchRequestHandlingMeth
  * @author Created By Kazuki Shimizu
  */
 @Aspect
-public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptionResolver {
+public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptionResolver implements
+        ApplicationListener<ContextRefreshedEvent> {
+
+    private static final int DEFAULT_VIEW_CACHE_LIMIT = 256;
+
+    private static final Object NO_VIEW = new Object();
 
     private final ExceptionMapping<Integer> statusCodeExceptionMapping;
 
     private final AcceptMimeTypeMatcher acceptMimeTypeMatcher;
 
-    private Pattern targetHandlerPatter;
+    private RegexSet targetHandlerRegexSet;
+
+    private volatile ConcurrentMap<Class<?>, Boolean> targetHandlerClassCache =
+            new ConcurrentHashMap<Class<?>, Boolean>();
 
     private ViewResolver viewResolver;
 
+    // evicted by clock algorithm if exceeds view cache limit. null if view cache limit is 0.
+    private volatile BoundedCache<ViewCacheKey, Object> viewCache = new BoundedCache<ViewCacheKey, Object>(
+            DEFAULT_VIEW_CACHE_LIMIT);
+
+    private final AtomicLong viewCacheHitCount = new AtomicLong();
+
+    private final AtomicLong viewCacheMissCount = new AtomicLong();
+
     private ExceptionModelResolver exceptionModelResolver;
 
+    // key is code (error view name). templates with status code are ordered first.
+    private Map<String, List<ErrorResponseTemplate>> errorResponseTemplates = Collections.emptyMap();
+
     private String defaultErrorView;
 
     public JichigoSimpleMappingExceptionResolver() {
@@ -97,17 +126,88 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
     }
 
     public void setTargetHandlerRegex(String targetHandlerRegex) {
-        targetHandlerPatter = Pattern.compile(targetHandlerRegex);
+        targetHandlerRegexSet = RegexSet.getRegexSet(targetHandlerRegex);
+        targetHandlerClassCache = new ConcurrentHashMap<Class<?>, Boolean>();
+    }
+
+    public void setTargetHandlerRegexes(List<String> targetHandlerRegexes) {
+        targetHandlerRegexSet = RegexSet.getRegexSet(targetHandlerRegexes);
+        targetHandlerClassCache = new ConcurrentHashMap<Class<?>, Boolean>();
     }
 
     public void setViewResolver(ViewResolver viewResolver) {
         this.viewResolver = viewResolver;
+        clearViewCache();
+    }
+
+    public void setViewCacheLimit(int viewCacheLimit) {
+        this.viewCache = viewCacheLimit > 0 ? new BoundedCache<ViewCacheKey, Object>(viewCacheLimit) : null;
+    }
+
+    public void clearViewCache() {
+        BoundedCache<ViewCacheKey, Object> cache = viewCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public int getViewCacheSize() {
+        BoundedCache<ViewCacheKey, Object> cache = viewCache;
+        return cache != null ? cache.size() : 0;
+    }
+
+    public long getViewCacheHitCount() {
+        return viewCacheHitCount.get();
+    }
+
+    public long getViewCacheMissCount() {
+        return viewCacheMissCount.get();
+    }
+
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        clearViewCache();
     }
 
     public void setExceptionModelResolver(ExceptionModelResolver exceptionModelResolver) {
         this.exceptionModelResolver = exceptionModelResolver;
     }
 
+    /**
+     * Inject pre-serialized error response templates.
+     * <p>
+     * template is selected by (status code, code, content type). see {@link ErrorResponseTemplate}.<br>
+     * if template is selected, response is written by template without view rendering, and exception model resolver
+     * is not called. if not selected (e.g. content type is not acceptable), view and exception model resolver are
+     * used.
+     * </p>
+     * 
+     * @param errorResponseTemplates error response templates.
+     * @throws IllegalArgumentException if code of template is null.
+     */
+    public void setErrorResponseTemplates(List<ErrorResponseTemplate> errorResponseTemplates) {
+        Map<String, List<ErrorResponseTemplate>> templates = new HashMap<String, List<ErrorResponseTemplate>>();
+        for (ErrorResponseTemplate errorResponseTemplate : errorResponseTemplates) {
+            if (errorResponseTemplate.getCode() == null) {
+                throw new IllegalArgumentException("code of error response template is null. please set.");
+            }
+            List<ErrorResponseTemplate> templatesOfCode = templates.get(errorResponseTemplate.getCode());
+            if (templatesOfCode == null) {
+                templatesOfCode = new ArrayList<ErrorResponseTemplate>();
+                templates.put(errorResponseTemplate.getCode(), templatesOfCode);
+            }
+            if (errorResponseTemplate.getStatusCode() != null) {
+                int index = 0;
+                while (index < templatesOfCode.size() && templatesOfCode.get(index).getStatusCode() != null) {
+                    index++;
+                }
+                templatesOfCode.add(index, errorResponseTemplate);
+            } else {
+                templatesOfCode.add(errorResponseTemplate);
+            }
+        }
+        this.errorResponseTemplates = templates;
+    }
+
     public void setDefaultErrorView(String defaultErrorView) {
         super.setDefaultErrorView(defaultErrorView);
         this.defaultErrorView = defaultErrorView;
@@ -124,7 +224,7 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
     @Override
     protected boolean shouldApplyTo(HttpServletRequest request, Object handler) {
 
-        if (targetHandlerPatter == null) {
+        if (targetHandlerRegexSet == null) {
             return super.shouldApplyTo(request, handler);
         }
 
@@ -135,10 +235,12 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
             handlerClass = handler.getClass();
         }
 
+        // static decision per handler class.
         boolean match = false;
         if (handlerClass != null) {
-            match = targetHandlerPatter.matcher(handlerClass.getName()).matches();
+            match = isTargetHandlerClass(handlerClass);
         }
+        // dynamic decision per request.
         if (!match) {
             String accept = request.getHeader("Accept");
             if (accept != null) {
@@ -149,6 +251,21 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
         return match;
     }
 
+    private boolean isTargetHandlerClass(Class<?> handlerClass) {
+        ConcurrentMap<Class<?>, Boolean> cache = targetHandlerClassCache;
+        Boolean match = cache.get(handlerClass);
+        if (match == null) {
+            match = Boolean.valueOf(targetHandlerRegexSet.matchesAny(handlerClass.getName()));
+            cache.putIfAbsent(handlerClass, match);
+        }
+        return match.booleanValue();
+    }
+
+    // for test.
+    int getTargetHandlerClassCacheSize() {
+        return targetHandlerClassCache.size();
+    }
+
     @Override
     protected ModelAndView doResolveException(HttpServletRequest request, HttpServletResponse response, Object handler,
             Exception ex) {
@@ -160,11 +277,25 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
         }
 
         // customize status code.
+        Integer statusCode = determineStatusCode(request, modelAndView.getViewName());
         if (modelAndView.getViewName() == defaultErrorView) {
             Integer mappedStatusCode = statusCodeExceptionMapping.getMappedValue(ex.getClass());
             if (mappedStatusCode != null) {
                 applyStatusCodeIfPossible(request, response, mappedStatusCode);
+                statusCode = mappedStatusCode;
+            }
+        }
+
+        // write pre-serialized error response.
+        ErrorResponseTemplate errorResponseTemplate = selectErrorResponseTemplate(request, modelAndView.getViewName(),
+                statusCode);
+        if (errorResponseTemplate != null) {
+            try {
+                errorResponseTemplate.write(response, ex);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
             }
+            return new ModelAndView();
         }
 
         // resolve view by view name.
@@ -172,13 +303,9 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
             LocaleResolver localeResolver = (LocaleResolver) request
                     .getAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE);
             Locale locale = localeResolver != null ? localeResolver.resolveLocale(request) : Locale.getDefault();
-            try {
-                View view = viewResolver.resolveViewName(modelAndView.getViewName(), locale);
-                if (view != null) {
-                    modelAndView.setView(view);
-                }
-            } catch (Exception e) {
-                throw new IllegalStateException(e);
+            View view = resolveView(modelAndView.getViewName(), locale);
+            if (view != null) {
+                modelAndView.setView(view);
             }
         }
 
@@ -190,4 +317,72 @@ public class JichigoSimpleMappingExceptionResolver extends SimpleMappingExceptio
 
         return modelAndView;
     }
-}
\ No newline at end of file
+
+    // select template by (status code, code, content type).
+    private ErrorResponseTemplate selectErrorResponseTemplate(HttpServletRequest request, String viewName,
+            Integer statusCode) {
+        List<ErrorResponseTemplate> templates = viewName != null ? errorResponseTemplates.get(viewName) : null;
+        if (templates == null) {
+            return null;
+        }
+        String accept = request.getHeader("Accept");
+        for (ErrorResponseTemplate template : templates) {
+            if (template.isApplicable(statusCode, accept)) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    // view is cached per view name and locale. if view cache limit is 0, not cached.
+    private View resolveView(String viewName, Locale locale) {
+        BoundedCache<ViewCacheKey, Object> cache = viewCache;
+        if (viewName == null || cache == null) {
+            return resolveViewByViewResolver(viewName, locale);
+        }
+        ViewCacheKey cacheKey = new ViewCacheKey(viewName, locale);
+        Object cachedView = cache.get(cacheKey);
+        if (cachedView != null) {
+            viewCacheHitCount.incrementAndGet();
+            return cachedView == NO_VIEW ? null : (View) cachedView;
+        }
+        viewCacheMissCount.incrementAndGet();
+        View view = resolveViewByViewResolver(viewName, locale);
+        cache.putIfAbsent(cacheKey, view != null ? view : NO_VIEW);
+        return view;
+    }
+
+    private View resolveViewByViewResolver(String viewName, Locale locale) {
+        try {
+            return viewResolver.resolveViewName(viewName, locale);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ViewCacheKey {
+        private final String viewName;
+        // null if locale resolver returns null.
+        private final Locale locale;
+
+        private ViewCacheKey(String viewName, Locale locale) {
+            this.viewName = viewName;
+            this.locale = locale;
+        }
+
+        @Override
+        public int hashCode() {
+            return viewName.hashCode() * 31 + (locale != null ? locale.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ViewCacheKey)) {
+                return false;
+            }
+            ViewCacheKey other = (ViewCacheKey) obj;
+            return viewName.equals(other.viewName)
+                    && (locale != null ? locale.equals(other.locale) : other.locale == null);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.springframework.webmvc.exception;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jichigo.utility.exception.ExceptionLogger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Composite exception resolver class for logging resolved exception.
+ * <p>
+ * delegate to exception resolvers in order, and log exception once if resolved by any exception resolver.<br>
+ * this is direct alternative of {@link HandlerExceptionResolverLoggingInterceptor} without AOP proxy.<br>
+ * while delegating, request attribute {@link #LOGGING_ATTRIBUTE_NAME} is set, and
+ * {@link HandlerExceptionResolverLoggingInterceptor} does not log exception resolved by this class and its delegates.
+ * (so exception is logged once even if both are configured)<br>
+ * log level (warn or default) is decided per exception resolver on inject. (by target class if exception resolver is
+ * AOP proxy)
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class LoggingHandlerExceptionResolver implements HandlerExceptionResolver, Ordered {
+
+    /**
+     * Request attribute name of logging by this class.
+     */
+    public static final String LOGGING_ATTRIBUTE_NAME = LoggingHandlerExceptionResolver.class.getName() + ".LOGGING";
+
+    /**
+     * Exception logger.
+     */
+    private ExceptionLogger exceptionLogger = new ExceptionLogger();
+
+    /**
+     * Exception resolvers.
+     */
+    private List<HandlerExceptionResolver> exceptionResolvers = new ArrayList<HandlerExceptionResolver>();
+
+    /**
+     * Handler exception resolvers for logging warn level.
+     */
+    private Set<Class<? extends HandlerExceptionResolver>> resolversForWarn = new HashSet<Class<? extends HandlerExceptionResolver>>();
+
+    /**
+     * Delegates. (compiled from exception resolvers)
+     */
+    private volatile Delegate[] delegates = new Delegate[0];
+
+    /**
+     * Order.
+     */
+    private int order = Ordered.LOWEST_PRECEDENCE;
+
+    /**
+     * Inject any exception logger.
+     * <p>
+     * If not inject, default exception logger.
+     * </p>
+     * 
+     * @param exceptionLogger any exception logger.
+     */
+    public void setExceptionLogger(final ExceptionLogger exceptionLogger) {
+        this.exceptionLogger = exceptionLogger;
+    }
+
+    /**
+     * Inject exception resolvers.
+     * 
+     * @param exceptionResolvers exception resolvers called in order.
+     */
+    public void setExceptionResolvers(final List<HandlerExceptionResolver> exceptionResolvers) {
+        this.exceptionResolvers = new ArrayList<HandlerExceptionResolver>(exceptionResolvers);
+        compile();
+    }
+
+    /**
+     * Inject Handler exception resolvers for logging warn level.
+     * 
+     * @param resolversForWarn Handler exception resolvers for logging warn level.
+     */
+    public void setResolversForWarn(final Set<Class<? extends HandlerExceptionResolver>> resolversForWarn) {
+        this.resolversForWarn = new HashSet<Class<? extends HandlerExceptionResolver>>(resolversForWarn);
+        compile();
+    }
+
+    /**
+     * Inject order.
+     * 
+     * @param order order of this exception resolver.
+     */
+    public void setOrder(final int order) {
+        this.order = order;
+    }
+
+    /**
+     * Get order.
+     * 
+     * @return order of this exception resolver.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Resolve exception by exception resolvers, and log exception if resolved.
+     * 
+     * @param request http servlet request.
+     * @param response http servlet response.
+     * @param handler executed handler.
+     * @param ex exception thrown on handler execution.
+     * @return model and view of first resolved exception resolver. if not resolved, null.
+     */
+    public ModelAndView resolveException(final HttpServletRequest request, final HttpServletResponse response,
+            final Object handler, final Exception ex) {
+        final Delegate[] currentDelegates = delegates;
+        final Object previousLogging = request.getAttribute(LOGGING_ATTRIBUTE_NAME);
+        request.setAttribute(LOGGING_ATTRIBUTE_NAME, Boolean.TRUE);
+        try {
+            for (int index = 0; index < currentDelegates.length; index++) {
+                final Delegate delegate = currentDelegates[index];
+                final ModelAndView modelAndView = delegate.exceptionResolver.resolveException(request, response,
+                        handler, ex);
+                if (modelAndView != null) {
+                    if (delegate.warn) {
+                        exceptionLogger.warn(ex);
+                    } else {
+                        exceptionLogger.log(ex);
+                    }
+                    return modelAndView;
+                }
+            }
+            return null;
+        } finally {
+            if (previousLogging == null) {
+                request.removeAttribute(LOGGING_ATTRIBUTE_NAME);
+            }
+        }
+    }
+
+    /**
+     * Compile delegates.
+     */
+    private synchronized void compile() {
+        final Delegate[] compiledDelegates = new Delegate[exceptionResolvers.size()];
+        for (int index = 0; index < compiledDelegates.length; index++) {
+            final HandlerExceptionResolver exceptionResolver = exceptionResolvers.get(index);
+            compiledDelegates[index] = new Delegate(exceptionResolver,
+                    resolversForWarn.contains(AopUtils.getTargetClass(exceptionResolver)));
+        }
+        this.delegates = compiledDelegates;
+    }
+
+    /**
+     * Delegate exception resolver.
+     */
+    private static class Delegate {
+
+        /**
+         * Exception resolver.
+         */
+        private final HandlerExceptionResolver exceptionResolver;
+
+        /**
+         * Warn level flag.
+         */
+        private final boolean warn;
+
+        /**
+         * Constructor.
+         * 
+         * @param exceptionResolver exception resolver.
+         * @param warn if log warn level, true.
+         */
+        private Delegate(final HandlerExceptionResolver exceptionResolver, final boolean warn) {
+            this.exceptionResolver = exceptionResolver;
+            this.warn = warn;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.jichigo.springframework.webmvc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.multiaction.NoSuchRequestHandlingMethodException;
+
+public class JichioDispatcherServletTest {
+
+    private StaticWebApplicationContext context;
+
+    private JichioDispatcherServlet servlet;
+
+    @Before
+    public void setUp() throws Exception {
+        ServletContext servletContext = Mockito.mock(ServletContext.class);
+        Mockito.when(servletContext.getInitParameterNames()).thenReturn(
+                Collections.enumeration(Collections.<String> emptyList()));
+        Mockito.when(servletContext.getAttributeNames()).thenReturn(
+                Collections.enumeration(Collections.<String> emptyList()));
+        context = new StaticWebApplicationContext();
+        context.setServletContext(servletContext);
+        context.registerSingleton("handlerMapping", RequestMappingHandlerMapping.class);
+        context.registerSingleton("searchController", SearchController.class);
+        context.refresh();
+        Mockito.when(servletContext.getAttribute("context")).thenReturn(context);
+
+        ServletConfig servletConfig = Mockito.mock(ServletConfig.class);
+        Mockito.when(servletConfig.getServletContext()).thenReturn(servletContext);
+        Mockito.when(servletConfig.getServletName()).thenReturn("dispatcher");
+        Mockito.when(servletConfig.getInitParameterNames()).thenReturn(
+                Collections.enumeration(Collections.<String> emptyList()));
+        servlet = new JichioDispatcherServlet();
+        servlet.setContextAttribute("context");
+        servlet.init(servletConfig);
+    }
+
+    @After
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Test
+    public void getHandler_notFoundIsCached() throws Exception {
+
+        NoSuchRequestHandlingMethodException first = getHandlerNotFound(mockRequest("/unknown", null));
+        NoSuchRequestHandlingMethodException second = getHandlerNotFound(mockRequest("/unknown", null));
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, servlet.getNotFoundCacheSize());
+
+    }
+
+    @Test
+    public void getHandler_paramsMismatchIsNotCached() throws Exception {
+
+        getHandlerNotFound(mockRequest("/search", null));
+
+        Assert.assertEquals(0, servlet.getNotFoundCacheSize());
+        HandlerExecutionChain handler = servlet.getHandler(mockRequest("/search", "jichigo"));
+        Assert.assertNotNull(handler);
+
+    }
+
+    @Test
+    public void getHandler_evictWhenFull() throws Exception {
+
+        servlet.setNotFoundCacheLimit(2);
+
+        getHandlerNotFound(mockRequest("/unknown1", null));
+        getHandlerNotFound(mockRequest("/unknown2", null));
+        getHandlerNotFound(mockRequest("/unknown3", null));
+
+        Assert.assertEquals(2, servlet.getNotFoundCacheSize());
+
+    }
+
+    @Test
+    public void getHandler_cacheDisabled() throws Exception {
+
+        servlet.setNotFoundCacheLimit(0);
+
+        NoSuchRequestHandlingMethodException first = getHandlerNotFound(mockRequest("/unknown", null));
+        NoSuchRequestHandlingMethodException second = getHandlerNotFound(mockRequest("/unknown", null));
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(0, servlet.getNotFoundCacheSize());
+
+    }
+
+    private NoSuchRequestHandlingMethodException getHandlerNotFound(HttpServletRequest request) throws Exception {
+        try {
+            servlet.getHandler(request);
+        } catch (NoSuchRequestHandlingMethodException e) {
+            return e;
+        }
+        Assert.fail("handler must not be found.");
+        return null;
+    }
+
+    private HttpServletRequest mockRequest(String path, String query) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getRequestURI()).thenReturn(path);
+        Mockito.when(request.getContextPath()).thenReturn("");
+        Mockito.when(request.getServletPath()).thenReturn(path);
+        Mockito.when(request.getParameter("q")).thenReturn(query);
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        Mockito.when(request.getAttribute(Mockito.anyString())).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.get(invocation.getArguments()[0]);
+            }
+        });
+        Mockito.doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                attributes.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(request).setAttribute(Mockito.anyString(), Mockito.anyObject());
+        return request;
+    }
+
+    @Controller
+    public static class SearchController {
+
+        @RequestMapping(value = "/search", params = "q")
+        public String search() {
+            return "search";
+        }
+    }
+
+}
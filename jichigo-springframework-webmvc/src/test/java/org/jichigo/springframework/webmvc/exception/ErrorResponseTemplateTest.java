@@ -0,0 +1,121 @@
+package org.jichigo.springframework.webmvc.exception;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ErrorResponseTemplateTest {
+
+    @Test
+    public void write_json() throws Exception {
+
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setTemplate("{\"code\":\"99\",\"message\":\"{message}\",\"detail\":\"{message}\"}");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        template.write(response, new IllegalStateException("a\"b\\c\n</script>\u2028"));
+
+        String expected = "a\\\"b\\\\c\\n\\u003c/script\\u003e\\u2028";
+        String expectedBody = "{\"code\":\"99\",\"message\":\"" + expected + "\",\"detail\":\"" + expected + "\"}";
+        Assert.assertEquals(expectedBody, body.toString("UTF-8"));
+        Mockito.verify(response).setContentType("application/json;charset=UTF-8");
+        Mockito.verify(response).setContentLength(expectedBody.getBytes("UTF-8").length);
+
+    }
+
+    @Test
+    public void write_xml() throws Exception {
+
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setContentType("application/xml");
+        template.setEscape(ErrorResponseTemplate.Escape.xml);
+        template.setTemplate("<error>{message}</error>");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        template.write(response, new IllegalStateException("<a href='x'>&\"</a>"));
+
+        Assert.assertEquals("<error>&lt;a href=&#39;x&#39;&gt;&amp;&quot;&lt;/a&gt;</error>", body.toString("UTF-8"));
+        Mockito.verify(response).setContentType("application/xml;charset=UTF-8");
+
+    }
+
+    @Test
+    public void write_multibyte() throws Exception {
+
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setEscape(ErrorResponseTemplate.Escape.none);
+        template.setCharset("UTF-8");
+        template.setTemplate("[{message}]");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        template.write(response, new IllegalStateException("\u30a8\u30e9\u30fc"));
+
+        Assert.assertEquals("[\u30a8\u30e9\u30fc]", body.toString("UTF-8"));
+        Mockito.verify(response).setContentLength(11);
+
+    }
+
+    @Test
+    public void write_defaultMessageAndNoPlaceholder() throws Exception {
+
+        ErrorResponseTemplate template1 = new ErrorResponseTemplate();
+        template1.setTemplate("{\"message\":\"{message}\"}");
+        template1.setDefaultMessage("unknown");
+        ErrorResponseTemplate template2 = new ErrorResponseTemplate();
+        template2.setTemplate("{}");
+        ByteArrayOutputStream body1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream body2 = new ByteArrayOutputStream();
+
+        template1.write(mockResponse(body1), new IllegalStateException());
+        template2.write(mockResponse(body2), new IllegalStateException("ignored"));
+
+        Assert.assertEquals("{\"message\":\"unknown\"}", body1.toString("UTF-8"));
+        Assert.assertEquals("{}", body2.toString("UTF-8"));
+
+    }
+
+    @Test
+    public void isApplicable() {
+
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setStatusCode(500);
+        ErrorResponseTemplate anyStatusTemplate = new ErrorResponseTemplate();
+
+        Assert.assertTrue(template.isApplicable(500, "application/json"));
+        Assert.assertTrue(template.isApplicable(500, null));
+        Assert.assertFalse(template.isApplicable(404, "application/json"));
+        Assert.assertFalse(template.isApplicable(500, "text/html"));
+        Assert.assertTrue(anyStatusTemplate.isApplicable(404, "*/*"));
+        Assert.assertTrue(anyStatusTemplate.isApplicable(null, "application/*"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setCharset_unsupported() {
+
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setCharset("x-unknown-charset");
+
+    }
+
+    private HttpServletResponse mockResponse(final ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        return response;
+    }
+
+}
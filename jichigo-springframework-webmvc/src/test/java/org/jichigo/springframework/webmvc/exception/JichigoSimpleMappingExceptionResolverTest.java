@@ -0,0 +1,245 @@
+package org.jichigo.springframework.webmvc.exception;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.mvc.multiaction.NoSuchRequestHandlingMethodException;
+
+public class JichigoSimpleMappingExceptionResolverTest {
+
+    private JichigoSimpleMappingExceptionResolver resolver;
+
+    private ViewResolver viewResolver;
+
+    private View view;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        view = Mockito.mock(View.class);
+        viewResolver = Mockito.mock(ViewResolver.class);
+        Mockito.when(viewResolver.resolveViewName(Mockito.anyString(), Mockito.any(Locale.class))).thenReturn(view);
+        request = Mockito.mock(HttpServletRequest.class);
+        response = Mockito.mock(HttpServletResponse.class);
+
+        resolver = new JichigoSimpleMappingExceptionResolver();
+        Properties exceptionMappings = new Properties();
+        exceptionMappings.setProperty(IllegalArgumentException.class.getName(), "badRequestError");
+        resolver.setExceptionMappings(exceptionMappings);
+        resolver.setDefaultErrorView("systemError");
+        resolver.setViewResolver(viewResolver);
+    }
+
+    @Test
+    public void resolveException_viewCache() throws Exception {
+
+        ModelAndView modelAndView1 = resolver.resolveException(request, response, null, new IllegalStateException());
+        ModelAndView modelAndView2 = resolver.resolveException(request, response, null, new IllegalStateException());
+
+        Assert.assertSame(view, modelAndView1.getView());
+        Assert.assertSame(view, modelAndView2.getView());
+        Assert.assertEquals(1, resolver.getViewCacheMissCount());
+        Assert.assertEquals(1, resolver.getViewCacheHitCount());
+        Assert.assertEquals(1, resolver.getViewCacheSize());
+        Mockito.verify(viewResolver, Mockito.times(1)).resolveViewName(Mockito.anyString(),
+                Mockito.any(Locale.class));
+
+    }
+
+    @Test
+    public void resolveException_viewCacheEvicted() throws Exception {
+
+        resolver.setViewCacheLimit(1);
+
+        resolver.resolveException(request, response, null, new IllegalStateException());
+        resolver.resolveException(request, response, null, new IllegalArgumentException());
+        resolver.resolveException(request, response, null, new IllegalArgumentException());
+
+        Assert.assertEquals(1, resolver.getViewCacheSize());
+        Assert.assertEquals(2, resolver.getViewCacheMissCount());
+        Assert.assertEquals(1, resolver.getViewCacheHitCount());
+
+    }
+
+    @Test
+    public void resolveException_viewCacheDisabled() throws Exception {
+
+        resolver.setViewCacheLimit(0);
+
+        resolver.resolveException(request, response, null, new IllegalStateException());
+        resolver.resolveException(request, response, null, new IllegalStateException());
+
+        Assert.assertEquals(0, resolver.getViewCacheSize());
+        Mockito.verify(viewResolver, Mockito.times(2)).resolveViewName(Mockito.anyString(),
+                Mockito.any(Locale.class));
+
+    }
+
+    @Test
+    public void resolveException_viewCacheNullLocale() throws Exception {
+
+        LocaleResolver localeResolver = Mockito.mock(LocaleResolver.class);
+        Mockito.when(request.getAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE)).thenReturn(localeResolver);
+
+        ModelAndView modelAndView1 = resolver.resolveException(request, response, null, new IllegalStateException());
+        ModelAndView modelAndView2 = resolver.resolveException(request, response, null, new IllegalStateException());
+
+        Assert.assertSame(view, modelAndView1.getView());
+        Assert.assertSame(view, modelAndView2.getView());
+        Assert.assertEquals(1, resolver.getViewCacheMissCount());
+        Assert.assertEquals(1, resolver.getViewCacheHitCount());
+
+        // null locale and non-null locale are different keys.
+        Mockito.when(localeResolver.resolveLocale(request)).thenReturn(Locale.JAPAN);
+        resolver.resolveException(request, response, null, new IllegalStateException());
+        Assert.assertEquals(2, resolver.getViewCacheMissCount());
+        Assert.assertEquals(2, resolver.getViewCacheSize());
+
+    }
+
+    @Test
+    public void onApplicationEvent() throws Exception {
+
+        resolver.resolveException(request, response, null, new IllegalStateException());
+
+        resolver.onApplicationEvent(new ContextRefreshedEvent(Mockito.mock(ApplicationContext.class)));
+
+        Assert.assertEquals(0, resolver.getViewCacheSize());
+        resolver.resolveException(request, response, null, new IllegalStateException());
+        Assert.assertEquals(2, resolver.getViewCacheMissCount());
+        Assert.assertEquals(0, resolver.getViewCacheHitCount());
+
+    }
+
+    @Test
+    public void resolveException_errorResponseTemplate() throws Exception {
+
+        ErrorResponseTemplate notFoundTemplate = newTemplate("systemError", 404, "application/json", "not found");
+        ErrorResponseTemplate jsonTemplate = newTemplate("systemError", null, "application/json", "json");
+        ErrorResponseTemplate xmlTemplate = newTemplate("systemError", null, "application/xml", "xml");
+        ErrorResponseTemplate badRequestTemplate = newTemplate("badRequestError", null, "application/json", "bad");
+        resolver.setErrorResponseTemplates(Arrays.asList(jsonTemplate, xmlTemplate, notFoundTemplate,
+                badRequestTemplate));
+        resolver.setDefaultStatusCode(500);
+        ExceptionModelResolver exceptionModelResolver = Mockito.mock(ExceptionModelResolver.class);
+        Mockito.when(
+                exceptionModelResolver.resolveModel(Mockito.any(HttpServletRequest.class),
+                        Mockito.any(HttpServletResponse.class), Mockito.any(Exception.class))).thenReturn("model");
+        resolver.setExceptionModelResolver(exceptionModelResolver);
+
+        Assert.assertEquals("json", resolveBody("application/json", new IllegalStateException()));
+        Assert.assertEquals("xml", resolveBody("application/xml, application/json;q=0", new IllegalStateException()));
+        Assert.assertEquals("not found", resolveBody("*/*", new NoSuchRequestHandlingMethodException("/", "GET",
+                Collections.<String, String[]> emptyMap())));
+        Assert.assertEquals("bad", resolveBody(null, new IllegalArgumentException()));
+        Assert.assertNull(resolveBody("text/html", new IllegalStateException()));
+        Mockito.verify(exceptionModelResolver, Mockito.times(1)).resolveModel(Mockito.any(HttpServletRequest.class),
+                Mockito.any(HttpServletResponse.class), Mockito.any(Exception.class));
+
+    }
+
+    @Test
+    public void shouldApplyTo_targetHandlerClassCache() {
+
+        resolver.setTargetHandlerRegex(".*\\$AController");
+
+        Assert.assertTrue(resolver.shouldApplyTo(request, new AController()));
+        Assert.assertTrue(resolver.shouldApplyTo(request, new AController()));
+        Assert.assertEquals(1, resolver.getTargetHandlerClassCacheSize());
+        Assert.assertFalse(resolver.shouldApplyTo(request, new BHandler()));
+        Assert.assertFalse(resolver.shouldApplyTo(request, new BHandler()));
+        Assert.assertEquals(2, resolver.getTargetHandlerClassCacheSize());
+
+    }
+
+    @Test
+    public void shouldApplyTo_targetHandlerRegexChanged() {
+
+        resolver.setTargetHandlerRegex(".*\\$AController");
+        Assert.assertTrue(resolver.shouldApplyTo(request, new AController()));
+
+        // cached decision is reset.
+        resolver.setTargetHandlerRegex(".*\\$BHandler");
+        Assert.assertEquals(0, resolver.getTargetHandlerClassCacheSize());
+        Assert.assertFalse(resolver.shouldApplyTo(request, new AController()));
+        Assert.assertTrue(resolver.shouldApplyTo(request, new BHandler()));
+
+        resolver.setTargetHandlerRegexes(Arrays.asList(".*\\$COther"));
+        Assert.assertEquals(0, resolver.getTargetHandlerClassCacheSize());
+        Assert.assertFalse(resolver.shouldApplyTo(request, new BHandler()));
+
+    }
+
+    @Test
+    public void shouldApplyTo_targetHandlerRegexes() {
+
+        resolver.setTargetHandlerRegexes(Arrays.asList(".*\\$AController", ".*\\.unknown\\..*", ".*Handler"));
+
+        Assert.assertTrue(resolver.shouldApplyTo(request, new AController()));
+        Assert.assertTrue(resolver.shouldApplyTo(request, new BHandler()));
+        Assert.assertFalse(resolver.shouldApplyTo(request, new COther()));
+        Assert.assertEquals(3, resolver.getTargetHandlerClassCacheSize());
+
+    }
+
+    public static class AController {
+    }
+
+    public static class BHandler {
+    }
+
+    public static class COther {
+    }
+
+    private ErrorResponseTemplate newTemplate(String code, Integer statusCode, String contentType, String body) {
+        ErrorResponseTemplate template = new ErrorResponseTemplate();
+        template.setCode(code);
+        template.setStatusCode(statusCode);
+        template.setContentType(contentType);
+        template.setTemplate(body);
+        return template;
+    }
+
+    // return body written by template. if not written by template, null.
+    private String resolveBody(String accept, Exception ex) throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader("Accept")).thenReturn(accept);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        ModelAndView modelAndView = resolver.resolveException(request, response, null, ex);
+        if (modelAndView.isEmpty()) {
+            return body.toString("UTF-8");
+        }
+        Assert.assertEquals(0, body.size());
+        Assert.assertSame(view, modelAndView.getView());
+        return null;
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.jichigo.springframework.webmvc.exception;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jichigo.utility.exception.ExceptionLogger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+public class LoggingHandlerExceptionResolverTest {
+
+    private ExceptionLogger exceptionLogger;
+
+    private HandlerExceptionResolverLoggingInterceptor interceptor;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        exceptionLogger = Mockito.mock(ExceptionLogger.class);
+        interceptor = new HandlerExceptionResolverLoggingInterceptor();
+        interceptor.setExceptionLogger(exceptionLogger);
+        request = mockRequest();
+        response = Mockito.mock(HttpServletResponse.class);
+    }
+
+    @Test
+    public void resolveException() {
+
+        Exception ex = new IllegalStateException();
+        HandlerExceptionResolver notResolved = mockResolver(null);
+        HandlerExceptionResolver resolved = mockResolver(new ModelAndView("error"));
+        LoggingHandlerExceptionResolver resolver = new LoggingHandlerExceptionResolver();
+        resolver.setExceptionLogger(exceptionLogger);
+        resolver.setExceptionResolvers(Arrays.asList(notResolved, resolved));
+        resolver.setResolversForWarn(Collections.<Class<? extends HandlerExceptionResolver>> singleton(resolved
+                .getClass()));
+
+        ModelAndView modelAndView = resolver.resolveException(request, response, null, ex);
+
+        Assert.assertEquals("error", modelAndView.getViewName());
+        Assert.assertNull(request.getAttribute(LoggingHandlerExceptionResolver.LOGGING_ATTRIBUTE_NAME));
+        Mockito.verify(exceptionLogger, Mockito.times(1)).warn(ex);
+        Mockito.verify(exceptionLogger, Mockito.never()).log(ex);
+
+    }
+
+    @Test
+    public void resolveException_proxiedDelegateForWarn() {
+
+        Exception ex = new IllegalStateException();
+        HandlerExceptionResolver target = mockResolver(new ModelAndView("error"));
+        HandlerExceptionResolver delegate = proxy(target);
+        LoggingHandlerExceptionResolver resolver = new LoggingHandlerExceptionResolver();
+        resolver.setExceptionLogger(exceptionLogger);
+        resolver.setExceptionResolvers(Arrays.asList(delegate));
+        resolver.setResolversForWarn(Collections.<Class<? extends HandlerExceptionResolver>> singleton(target
+                .getClass()));
+
+        resolver.resolveException(request, response, null, ex);
+
+        Mockito.verify(exceptionLogger, Mockito.times(1)).warn(ex);
+        Mockito.verify(exceptionLogger, Mockito.never()).log(ex);
+
+    }
+
+    @Test
+    public void resolveException_notResolved() {
+
+        Exception ex = new IllegalStateException();
+        LoggingHandlerExceptionResolver resolver = new LoggingHandlerExceptionResolver();
+        resolver.setExceptionLogger(exceptionLogger);
+        resolver.setExceptionResolvers(Arrays.asList(mockResolver(null)));
+
+        Assert.assertNull(resolver.resolveException(request, response, null, ex));
+        Mockito.verifyZeroInteractions(exceptionLogger);
+
+    }
+
+    @Test
+    public void resolveException_withInterceptor() {
+
+        Exception ex = new IllegalStateException();
+        HandlerExceptionResolver delegate = proxy(mockResolver(new ModelAndView("error")));
+        LoggingHandlerExceptionResolver resolver = new LoggingHandlerExceptionResolver();
+        resolver.setExceptionLogger(exceptionLogger);
+        resolver.setExceptionResolvers(Arrays.asList(delegate));
+        HandlerExceptionResolver proxiedResolver = proxy(resolver);
+
+        proxiedResolver.resolveException(request, response, null, ex);
+
+        Mockito.verify(exceptionLogger, Mockito.times(1)).log(ex);
+
+    }
+
+    @Test
+    public void interceptor_withoutLoggingHandlerExceptionResolver() {
+
+        Exception ex = new IllegalStateException();
+        HandlerExceptionResolver resolver = proxy(mockResolver(new ModelAndView("error")));
+
+        resolver.resolveException(request, response, null, ex);
+
+        Mockito.verify(exceptionLogger, Mockito.times(1)).log(ex);
+
+    }
+
+    private HandlerExceptionResolver proxy(HandlerExceptionResolver target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private HandlerExceptionResolver mockResolver(ModelAndView modelAndView) {
+        HandlerExceptionResolver resolver = Mockito.mock(HandlerExceptionResolver.class);
+        Mockito.when(
+                resolver.resolveException(Mockito.any(HttpServletRequest.class),
+                        Mockito.any(HttpServletResponse.class), Mockito.any(), Mockito.any(Exception.class)))
+                .thenReturn(modelAndView);
+        return resolver;
+    }
+
+    private HttpServletRequest mockRequest() {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        HttpServletRequest mockRequest = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(mockRequest.getAttribute(Mockito.anyString())).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.get(invocation.getArguments()[0]);
+            }
+        });
+        Mockito.doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+            }
+        }).when(mockRequest).setAttribute(Mockito.anyString(), Mockito.any());
+        Mockito.doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.remove(invocation.getArguments()[0]);
+            }
+        }).when(mockRequest).removeAttribute(Mockito.anyString());
+        return mockRequest;
+    }
+
+}
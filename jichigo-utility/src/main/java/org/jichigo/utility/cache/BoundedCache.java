@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded cache class.
+ * <p>
+ * concurrent map with max size. if size exceeds max size, entry is evicted by clock (second chance) algorithm.<br>
+ * entry hit since last sweep survives, so entries put only once (e.g. keys sent by scanner) are evicted first.<br>
+ * get method is lock free. size is approximate while clear is running concurrently.<br>
+ * this class's instance is thread safe. null key and null value are not allowed.
+ * </p>
+ * 
+ * @param <K> type of key.
+ * @param <V> type of value.
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * Max size.
+     */
+    private final int maxSize;
+
+    /**
+     * Entries.
+     */
+    private final ConcurrentMap<K, Node<V>> entries = new ConcurrentHashMap<K, Node<V>>();
+
+    /**
+     * Keys in clock order.
+     */
+    private final ConcurrentLinkedQueue<K> clock = new ConcurrentLinkedQueue<K>();
+
+    /**
+     * Size.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructor.
+     * 
+     * @param maxSize max size.
+     * @throws IllegalArgumentException if maxSize is less than 1.
+     */
+    public BoundedCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0. maxSize is [" + maxSize + "].");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get value.
+     * 
+     * @param key key.
+     * @return cached value. if not exists, null.
+     */
+    public V get(final K key) {
+        final Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    /**
+     * Put value if absent.
+     * <p>
+     * if size exceeds max size, evict entry.
+     * </p>
+     * 
+     * @param key key.
+     * @param value value.
+     * @return existing value. if not exists, null.
+     */
+    public V putIfAbsent(final K key, final V value) {
+        final Node<V> existing = entries.putIfAbsent(key, new Node<V>(value));
+        if (existing != null) {
+            return existing.value;
+        }
+        clock.offer(key);
+        if (maxSize < size.incrementAndGet()) {
+            evict();
+        }
+        return null;
+    }
+
+    /**
+     * Remove value.
+     * 
+     * @param key key.
+     * @return removed value. if not exists, null.
+     */
+    public V remove(final K key) {
+        final Node<V> node = entries.remove(key);
+        if (node == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        return node.value;
+    }
+
+    /**
+     * Clear.
+     */
+    public void clear() {
+        entries.clear();
+        clock.clear();
+        size.set(0);
+    }
+
+    /**
+     * Get size.
+     * 
+     * @return size.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get max size.
+     * 
+     * @return max size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Evict entries until size is not over max size.
+     * <p>
+     * entry referenced since last sweep gets second chance.
+     * </p>
+     */
+    private void evict() {
+        while (maxSize < size.get()) {
+            final K key = clock.poll();
+            if (key == null) {
+                return;
+            }
+            final Node<V> node = entries.get(key);
+            if (node == null) {
+                continue;
+            }
+            if (node.referenced) {
+                node.referenced = false;
+                clock.offer(key);
+            } else if (entries.remove(key, node)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Node of entry.
+     * 
+     * @param <V> type of value.
+     */
+    private static final class Node<V> {
+
+        /**
+         * Value.
+         */
+        private final V value;
+
+        /**
+         * Is referenced since last sweep.
+         */
+        private volatile boolean referenced;
+
+        /**
+         * Constructor.
+         * 
+         * @param value value.
+         */
+        private Node(final V value) {
+            this.value = value;
+        }
+    }
+
+}
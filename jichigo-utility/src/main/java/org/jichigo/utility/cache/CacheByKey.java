@@ -21,13 +21,45 @@
  */
 package org.jichigo.utility.cache;
 
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.WeakReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jichigo.utility.event.ProfilingEvents;
 
 /**
  * Object cache by key.
  * <p>
  * key is getInstance method's argument.<br>
+ * load of instance is emitted as {@link ProfilingEvents.Type#CACHE_LOAD} event if enabled.<br>
+ * cache created with snapshot name can be warmed up by {@link CacheSnapshotManager}.<br>
+ * if cache target objects contain class of other class loader (e.g. class of web application), entry is held per
+ * class loader until {@link #purgeClassLoader(ClassLoader)} is called on undeploy. (cached instances reference
+ * classes of class loader, so entry is not released by GC. please call it, or class loader leaks)<br>
+ * {@link #getOrCreateAsync(Object...)} loads instance on async executor, and load is shared by concurrent callers
+ * of same key.<br>
  * this class's instance is thread safe.
  * </p>
  * 
@@ -84,11 +116,158 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
      */
     private static final String KEY_SEPARATOR = "_";
 
+    /**
+     * Snapshot args encoding.
+     */
+    private static final String SNAPSHOT_ENCODING = "UTF-8";
+
+    /**
+     * Snapshot args separator.
+     */
+    private static final String SNAPSHOT_ARGS_SEPARATOR = " ";
+
+    /**
+     * Max threads of default async executor.
+     */
+    private static final int DEFAULT_ASYNC_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Queue capacity of default async executor.
+     */
+    private static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Keep alive time of default async executor threads(seconds).
+     */
+    private static final long DEFAULT_ASYNC_KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Caches by snapshot name.
+     */
+    private static final ConcurrentMap<String, CacheByKey<?>> snapshotCaches =
+            new ConcurrentHashMap<String, CacheByKey<?>>();
+
+    /**
+     * All caches. (for purge class loader)
+     */
+    private static final List<WeakReference<CacheByKey<?>>> allCaches =
+            new CopyOnWriteArrayList<WeakReference<CacheByKey<?>>>();
+
+    /**
+     * Default executor for async load.
+     */
+    private static Executor defaultAsyncExecutor;
+
+    /**
+     * Default executor created by this class. (shut down on purge class loader)
+     */
+    private static ExecutorService ownedAsyncExecutor;
+
     /**
      * instance cache.
      */
     private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<String, T>();
 
+    /**
+     * Futures of async loading.
+     */
+    private final ConcurrentMap<PendingKey, LoadFuture.Task<T>> pendingLoads =
+            new ConcurrentHashMap<PendingKey, LoadFuture.Task<T>>();
+
+    /**
+     * instance caches per class loader. (held until purged)
+     */
+    private final ConcurrentMap<ClassLoader, ConcurrentMap<String, T>> classLoaderCaches =
+            new ConcurrentHashMap<ClassLoader, ConcurrentMap<String, T>>();
+
+    /**
+     * Snapshot name. (null if not snapshot target)
+     */
+    private final String snapshotName;
+
+    /**
+     * Key usages. (null while usage tracking is disabled)
+     */
+    private volatile ConcurrentMap<String, KeyUsage> keyUsages;
+
+    /**
+     * Executor for async load. (null if use default executor)
+     */
+    private volatile Executor asyncExecutor;
+
+    /**
+     * Default Constructor.
+     */
+    public CacheByKey() {
+        this.snapshotName = null;
+        allCaches.add(new WeakReference<CacheByKey<?>>(this));
+    }
+
+    /**
+     * Constructor of snapshot target cache.
+     * 
+     * @param snapshotName snapshot name. (e.g. class name of cache holder)
+     */
+    protected CacheByKey(final String snapshotName) {
+        this.snapshotName = snapshotName;
+        snapshotCaches.putIfAbsent(snapshotName, this);
+        allCaches.add(new WeakReference<CacheByKey<?>>(this));
+    }
+
+    /**
+     * Inject default executor for async load.
+     * <p>
+     * if not inject, bounded thread pool of daemon threads is created on first async load. (threads are up to number
+     * of processors (at least 2), and queued loads are up to 1024. idle threads are terminated after 60 seconds)<br>
+     * context class loader of its threads is class loader of this class (not inherited from caller), and it is shut
+     * down by {@link #purgeClassLoader(ClassLoader)} of class loader of this class. (created again on next async
+     * load)
+     * </p>
+     * 
+     * @param executor default executor for async load.
+     */
+    public static synchronized void setDefaultAsyncExecutor(final Executor executor) {
+        defaultAsyncExecutor = executor;
+    }
+
+    /**
+     * Inject executor for async load.
+     * 
+     * @param asyncExecutor executor for async load of this cache. (if null, use default executor)
+     */
+    public void setAsyncExecutor(final Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Purge entries of class loader from all caches.
+     * <p>
+     * remove entries held per class loader of it (and its descendants). if class of cache is defined by it, all
+     * entries of cache are removed.<br>
+     * if this class is defined by it, also shut down default async executor created by this class. (queued loads are
+     * completed. executor shared by other applications is not shut down)<br>
+     * please call on undeploy of web application. (e.g. ServletContextListener#contextDestroyed)
+     * </p>
+     * 
+     * @param classLoader class loader of undeployed application.
+     */
+    public static void purgeClassLoader(final ClassLoader classLoader) {
+        if (classLoader == null) {
+            return;
+        }
+        if (isAncestorOrSelf(classLoader, CacheByKey.class.getClassLoader())) {
+            shutdownOwnedAsyncExecutor();
+        }
+        for (final WeakReference<CacheByKey<?>> reference : allCaches) {
+            final CacheByKey<?> cacheByKey = reference.get();
+            if (cacheByKey == null) {
+                allCaches.remove(reference);
+            } else {
+                cacheByKey.purge(classLoader);
+            }
+        }
+    }
+
     /**
      * Put instance.
      * 
@@ -97,7 +276,8 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
      */
     public T create(final Object... objects) {
         final String cachekey = generateCacheKey(objects);
-        return cache.put(cachekey, initialValue(objects));
+        recordUsage(cachekey, true, objects);
+        return cacheOf(objects).put(cachekey, load(cachekey, objects));
     }
 
     /**
@@ -108,9 +288,9 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
      */
     public T get(final Object... objects) {
         final String cachekey = generateCacheKey(objects);
-        T instance = cache.get(cachekey);
+        T instance = cacheOf(objects).get(cachekey);
         if (instance == null) {
-            instance = initialValue(objects);
+            instance = load(cachekey, objects);
         }
         return instance;
     }
@@ -123,17 +303,57 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
      */
     public T getOrCreate(final Object... objects) {
         final String cachekey = generateCacheKey(objects);
-        T instance = cache.get(cachekey);
-        if (instance == null) {
-            synchronized (cachekey.intern()) {
-                instance = cache.get(cachekey);
-                if (instance == null) {
-                    instance = initialValue(objects);
-                    cache.put(cachekey, instance);
-                }
+        return getOrCreate(cacheOf(objects), cachekey, true, objects);
+    }
+
+    /**
+     * Get instance asynchronously.
+     * <p>
+     * if exists in cache, return completed future. otherwise, load instance on async executor.<br>
+     * load is shared by concurrent callers of same key, and is removed when loading completed. (if loading failed,
+     * next call loads again)<br>
+     * each caller gets its own future, and cancel of it does not affect other callers.
+     * </p>
+     * 
+     * @param objects cache target objects.
+     * @return future of instance. if loading failed, get method throws ExecutionException.
+     * @throws RejectedExecutionException if executor rejected loading.
+     */
+    public LoadFuture<T> getOrCreateAsync(final Object... objects) {
+        final String cachekey = generateCacheKey(objects);
+        final ConcurrentMap<String, T> targetCache = cacheOf(objects);
+        final T instance = targetCache.get(cachekey);
+        if (instance != null) {
+            recordUsage(cachekey, false, objects);
+            return new LoadFuture<T>(new LoadFuture.Task<T>(instance));
+        }
+        final PendingKey pendingKey = new PendingKey(targetCache, cachekey);
+        final LoadFuture.Task<T> pendingTask = pendingLoads.get(pendingKey);
+        if (pendingTask != null) {
+            return new LoadFuture<T>(pendingTask);
+        }
+        final LoadFuture.Task<T> newTask = new LoadFuture.Task<T>(new Callable<T>() {
+            public T call() {
+                return getOrCreate(targetCache, cachekey, true, objects);
+            }
+        }) {
+            @Override
+            protected void done() {
+                pendingLoads.remove(pendingKey, this);
+                super.done();
             }
+        };
+        final LoadFuture.Task<T> existsTask = pendingLoads.putIfAbsent(pendingKey, newTask);
+        if (existsTask != null) {
+            return new LoadFuture<T>(existsTask);
         }
-        return instance;
+        try {
+            executeAsync(newTask);
+        } catch (final RejectedExecutionException e) {
+            pendingLoads.remove(pendingKey, newTask);
+            throw e;
+        }
+        return new LoadFuture<T>(newTask);
     }
 
     /**
@@ -141,6 +361,52 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
      */
     public void clear() {
         cache.clear();
+        classLoaderCaches.clear();
+        final ConcurrentMap<String, KeyUsage> usages = keyUsages;
+        if (usages != null) {
+            usages.clear();
+        }
+    }
+
+    /**
+     * Get cache name.
+     * <p>
+     * used as cache name of profiling event. default is class name (if anonymous class, enclosing class name).
+     * </p>
+     * 
+     * @return cache name.
+     */
+    protected String getCacheName() {
+        if (snapshotName != null) {
+            return snapshotName;
+        }
+        final Class<?> cacheClass = getClass();
+        if (cacheClass.isAnonymousClass() && cacheClass.getEnclosingClass() != null) {
+            return cacheClass.getEnclosingClass().getName();
+        }
+        return cacheClass.getName();
+    }
+
+    /**
+     * Load instance.
+     * 
+     * @param cachekey cache key.
+     * @param objects cache target objects.
+     * @return instance.
+     */
+    private T load(final String cachekey, final Object... objects) {
+        if (!ProfilingEvents.isEnabled(ProfilingEvents.Type.CACHE_LOAD)) {
+            return initialValue(objects);
+        }
+        final long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            final T instance = initialValue(objects);
+            success = true;
+            return instance;
+        } finally {
+            ProfilingEvents.cacheLoaded(getCacheName(), cachekey, System.nanoTime() - startTime, success);
+        }
     }
 
     /**
@@ -166,6 +432,519 @@ public abstract class CacheByKey<T> implements LazyCache<T> {
         return cachekeyStrBuilder.toString();
     }
 
+    /**
+     * Get class loader of cache target objects.
+     * <p>
+     * default is class loader of first {@link Class} object. if it is class loader of this cache (or its ancestor),
+     * entry is held in shared cache.
+     * </p>
+     * 
+     * @param objects cache target objects.
+     * @return class loader. if not depends on class loader, null.
+     */
+    protected ClassLoader classLoaderOf(final Object... objects) {
+        if (objects == null) {
+            return null;
+        }
+        for (final Object object : objects) {
+            if (object instanceof Class<?>) {
+                return ((Class<?>) object).getClassLoader();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encode cache target objects for snapshot.
+     * <p>
+     * default supports null, {@link String}, {@link Integer}, {@link Locale}, {@link Class}, {@link File} and
+     * {@link URL}. please override if cache uses other type.
+     * </p>
+     * 
+     * @param objects cache target objects.
+     * @return encoded objects. if not supported, null.
+     */
+    protected String encodeSnapshotArgs(final Object... objects) {
+        final StringBuilder encoded = new StringBuilder();
+        for (int index = 0; index < objects.length; index++) {
+            final Object object = objects[index];
+            final String token;
+            if (object == null) {
+                token = "n:";
+            } else if (object instanceof String) {
+                token = "s:" + object;
+            } else if (object instanceof Integer) {
+                token = "i:" + object;
+            } else if (object instanceof Locale) {
+                token = "l:" + object;
+            } else if (object instanceof Class<?>) {
+                token = "c:" + ((Class<?>) object).getName();
+            } else if (object instanceof File) {
+                token = "f:" + ((File) object).getPath();
+            } else if (object instanceof URL) {
+                token = "u:" + ((URL) object).toExternalForm();
+            } else {
+                return null;
+            }
+            if (index != 0) {
+                encoded.append(SNAPSHOT_ARGS_SEPARATOR);
+            }
+            try {
+                encoded.append(URLEncoder.encode(token, SNAPSHOT_ENCODING));
+            } catch (final UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Decode cache target objects of snapshot.
+     * 
+     * @param encoded encoded objects.
+     * @return cache target objects.
+     * @throws IllegalArgumentException if encoded objects is invalid.
+     * @throws ClassNotFoundException if class is not found.
+     */
+    protected Object[] decodeSnapshotArgs(final String encoded) throws ClassNotFoundException {
+        if (encoded.length() == 0) {
+            return new Object[0];
+        }
+        final String[] tokens = encoded.split(SNAPSHOT_ARGS_SEPARATOR, -1);
+        final Object[] objects = new Object[tokens.length];
+        for (int index = 0; index < tokens.length; index++) {
+            final String token;
+            try {
+                token = URLDecoder.decode(tokens[index], SNAPSHOT_ENCODING);
+            } catch (final UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+            if (token.length() < 2 || token.charAt(1) != ':') {
+                throw new IllegalArgumentException("invalid snapshot args. args is [" + encoded + "].");
+            }
+            final String value = token.substring(2);
+            switch (token.charAt(0)) {
+            case 'n':
+                objects[index] = null;
+                break;
+            case 's':
+                objects[index] = value;
+                break;
+            case 'i':
+                objects[index] = Integer.valueOf(value);
+                break;
+            case 'l':
+                final String[] localeParts = value.split("_", 3);
+                objects[index] = new Locale(localeParts[0], 1 < localeParts.length ? localeParts[1] : "",
+                        2 < localeParts.length ? localeParts[2] : "");
+                break;
+            case 'c':
+                objects[index] = loadClass(value);
+                break;
+            case 'f':
+                objects[index] = new File(value);
+                break;
+            case 'u':
+                try {
+                    objects[index] = new URL(value);
+                } catch (final MalformedURLException e) {
+                    throw new IllegalArgumentException("invalid snapshot args. args is [" + encoded + "].", e);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("invalid snapshot args. args is [" + encoded + "].");
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Get snapshot target cache.
+     * 
+     * @param snapshotName snapshot name.
+     * @return cache. if not registered, null.
+     */
+    static CacheByKey<?> getSnapshotCache(final String snapshotName) {
+        return snapshotCaches.get(snapshotName);
+    }
+
+    /**
+     * Enable usage tracking of keys.
+     */
+    synchronized void enableKeyUsage() {
+        if (keyUsages == null) {
+            keyUsages = new ConcurrentHashMap<String, KeyUsage>();
+        }
+    }
+
+    /**
+     * Get key usages.
+     * 
+     * @return key usages. if usage tracking is disabled, empty.
+     */
+    List<KeyUsage> getKeyUsages() {
+        final ConcurrentMap<String, KeyUsage> usages = keyUsages;
+        if (usages == null) {
+            return new ArrayList<KeyUsage>();
+        }
+        return new ArrayList<KeyUsage>(usages.values());
+    }
+
+    /**
+     * Warm up entry from snapshot.
+     * <p>
+     * load of warm up is not counted as usage. half of count in snapshot is carried over, so count of key that is not
+     * used any more decays on each restart, and key is dropped from snapshot when count becomes 0.
+     * </p>
+     * 
+     * @param snapshotArgs encoded cache target objects.
+     * @param count usage count in snapshot.
+     * @throws ClassNotFoundException if class is not found.
+     */
+    void warmUp(final String snapshotArgs, final long count) throws ClassNotFoundException {
+        final Object[] objects = decodeSnapshotArgs(snapshotArgs);
+        final String cachekey = generateCacheKey(objects);
+        getOrCreate(cacheOf(objects), cachekey, false, objects);
+        final long carriedCount = count / 2;
+        if (0 < carriedCount) {
+            final KeyUsage usage = usageOf(cachekey, objects);
+            if (usage != null) {
+                usage.count.addAndGet(carriedCount);
+            }
+        }
+    }
+
+    /**
+     * Get or Create instance in target cache.
+     * 
+     * @param targetCache target cache.
+     * @param cachekey cache key.
+     * @param countUsage if record usage of key, true.
+     * @param objects cache target objects.
+     * @return cached instance.
+     */
+    private T getOrCreate(final ConcurrentMap<String, T> targetCache, final String cachekey,
+            final boolean countUsage, final Object... objects) {
+        T instance = targetCache.get(cachekey);
+        boolean loaded = false;
+        if (instance == null) {
+            synchronized (cachekey.intern()) {
+                instance = targetCache.get(cachekey);
+                if (instance == null) {
+                    instance = load(cachekey, objects);
+                    targetCache.put(cachekey, instance);
+                    loaded = true;
+                }
+            }
+        }
+        if (countUsage) {
+            recordUsage(cachekey, loaded, objects);
+        }
+        return instance;
+    }
+
+    /**
+     * Execute async load.
+     * <p>
+     * if default executor is shut down by {@link #purgeClassLoader(ClassLoader)} after it is got, retry once with
+     * newly created executor.
+     * </p>
+     * 
+     * @param task load task.
+     * @throws RejectedExecutionException if executor rejected loading.
+     */
+    private void executeAsync(final Runnable task) {
+        final Executor executor = getAsyncExecutor();
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            if (!(executor instanceof ExecutorService) || !((ExecutorService) executor).isShutdown()) {
+                throw e;
+            }
+            final Executor retryExecutor = getAsyncExecutor();
+            if (retryExecutor == executor) {
+                throw e;
+            }
+            retryExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Get executor for async load.
+     * 
+     * @return executor for async load.
+     */
+    private Executor getAsyncExecutor() {
+        final Executor executor = asyncExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (CacheByKey.class) {
+            if (defaultAsyncExecutor == null) {
+                final AtomicInteger threadNumber = new AtomicInteger();
+                final ClassLoader classLoader = CacheByKey.class.getClassLoader();
+                final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(DEFAULT_ASYNC_THREADS,
+                        DEFAULT_ASYNC_THREADS, DEFAULT_ASYNC_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(DEFAULT_ASYNC_QUEUE_CAPACITY), new ThreadFactory() {
+                            public Thread newThread(final Runnable runnable) {
+                                final Thread thread = new Thread(runnable, "jichigo-cache-load-"
+                                        + threadNumber.incrementAndGet());
+                                thread.setDaemon(true);
+                                // do not retain class loader of caller. (e.g. web application)
+                                thread.setContextClassLoader(classLoader);
+                                return thread;
+                            }
+                        });
+                threadPoolExecutor.allowCoreThreadTimeOut(true);
+                ownedAsyncExecutor = threadPoolExecutor;
+                defaultAsyncExecutor = threadPoolExecutor;
+            }
+            return defaultAsyncExecutor;
+        }
+    }
+
+    /**
+     * Get default async executor created by this class.
+     * 
+     * @return default async executor. if not created or shut down, null.
+     */
+    static synchronized Executor getOwnedAsyncExecutor() {
+        return ownedAsyncExecutor;
+    }
+
+    /**
+     * Shut down default async executor created by this class.
+     */
+    private static synchronized void shutdownOwnedAsyncExecutor() {
+        if (ownedAsyncExecutor == null) {
+            return;
+        }
+        ownedAsyncExecutor.shutdown();
+        if (defaultAsyncExecutor == ownedAsyncExecutor) {
+            defaultAsyncExecutor = null;
+        }
+        ownedAsyncExecutor = null;
+    }
+
+    /**
+     * Get target cache of objects.
+     * 
+     * @param objects cache target objects.
+     * @return shared cache or cache of class loader.
+     */
+    private ConcurrentMap<String, T> cacheOf(final Object... objects) {
+        final ClassLoader classLoader = classLoaderOf(objects);
+        if (classLoader == null || isAncestorOrSelf(classLoader, getClass().getClassLoader())) {
+            return cache;
+        }
+        final ConcurrentMap<String, T> classLoaderCache = classLoaderCaches.get(classLoader);
+        if (classLoaderCache != null) {
+            return classLoaderCache;
+        }
+        final ConcurrentMap<String, T> newCache = new ConcurrentHashMap<String, T>();
+        final ConcurrentMap<String, T> existsCache = classLoaderCaches.putIfAbsent(classLoader, newCache);
+        return existsCache != null ? existsCache : newCache;
+    }
+
+    /**
+     * Purge entries of class loader.
+     * 
+     * @param classLoader class loader of undeployed application.
+     */
+    private void purge(final ClassLoader classLoader) {
+        if (isAncestorOrSelf(classLoader, getClass().getClassLoader())) {
+            clear();
+            return;
+        }
+        for (final Iterator<ClassLoader> iterator = classLoaderCaches.keySet().iterator(); iterator.hasNext();) {
+            if (isAncestorOrSelf(classLoader, iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Is ancestor or self.
+     * 
+     * @param ancestor candidate of ancestor class loader.
+     * @param classLoader class loader.
+     * @return if ancestor is class loader or its ancestor, return true.
+     */
+    private static boolean isAncestorOrSelf(final ClassLoader ancestor, final ClassLoader classLoader) {
+        for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record usage of key.
+     * <p>
+     * load is counted at once. hit only marks key as touched (no write if already touched), and is counted once per
+     * snapshot interval by {@link KeyUsage#collectCount()}. so hot key does not contend on counter.
+     * </p>
+     * 
+     * @param cachekey cache key.
+     * @param loaded if instance is loaded, true. if cache hit, false.
+     * @param objects cache target objects.
+     */
+    private void recordUsage(final String cachekey, final boolean loaded, final Object... objects) {
+        final KeyUsage usage = usageOf(cachekey, objects);
+        if (usage == null) {
+            return;
+        }
+        if (loaded) {
+            usage.count.incrementAndGet();
+        } else if (!usage.touched) {
+            usage.touched = true;
+        }
+    }
+
+    /**
+     * Get usage of key.
+     * 
+     * @param cachekey cache key.
+     * @param objects cache target objects.
+     * @return usage of key. if usage tracking is disabled, null.
+     */
+    private KeyUsage usageOf(final String cachekey, final Object... objects) {
+        final ConcurrentMap<String, KeyUsage> usages = keyUsages;
+        if (usages == null) {
+            return null;
+        }
+        KeyUsage usage = usages.get(cachekey);
+        if (usage == null) {
+            usage = new KeyUsage(encodeSnapshotArgs(objects));
+            final KeyUsage existing = usages.putIfAbsent(cachekey, usage);
+            if (existing != null) {
+                usage = existing;
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Load class for snapshot.
+     * 
+     * @param className class name.
+     * @return class.
+     * @throws ClassNotFoundException if class is not found.
+     */
+    private Class<?> loadClass(final String className) throws ClassNotFoundException {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                return Class.forName(className, false, contextClassLoader);
+            } catch (final ClassNotFoundException e) {
+                // fall back to loader of cache.
+            }
+        }
+        return Class.forName(className, false, getClass().getClassLoader());
+    }
+
+    /**
+     * Key of async loading.
+     * <p>
+     * identified by target cache (shared or per class loader) and cache key.
+     * </p>
+     */
+    private static final class PendingKey {
+
+        /**
+         * Target cache.
+         */
+        private final Map<String, ?> targetCache;
+
+        /**
+         * Cache key.
+         */
+        private final String cachekey;
+
+        /**
+         * Constructor.
+         * 
+         * @param targetCache target cache.
+         * @param cachekey cache key.
+         */
+        private PendingKey(final Map<String, ?> targetCache, final String cachekey) {
+            this.targetCache = targetCache;
+            this.cachekey = cachekey;
+        }
+
+        /**
+         * Hash code.
+         * 
+         * @return hash code.
+         */
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(targetCache) + cachekey.hashCode();
+        }
+
+        /**
+         * Equals.
+         * 
+         * @param object other object.
+         * @return if same target cache and same cache key, return true.
+         */
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof PendingKey)) {
+                return false;
+            }
+            final PendingKey other = (PendingKey) object;
+            return targetCache == other.targetCache && cachekey.equals(other.cachekey);
+        }
+    }
+
+    /**
+     * Usage of key.
+     */
+    static final class KeyUsage {
+
+        /**
+         * Encoded cache target objects. (null if not supported)
+         */
+        final String snapshotArgs;
+
+        /**
+         * Usage count. (count of loads and snapshot intervals in which key is used)
+         */
+        final AtomicLong count = new AtomicLong();
+
+        /**
+         * Touched flag. (key is used since previous collect)
+         */
+        volatile boolean touched;
+
+        /**
+         * Constructor.
+         * 
+         * @param snapshotArgs encoded cache target objects.
+         */
+        private KeyUsage(final String snapshotArgs) {
+            this.snapshotArgs = snapshotArgs;
+        }
+
+        /**
+         * Collect usage count.
+         * <p>
+         * if touched since previous collect, count up and clear touched flag.
+         * </p>
+         * 
+         * @return usage count.
+         */
+        long collectCount() {
+            if (touched) {
+                touched = false;
+                return count.incrementAndGet();
+            }
+            return count.get();
+        }
+    }
+
     /**
      * Create instance.
      * 
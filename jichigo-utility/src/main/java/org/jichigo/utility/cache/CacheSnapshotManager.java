@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manager class of cache warm up snapshot.
+ * <p>
+ * periodically write keys (not values) of snapshot target {@link CacheByKey} in use to local file, in most used
+ * order. usage is count of loads and write intervals in which key is used. half of usage is carried over on warm up,
+ * so unused keys decay.<br>
+ * on start, read snapshot files and rebuild entries in parallel by bounded threads, and wait until completed (or
+ * timeout). so please call {@link #start()} before node reports ready. (e.g. init-method of bean)<br>
+ * stale or invalid keys are skipped.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class CacheSnapshotManager {
+
+    /**
+     * Default cache names.
+     */
+    private static final List<String> DEFAULT_CACHE_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "org.jichigo.utility.regex.PatternCache", "org.jichigo.utility.text.DatePattern",
+            "org.jichigo.utility.text.MessagePattern", "org.jichigo.utility.text.NumberPattern",
+            "org.jichigo.utility.xml.bind.JAXBContextCache", "org.jichigo.utility.xml.validation.SchemaCache"));
+
+    /**
+     * Default interval(seconds).
+     */
+    private static final long DEFAULT_INTERVAL_SECONDS = 300;
+
+    /**
+     * Default max keys per cache.
+     */
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    /**
+     * Default warm up timeout(seconds).
+     */
+    private static final long DEFAULT_WARM_UP_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Snapshot file suffix.
+     */
+    private static final String SNAPSHOT_FILE_SUFFIX = ".snapshot";
+
+    /**
+     * Snapshot file encoding.
+     */
+    private static final String SNAPSHOT_FILE_ENCODING = "UTF-8";
+
+    /**
+     * Snapshot field separator.
+     */
+    private static final char FIELD_SEPARATOR = '\t';
+
+    /**
+     * Comment prefix of snapshot file.
+     */
+    private static final String COMMENT_PREFIX = "#";
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private final Logger logger = LoggerFactory.getLogger(CacheSnapshotManager.class);
+
+    /**
+     * Snapshot directory.
+     */
+    private File snapshotDirectory;
+
+    /**
+     * Target cache names.
+     */
+    private List<String> cacheNames = DEFAULT_CACHE_NAMES;
+
+    /**
+     * Interval of write snapshot(seconds).
+     */
+    private long intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+
+    /**
+     * Max keys per cache.
+     */
+    private int maxKeys = DEFAULT_MAX_KEYS;
+
+    /**
+     * Warm up thread count.
+     */
+    private int warmUpThreads = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    /**
+     * Warm up timeout(seconds).
+     */
+    private long warmUpTimeoutSeconds = DEFAULT_WARM_UP_TIMEOUT_SECONDS;
+
+    /**
+     * Target caches.
+     */
+    private final List<NamedCache> caches = new ArrayList<NamedCache>();
+
+    /**
+     * Scheduler of write snapshot.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Lock of write snapshot. (periodic write and write on stop use same temporary file)
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Inject snapshot directory.
+     * 
+     * @param snapshotDirectory directory of snapshot files. (local file system)
+     */
+    public void setSnapshotDirectory(final File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * Inject target cache names.
+     * <p>
+     * name is class name of cache holder. default is PatternCache, DatePattern, MessagePattern, NumberPattern,
+     * JAXBContextCache and SchemaCache.
+     * </p>
+     * 
+     * @param cacheNames target cache names.
+     */
+    public void setCacheNames(final List<String> cacheNames) {
+        this.cacheNames = cacheNames;
+    }
+
+    /**
+     * Inject interval of write snapshot(seconds).
+     * 
+     * @param intervalSeconds interval. if 0 or less, snapshot is written only on stop.
+     */
+    public void setIntervalSeconds(final long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Inject max keys per cache.
+     * 
+     * @param maxKeys max keys written per cache. (most used keys are written)
+     */
+    public void setMaxKeys(final int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Inject warm up thread count.
+     * 
+     * @param warmUpThreads thread count of rebuild entries.
+     */
+    public void setWarmUpThreads(final int warmUpThreads) {
+        this.warmUpThreads = warmUpThreads;
+    }
+
+    /**
+     * Inject warm up timeout(seconds).
+     * 
+     * @param warmUpTimeoutSeconds max time of wait for warm up.
+     */
+    public void setWarmUpTimeoutSeconds(final long warmUpTimeoutSeconds) {
+        this.warmUpTimeoutSeconds = warmUpTimeoutSeconds;
+    }
+
+    /**
+     * Start.
+     * <p>
+     * warm up target caches from snapshot files, and start periodic write of snapshot.
+     * </p>
+     * 
+     * @throws IllegalStateException if snapshotDirectory is null.
+     */
+    public synchronized void start() {
+        if (snapshotDirectory == null) {
+            throw new IllegalStateException("snapshotDirectory is null. please set.");
+        }
+        caches.clear();
+        for (final String cacheName : cacheNames) {
+            final CacheByKey<?> cache = resolveCache(cacheName);
+            if (cache == null) {
+                logger.warn("cache is not found. cache name is [{}].", cacheName);
+                continue;
+            }
+            cache.enableKeyUsage();
+            caches.add(new NamedCache(cacheName, cache));
+        }
+        warmUp();
+        if (0 < intervalSeconds) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(newThreadFactory("jichigo-cache-snapshot-"));
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    writeSnapshots();
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop.
+     * <p>
+     * stop periodic write, and write snapshot. (after running periodic write is completed)
+     * </p>
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        writeSnapshots();
+    }
+
+    /**
+     * Write snapshots of target caches.
+     * <p>
+     * fail of write is logged and ignored. concurrent writes are serialized.
+     * </p>
+     */
+    public void writeSnapshots() {
+        // get target caches before lock. (stop holds this and waits write lock)
+        final List<NamedCache> targetCaches = snapshotCaches();
+        synchronized (writeLock) {
+            for (final NamedCache namedCache : targetCaches) {
+                try {
+                    writeSnapshot(namedCache);
+                } catch (final IOException e) {
+                    logger.warn("fail write cache snapshot. cache name is [" + namedCache.name + "].", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Warm up target caches.
+     */
+    private void warmUp() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (final NamedCache namedCache : caches) {
+            try {
+                for (final String[] entry : readSnapshot(namedCache)) {
+                    tasks.add(new WarmUpTask(namedCache, entry[1], Long.parseLong(entry[0])));
+                }
+            } catch (final IOException e) {
+                logger.warn("fail read cache snapshot. cache name is [" + namedCache.name + "].", e);
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, warmUpThreads),
+                newThreadFactory("jichigo-cache-warm-up-"));
+        for (final Runnable task : tasks) {
+            executorService.execute(task);
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(warmUpTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("cache warm up is timeout. timeout is [{}]s.", Long.valueOf(warmUpTimeoutSeconds));
+                executorService.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("cache warm up is completed. entries is [{}]. elapsed is [{}]ms.", Integer.valueOf(tasks
+                    .size()), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+        }
+    }
+
+    /**
+     * Read snapshot file.
+     * 
+     * @param namedCache target cache.
+     * @return entries of count and args. (most used order)
+     * @throws IOException if occur io error.
+     */
+    private List<String[]> readSnapshot(final NamedCache namedCache) throws IOException {
+        final List<String[]> entries = new ArrayList<String[]>();
+        final File snapshotFile = snapshotFileOf(namedCache);
+        if (!snapshotFile.isFile()) {
+            return entries;
+        }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(snapshotFile),
+                SNAPSHOT_FILE_ENCODING));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null && entries.size() < maxKeys) {
+                if (line.length() == 0 || line.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                final int separatorIndex = line.indexOf(FIELD_SEPARATOR);
+                if (separatorIndex <= 0) {
+                    logger.debug("skip invalid snapshot line. line is [{}].", line);
+                    continue;
+                }
+                final String count = line.substring(0, separatorIndex);
+                try {
+                    Long.parseLong(count);
+                } catch (final NumberFormatException e) {
+                    logger.debug("skip invalid snapshot line. line is [{}].", line);
+                    continue;
+                }
+                entries.add(new String[] { count, line.substring(separatorIndex + 1) });
+            }
+        } finally {
+            reader.close();
+        }
+        return entries;
+    }
+
+    /**
+     * Write snapshot file.
+     * <p>
+     * write to temporary file, and rename.
+     * </p>
+     * 
+     * @param namedCache target cache.
+     * @throws IOException if occur io error.
+     */
+    private void writeSnapshot(final NamedCache namedCache) throws IOException {
+        final List<CacheByKey.KeyUsage> usages = namedCache.cache.getKeyUsages();
+        final List<Object[]> entries = new ArrayList<Object[]>(usages.size());
+        for (final CacheByKey.KeyUsage usage : usages) {
+            final long count = usage.collectCount();
+            if (usage.snapshotArgs != null && 0 < count) {
+                entries.add(new Object[] { Long.valueOf(count), usage.snapshotArgs });
+            }
+        }
+        Collections.sort(entries, new Comparator<Object[]>() {
+            public int compare(final Object[] entry1, final Object[] entry2) {
+                return ((Long) entry2[0]).compareTo((Long) entry1[0]);
+            }
+        });
+        if (!snapshotDirectory.isDirectory() && !snapshotDirectory.mkdirs()) {
+            throw new IOException("fail make directory. directory is [" + snapshotDirectory + "].");
+        }
+        final File snapshotFile = snapshotFileOf(namedCache);
+        final File temporaryFile = new File(snapshotDirectory, snapshotFile.getName() + ".tmp");
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile),
+                SNAPSHOT_FILE_ENCODING));
+        try {
+            writer.write(COMMENT_PREFIX + " cache snapshot of " + namedCache.name);
+            writer.newLine();
+            for (int index = 0; index < entries.size() && index < maxKeys; index++) {
+                writer.write(entries.get(index)[0] + String.valueOf(FIELD_SEPARATOR) + entries.get(index)[1]);
+                writer.newLine();
+            }
+        } finally {
+            writer.close();
+        }
+        if (!temporaryFile.renameTo(snapshotFile)) {
+            if (!snapshotFile.delete() || !temporaryFile.renameTo(snapshotFile)) {
+                throw new IOException("fail rename snapshot file. file is [" + snapshotFile + "].");
+            }
+        }
+    }
+
+    /**
+     * Get target caches.
+     * 
+     * @return copy of target caches.
+     */
+    private synchronized List<NamedCache> snapshotCaches() {
+        return new ArrayList<NamedCache>(caches);
+    }
+
+    /**
+     * Get snapshot file.
+     * 
+     * @param namedCache target cache.
+     * @return snapshot file.
+     */
+    private File snapshotFileOf(final NamedCache namedCache) {
+        return new File(snapshotDirectory, namedCache.name + SNAPSHOT_FILE_SUFFIX);
+    }
+
+    /**
+     * Resolve cache by name.
+     * <p>
+     * if not registered, initialize class of name. (cache is registered on class initialization)
+     * </p>
+     * 
+     * @param cacheName cache name.
+     * @return cache. if not found, null.
+     */
+    private CacheByKey<?> resolveCache(final String cacheName) {
+        CacheByKey<?> cache = CacheByKey.getSnapshotCache(cacheName);
+        if (cache == null) {
+            try {
+                Class.forName(cacheName, true, CacheSnapshotManager.class.getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                logger.debug("class of cache is not found. cache name is [{}].", cacheName);
+            } catch (final LinkageError e) {
+                logger.debug("class of cache can not be initialized. cache name is [{}].", cacheName);
+            }
+            cache = CacheByKey.getSnapshotCache(cacheName);
+        }
+        return cache;
+    }
+
+    /**
+     * New daemon thread factory.
+     * 
+     * @param prefix prefix of thread name.
+     * @return thread factory.
+     */
+    private static ThreadFactory newThreadFactory(final String prefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Cache with name.
+     */
+    private static final class NamedCache {
+
+        /**
+         * Cache name.
+         */
+        private final String name;
+
+        /**
+         * Cache.
+         */
+        private final CacheByKey<?> cache;
+
+        /**
+         * Constructor.
+         * 
+         * @param name cache name.
+         * @param cache cache.
+         */
+        private NamedCache(final String name, final CacheByKey<?> cache) {
+            this.name = name;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Task of warm up one entry.
+     */
+    private final class WarmUpTask implements Runnable {
+
+        /**
+         * Target cache.
+         */
+        private final NamedCache namedCache;
+
+        /**
+         * Encoded cache target objects.
+         */
+        private final String snapshotArgs;
+
+        /**
+         * Usage count in snapshot.
+         */
+        private final long count;
+
+        /**
+         * Constructor.
+         * 
+         * @param namedCache target cache.
+         * @param snapshotArgs encoded cache target objects.
+         * @param count usage count in snapshot.
+         */
+        private WarmUpTask(final NamedCache namedCache, final String snapshotArgs, final long count) {
+            this.namedCache = namedCache;
+            this.snapshotArgs = snapshotArgs;
+            this.count = count;
+        }
+
+        /**
+         * Rebuild entry. stale or invalid key is skipped.
+         */
+        public void run() {
+            try {
+                namedCache.cache.warmUp(snapshotArgs, count);
+            } catch (final Exception e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("skip stale cache snapshot entry. cache name is [" + namedCache.name
+                            + "]. args is [" + snapshotArgs + "].", e);
+                }
+            }
+        }
+    }
+
+}
@@ -41,4 +41,17 @@ public interface LazyCache<T> extends Cache<T> {
      */
     T getOrCreate(Object... args);
 
+    /**
+     * Get or Create instance asynchronously.
+     * <p>
+     * if not exists in cache, create new instance in background and cache.<br>
+     * load is shared by concurrent callers of same key. each caller gets its own future (cancel of it does not cancel
+     * shared load), and can add listener of completion.
+     * </p>
+     * 
+     * @param args cache target objects.
+     * @return future of cached instance.
+     */
+    LoadFuture<T> getOrCreateAsync(Object... args);
+
 }
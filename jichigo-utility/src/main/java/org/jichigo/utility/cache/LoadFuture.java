@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Future class of async cache load.
+ * <p>
+ * view of load task shared by concurrent callers of same key. each caller gets its own view, and
+ * {@link #cancel(boolean)} of view does not cancel shared load.<br>
+ * listener added by {@link #addListener(Runnable, Executor)} is executed on completion of load, so caller can compose
+ * without blocking on get method.<br>
+ * this class's instance is thread safe.
+ * </p>
+ * 
+ * @param <T> type of cached instance.
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public final class LoadFuture<T> implements Future<T> {
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(LoadFuture.class);
+
+    /**
+     * Shared load task.
+     */
+    private final Task<T> task;
+
+    /**
+     * Constructor.
+     * 
+     * @param task shared load task.
+     */
+    LoadFuture(final Task<T> task) {
+        this.task = task;
+    }
+
+    /**
+     * Add listener of completion.
+     * <p>
+     * listener is executed by executor when load is completed (succeeded, failed or cancelled). if already completed,
+     * listener is executed immediately.<br>
+     * please get result by get method of this future in listener. (it does not block)
+     * </p>
+     * 
+     * @param listener listener of completion.
+     * @param executor executor of listener. (e.g. executor that runs on calling thread)
+     * @throws IllegalArgumentException if listener or executor is null.
+     */
+    public void addListener(final Runnable listener, final Executor executor) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null.");
+        }
+        task.addListener(listener, executor);
+    }
+
+    /**
+     * Do not cancel shared load.
+     * 
+     * @param mayInterruptIfRunning ignored.
+     * @return always false.
+     */
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    /**
+     * Is cancelled.
+     * 
+     * @return if shared load is cancelled (e.g. executor is shut down), return true.
+     */
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    /**
+     * Is done.
+     * 
+     * @return if load is completed, return true.
+     */
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * Get loaded instance.
+     * 
+     * @return loaded instance.
+     * @throws InterruptedException if current thread is interrupted.
+     * @throws ExecutionException if load failed.
+     */
+    public T get() throws InterruptedException, ExecutionException {
+        return task.get();
+    }
+
+    /**
+     * Get loaded instance with timeout.
+     * 
+     * @param timeout max time to wait.
+     * @param unit unit of timeout.
+     * @return loaded instance.
+     * @throws InterruptedException if current thread is interrupted.
+     * @throws ExecutionException if load failed.
+     * @throws TimeoutException if wait timed out.
+     */
+    public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException,
+            TimeoutException {
+        return task.get(timeout, unit);
+    }
+
+    /**
+     * Shared load task.
+     * <p>
+     * executes listeners on completion.
+     * </p>
+     * 
+     * @param <T> type of cached instance.
+     */
+    static class Task<T> extends FutureTask<T> {
+
+        /**
+         * Listeners waiting completion. (null after completed)
+         */
+        private List<Runnable> listeners = new ArrayList<Runnable>();
+
+        /**
+         * Constructor.
+         * 
+         * @param callable load of instance.
+         */
+        Task(final Callable<T> callable) {
+            super(callable);
+        }
+
+        /**
+         * Constructor of completed task.
+         * 
+         * @param instance cached instance.
+         */
+        Task(final T instance) {
+            super(new Runnable() {
+                public void run() {
+                    // completed by cached instance.
+                }
+            }, instance);
+            run();
+        }
+
+        /**
+         * Execute listeners.
+         */
+        @Override
+        protected void done() {
+            final List<Runnable> completedListeners;
+            synchronized (this) {
+                completedListeners = listeners;
+                listeners = null;
+            }
+            for (final Runnable listener : completedListeners) {
+                listener.run();
+            }
+        }
+
+        /**
+         * Add listener.
+         * 
+         * @param listener listener of completion.
+         * @param executor executor of listener.
+         */
+        private void addListener(final Runnable listener, final Executor executor) {
+            final Runnable executeListener = new Runnable() {
+                public void run() {
+                    try {
+                        executor.execute(listener);
+                    } catch (final RuntimeException e) {
+                        logger.warn("fail execute listener of cache load. listener is [" + listener + "].", e);
+                    }
+                }
+            };
+            synchronized (this) {
+                if (listeners != null) {
+                    listeners.add(executeListener);
+                    return;
+                }
+            }
+            executeListener.run();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.event;
+
+/**
+ * Listener interface of profiling events.
+ * <p>
+ * implement this interface to forward jichigo's timing and cache events to profiler (e.g. custom flight recorder
+ * events), and register by {@link ProfilingEvents#setListener(ProfilingEventListener)}.<br>
+ * callback methods are called on the thread that occurred the event. please implement quickly and thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public interface ProfilingEventListener {
+
+    /**
+     * Is enabled event type.
+     * <p>
+     * called on register and on {@link ProfilingEvents#refresh()}. callback of disabled event type is not called.
+     * </p>
+     * 
+     * @param type event type.
+     * @return if enabled, return true.
+     */
+    boolean isEnabled(ProfilingEvents.Type type);
+
+    /**
+     * Stop watch started.
+     * 
+     * @param name stop watch name. (nullable)
+     */
+    void stopWatchStarted(String name);
+
+    /**
+     * Stop watch split.
+     * 
+     * @param name stop watch name. (nullable)
+     * @param splitNanos split time(nano seconds).
+     */
+    void stopWatchSplit(String name, long splitNanos);
+
+    /**
+     * Stop watch stopped.
+     * 
+     * @param name stop watch name. (nullable)
+     * @param durationNanos lap time(nano seconds).
+     */
+    void stopWatchStopped(String name, long durationNanos);
+
+    /**
+     * Cache value loaded.
+     * 
+     * @param cacheName cache name.
+     * @param key cache key.
+     * @param durationNanos load time(nano seconds).
+     * @param success if loaded successfully, true. if occur exception, false.
+     */
+    void cacheLoaded(String cacheName, String key, long durationNanos, boolean success);
+
+    /**
+     * Exception logged.
+     * 
+     * @param level log level name.
+     * @param message log message.
+     * @param e logged exception.
+     */
+    void exceptionLogged(String level, String message, Exception e);
+
+}
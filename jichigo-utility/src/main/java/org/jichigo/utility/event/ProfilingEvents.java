@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatcher class of profiling events.
+ * <p>
+ * jichigo's timing and cache classes check {@link #isEnabled(Type)} before measuring and emitting event, so cost is
+ * only a volatile read while listener is not registered (or event type is disabled).<br>
+ * enabled event types are decided by {@link ProfilingEventListener#isEnabled(Type)} on register, and updated by
+ * {@link #refresh()}. (e.g. listener backed by flight recorder calls refresh when recording is started or stopped)<br>
+ * runtime exception thrown by listener is logged and ignored, so it does not mask or fail profiled operation.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public final class ProfilingEvents {
+
+    /**
+     * Event type enum.
+     */
+    public static enum Type {
+        /**
+         * start, split and stop of stop watch.
+         */
+        STOP_WATCH,
+        /**
+         * load of cache value.
+         */
+        CACHE_LOAD,
+        /**
+         * log of exception logger.
+         */
+        EXCEPTION_LOG;
+
+        /**
+         * Get bit of type.
+         * 
+         * @return bit of type.
+         */
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingEvents.class);
+
+    /**
+     * Registered listener.
+     */
+    private static volatile ProfilingEventListener listener;
+
+    /**
+     * Bit mask of enabled event types.
+     */
+    private static volatile int enabledMask;
+
+    /**
+     * Constructor.
+     */
+    private ProfilingEvents() {
+        // do nothing.
+    }
+
+    /**
+     * Register listener.
+     * 
+     * @param listener listener. if null, unregister.
+     */
+    public static synchronized void setListener(final ProfilingEventListener listener) {
+        if (listener == null) {
+            enabledMask = 0;
+            ProfilingEvents.listener = null;
+            return;
+        }
+        final int mask = enabledMaskOf(listener);
+        enabledMask = 0;
+        ProfilingEvents.listener = listener;
+        enabledMask = mask;
+    }
+
+    /**
+     * Refresh enabled event types.
+     * <p>
+     * ask {@link ProfilingEventListener#isEnabled(Type)} of registered listener again. if not registered, do nothing.
+     * </p>
+     */
+    public static synchronized void refresh() {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        enabledMask = enabledMaskOf(current);
+    }
+
+    /**
+     * Get bit mask of enabled event types.
+     * 
+     * @param listener listener.
+     * @return bit mask of enabled event types.
+     */
+    private static int enabledMaskOf(final ProfilingEventListener listener) {
+        int mask = 0;
+        for (final Type type : Type.values()) {
+            if (listener.isEnabled(type)) {
+                mask |= type.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Is enabled event type.
+     * 
+     * @param type event type.
+     * @return if listener is registered and type is enabled, return true.
+     */
+    public static boolean isEnabled(final Type type) {
+        return (enabledMask & type.bit()) != 0;
+    }
+
+    /**
+     * Emit stop watch started event.
+     * 
+     * @param name stop watch name.
+     */
+    public static void stopWatchStarted(final String name) {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.stopWatchStarted(name);
+        } catch (final RuntimeException e) {
+            listenerFailed("stop watch started", e);
+        }
+    }
+
+    /**
+     * Emit stop watch split event.
+     * 
+     * @param name stop watch name.
+     * @param splitNanos split time(nano seconds).
+     */
+    public static void stopWatchSplit(final String name, final long splitNanos) {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.stopWatchSplit(name, splitNanos);
+        } catch (final RuntimeException e) {
+            listenerFailed("stop watch split", e);
+        }
+    }
+
+    /**
+     * Emit stop watch stopped event.
+     * 
+     * @param name stop watch name.
+     * @param durationNanos lap time(nano seconds).
+     */
+    public static void stopWatchStopped(final String name, final long durationNanos) {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.stopWatchStopped(name, durationNanos);
+        } catch (final RuntimeException e) {
+            listenerFailed("stop watch stopped", e);
+        }
+    }
+
+    /**
+     * Emit cache loaded event.
+     * 
+     * @param cacheName cache name.
+     * @param key cache key.
+     * @param durationNanos load time(nano seconds).
+     * @param success if loaded successfully, true.
+     */
+    public static void cacheLoaded(final String cacheName, final String key, final long durationNanos,
+            final boolean success) {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.cacheLoaded(cacheName, key, durationNanos, success);
+        } catch (final RuntimeException e) {
+            listenerFailed("cache loaded", e);
+        }
+    }
+
+    /**
+     * Emit exception logged event.
+     * 
+     * @param level log level name.
+     * @param message log message.
+     * @param e logged exception.
+     */
+    public static void exceptionLogged(final String level, final String message, final Exception e) {
+        final ProfilingEventListener current = listener;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.exceptionLogged(level, message, e);
+        } catch (final RuntimeException listenerException) {
+            listenerFailed("exception logged", listenerException);
+        }
+    }
+
+    /**
+     * Log exception thrown by listener.
+     * 
+     * @param event event name.
+     * @param e exception thrown by listener.
+     */
+    private static void listenerFailed(final String event, final RuntimeException e) {
+        logger.warn("profiling event listener failed. event is [" + event + "].", e);
+    }
+
+}
@@ -27,11 +27,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.jichigo.utility.event.ProfilingEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Exception logger class.
+ * <p>
+ * log is emitted as {@link ProfilingEvents.Type#EXCEPTION_LOG} event if enabled.
+ * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0
@@ -316,6 +320,9 @@ public class ExceptionLogger {
             monitoringLogger.trace(message);
             applicationLogger.trace(message, e);
         }
+        if (ProfilingEvents.isEnabled(ProfilingEvents.Type.EXCEPTION_LOG)) {
+            ProfilingEvents.exceptionLogged(level.name(), message, e);
+        }
     }
 
     /**
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Analyzer class of regex that may cause catastrophic backtracking.
+ * <p>
+ * detect nested quantifier, that is repeated group containing repeat quantifier (e.g. "(a+)+", "(\w+\s?)*",
+ * "(x{2,})+").<br>
+ * this is heuristic. regex without nested quantifier may cause backtracking too (e.g. overlapping alternation).
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public final class BacktrackingAnalyzer {
+
+    /**
+     * Constructor.
+     */
+    private BacktrackingAnalyzer() {
+        // do nothing.
+    }
+
+    /**
+     * Has nested quantifier.
+     * 
+     * @param regex regex string.
+     * @return if regex has repeated group containing repeat quantifier, return true.
+     */
+    public static boolean hasNestedQuantifier(final String regex) {
+        final Deque<Boolean> outerStates = new ArrayDeque<Boolean>();
+        boolean repeated = false;
+        for (int index = 0; index < regex.length(); index++) {
+            final char c = regex.charAt(index);
+            if (c == '\\') {
+                if (index + 1 < regex.length() && regex.charAt(index + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", index + 2);
+                    index = end < 0 ? regex.length() : end + 1;
+                } else {
+                    index++;
+                }
+            } else if (c == '[') {
+                index = skipCharacterClass(regex, index);
+            } else if (c == '(') {
+                outerStates.push(Boolean.valueOf(repeated));
+                repeated = false;
+            } else if (c == ')') {
+                final boolean groupRepeated = repeated;
+                repeated = outerStates.isEmpty() ? false : outerStates.pop().booleanValue();
+                if (isRepeatQuantifier(regex, index + 1)) {
+                    if (groupRepeated) {
+                        return true;
+                    }
+                    repeated = true;
+                } else if (groupRepeated) {
+                    repeated = true;
+                }
+            } else if (isRepeatQuantifier(regex, index)) {
+                repeated = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Is repeat quantifier at index.
+     * 
+     * @param regex regex string.
+     * @param index index.
+     * @return if "*", "+" or "{n,m}" (m is greater than 1 or unbounded), return true.
+     */
+    private static boolean isRepeatQuantifier(final String regex, final int index) {
+        if (regex.length() <= index) {
+            return false;
+        }
+        final char c = regex.charAt(index);
+        if (c == '*' || c == '+') {
+            return true;
+        }
+        if (c != '{') {
+            return false;
+        }
+        final int end = regex.indexOf('}', index);
+        if (end < 0) {
+            return false;
+        }
+        final String range = regex.substring(index + 1, end);
+        final int comma = range.indexOf(',');
+        final String max = comma < 0 ? range : range.substring(comma + 1);
+        if (max.length() == 0) {
+            return true;
+        }
+        try {
+            return 1 < Integer.parseInt(max.trim());
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Skip character class.
+     * 
+     * @param regex regex string.
+     * @param start index of '['.
+     * @return index of ']'. if not found, last index.
+     */
+    private static int skipCharacterClass(final String regex, final int start) {
+        int index = start + 1;
+        if (index < regex.length() && regex.charAt(index) == '^') {
+            index++;
+        }
+        if (index < regex.length() && regex.charAt(index) == ']') {
+            index++;
+        }
+        int nest = 0;
+        for (; index < regex.length(); index++) {
+            final char c = regex.charAt(index);
+            if (c == '\\') {
+                index++;
+            } else if (c == '[') {
+                nest++;
+            } else if (c == ']') {
+                if (nest == 0) {
+                    return index;
+                }
+                nest--;
+            }
+        }
+        return regex.length() - 1;
+    }
+
+}
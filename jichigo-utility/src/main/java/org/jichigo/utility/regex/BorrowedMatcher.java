@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.io.Closeable;
+import java.util.regex.Matcher;
+
+/**
+ * Matcher borrowed from {@link PatternCache#borrowMatcher(String, CharSequence)}.
+ * <p>
+ * instance is thread confined {@link Matcher} reset by input, and reused after close.<br>
+ * please use and close only by thread that borrowed. (e.g. try-finally or try-with-resources)<br>
+ * if same regex is borrowed again before close, new matcher is created for nested borrow.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public final class BorrowedMatcher implements Closeable {
+
+    /**
+     * Empty input for release reference of input.
+     */
+    private static final String EMPTY_INPUT = "";
+
+    /**
+     * Matcher.
+     */
+    private final Matcher matcher;
+
+    /**
+     * Owner of pooled matcher. (if not pooled, null)
+     */
+    private final ThreadLocal<Matcher> owner;
+
+    /**
+     * Is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     * 
+     * @param matcher matcher reset by input.
+     * @param owner owner of pooled matcher. (if not pooled, null)
+     */
+    BorrowedMatcher(final Matcher matcher, final ThreadLocal<Matcher> owner) {
+        this.matcher = matcher;
+        this.owner = owner;
+    }
+
+    /**
+     * Get matcher.
+     * 
+     * @return matcher reset by input.
+     */
+    public Matcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Close.
+     * <p>
+     * release reference of input, and return matcher to owner thread.
+     * </p>
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (owner != null) {
+            matcher.reset(EMPTY_INPUT);
+            owner.set(matcher);
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+/**
+ * Step counting char sequence class.
+ * <p>
+ * count character access of regex engine, and throw {@link RegexLimitExceededException} if exceeded max steps or
+ * deadline. deadline is checked once per {@link #DEADLINE_CHECK_INTERVAL} steps.<br>
+ * sub sequence shares steps with parent.<br>
+ * this class's instance is not thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+final class BoundedCharSequence implements CharSequence {
+
+    /**
+     * Interval of deadline check. (power of 2)
+     */
+    static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * Original char sequence.
+     */
+    private final CharSequence delegate;
+
+    /**
+     * Shared budget.
+     */
+    private final Budget budget;
+
+    /**
+     * Constructor.
+     * 
+     * @param delegate original char sequence.
+     * @param regex evaluated regex.
+     * @param maxSteps max steps.
+     * @param timeoutNanos timeout(nano seconds). if 0 or less, not check deadline.
+     */
+    BoundedCharSequence(final CharSequence delegate, final String regex, final long maxSteps, final long timeoutNanos) {
+        this(delegate, new Budget(regex, maxSteps, timeoutNanos));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param delegate original char sequence.
+     * @param budget shared budget.
+     */
+    private BoundedCharSequence(final CharSequence delegate, final Budget budget) {
+        this.delegate = delegate;
+        this.budget = budget;
+    }
+
+    /**
+     * Get length.
+     * 
+     * @return length.
+     */
+    public int length() {
+        return delegate.length();
+    }
+
+    /**
+     * Get character.
+     * 
+     * @param index index.
+     * @return character.
+     * @throws RegexLimitExceededException if exceeded limit.
+     */
+    public char charAt(final int index) {
+        budget.step();
+        return delegate.charAt(index);
+    }
+
+    /**
+     * Get sub sequence.
+     * 
+     * @param start start index.
+     * @param end end index.
+     * @return bounded sub sequence.
+     */
+    public CharSequence subSequence(final int start, final int end) {
+        return new BoundedCharSequence(delegate.subSequence(start, end), budget);
+    }
+
+    /**
+     * Get string.
+     * 
+     * @return original string.
+     */
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * Get steps.
+     * 
+     * @return count of character access.
+     */
+    long getSteps() {
+        return budget.steps;
+    }
+
+    /**
+     * Budget of evaluation.
+     */
+    private static final class Budget {
+
+        /**
+         * Evaluated regex.
+         */
+        private final String regex;
+
+        /**
+         * Max steps.
+         */
+        private final long maxSteps;
+
+        /**
+         * Start time.
+         */
+        private final long startTime;
+
+        /**
+         * Timeout(nano seconds).
+         */
+        private final long timeoutNanos;
+
+        /**
+         * Steps.
+         */
+        private long steps;
+
+        /**
+         * Constructor.
+         * 
+         * @param regex evaluated regex.
+         * @param maxSteps max steps.
+         * @param timeoutNanos timeout(nano seconds).
+         */
+        private Budget(final String regex, final long maxSteps, final long timeoutNanos) {
+            this.regex = regex;
+            this.maxSteps = maxSteps;
+            this.timeoutNanos = timeoutNanos;
+            this.startTime = System.nanoTime();
+        }
+
+        /**
+         * Count step.
+         * 
+         * @throws RegexLimitExceededException if exceeded limit.
+         */
+        private void step() {
+            final long currentSteps = ++steps;
+            if (maxSteps < currentSteps) {
+                throw new RegexLimitExceededException(regex, currentSteps, System.nanoTime() - startTime);
+            }
+            if (0 < timeoutNanos && (currentSteps & (DEADLINE_CHECK_INTERVAL - 1)) == 0) {
+                final long elapsedNanos = System.nanoTime() - startTime;
+                if (timeoutNanos < elapsedNanos) {
+                    throw new RegexLimitExceededException(regex, currentSteps, elapsedNanos);
+                }
+            }
+        }
+    }
+
+}
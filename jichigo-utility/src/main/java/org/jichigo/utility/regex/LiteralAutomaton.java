@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Multi literal search automaton class. (Aho-Corasick)
+ * <p>
+ * find all literals contained in input by single pass.<br>
+ * characters not contained in literals are mapped to one character class, so transition table is small.<br>
+ * this class's instance is immutable and thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+final class LiteralAutomaton {
+
+    /**
+     * Max ascii character.
+     */
+    private static final int ASCII_LIMIT = 128;
+
+    /**
+     * Character class of ascii character.
+     */
+    private final int[] asciiClasses = new int[ASCII_LIMIT];
+
+    /**
+     * Sorted non ascii characters of literals.
+     */
+    private final char[] nonAsciiChars;
+
+    /**
+     * Character class count. (class 0 is other character)
+     */
+    private final int classCount;
+
+    /**
+     * Transition table. (state * classCount + class)
+     */
+    private final int[] transitions;
+
+    /**
+     * Literal indexes found at state.
+     */
+    private final int[][] outputs;
+
+    /**
+     * Constructor.
+     * 
+     * @param literals literals. null or empty element is ignored.
+     */
+    LiteralAutomaton(final String[] literals) {
+        // build character classes.
+        final TreeSet<Character> alphabet = new TreeSet<Character>();
+        for (final String literal : literals) {
+            if (literal != null) {
+                for (int index = 0; index < literal.length(); index++) {
+                    alphabet.add(Character.valueOf(literal.charAt(index)));
+                }
+            }
+        }
+        final StringBuilder nonAsciiBuilder = new StringBuilder();
+        int nextClass = 1;
+        for (final Character character : alphabet) {
+            final char c = character.charValue();
+            if (c < ASCII_LIMIT) {
+                asciiClasses[c] = nextClass++;
+            } else {
+                nonAsciiBuilder.append(c);
+            }
+        }
+        this.nonAsciiChars = nonAsciiBuilder.toString().toCharArray();
+        this.classCount = nextClass + nonAsciiChars.length;
+
+        // build trie.
+        final List<int[]> gotoList = new ArrayList<int[]>();
+        final List<int[]> outputList = new ArrayList<int[]>();
+        gotoList.add(newGoto());
+        outputList.add(null);
+        for (int literalIndex = 0; literalIndex < literals.length; literalIndex++) {
+            final String literal = literals[literalIndex];
+            if (literal == null || literal.length() == 0) {
+                continue;
+            }
+            int state = 0;
+            for (int index = 0; index < literal.length(); index++) {
+                final int characterClass = classOf(literal.charAt(index));
+                int nextState = gotoList.get(state)[characterClass];
+                if (nextState < 0) {
+                    nextState = gotoList.size();
+                    gotoList.get(state)[characterClass] = nextState;
+                    gotoList.add(newGoto());
+                    outputList.add(null);
+                }
+                state = nextState;
+            }
+            outputList.set(state, append(outputList.get(state), new int[] { literalIndex }));
+        }
+
+        // build failure links & complete transitions. (breadth first)
+        final int stateCount = gotoList.size();
+        final int[] failures = new int[stateCount];
+        final Queue<Integer> queue = new LinkedList<Integer>();
+        final int[] rootGoto = gotoList.get(0);
+        for (int characterClass = 0; characterClass < classCount; characterClass++) {
+            if (rootGoto[characterClass] < 0) {
+                rootGoto[characterClass] = 0;
+            } else {
+                queue.add(Integer.valueOf(rootGoto[characterClass]));
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove().intValue();
+            final int[] stateGoto = gotoList.get(state);
+            final int[] failureGoto = gotoList.get(failures[state]);
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                final int nextState = stateGoto[characterClass];
+                if (nextState < 0) {
+                    stateGoto[characterClass] = failureGoto[characterClass];
+                } else {
+                    failures[nextState] = failureGoto[characterClass];
+                    outputList.set(nextState, append(outputList.get(nextState), outputList.get(failures[nextState])));
+                    queue.add(Integer.valueOf(nextState));
+                }
+            }
+        }
+
+        this.transitions = new int[stateCount * classCount];
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            System.arraycopy(gotoList.get(state), 0, transitions, state * classCount, classCount);
+            outputs[state] = outputList.get(state);
+        }
+    }
+
+    /**
+     * Find literals contained in input.
+     * 
+     * @param input input string.
+     * @param found bit set of found literal index. (output)
+     */
+    void findAll(final CharSequence input, final BitSet found) {
+        int state = 0;
+        for (int index = 0, length = input.length(); index < length; index++) {
+            state = transitions[state * classCount + classOf(input.charAt(index))];
+            final int[] output = outputs[state];
+            if (output != null) {
+                for (final int literalIndex : output) {
+                    found.set(literalIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get character class.
+     * 
+     * @param c character.
+     * @return character class. if not contained in literals, 0.
+     */
+    private int classOf(final char c) {
+        if (c < ASCII_LIMIT) {
+            return asciiClasses[c];
+        }
+        final int position = Arrays.binarySearch(nonAsciiChars, c);
+        if (position < 0) {
+            return 0;
+        }
+        return classCount - nonAsciiChars.length + position;
+    }
+
+    /**
+     * New goto array of state.
+     * 
+     * @return goto array. (all -1)
+     */
+    private int[] newGoto() {
+        final int[] stateGoto = new int[classCount];
+        Arrays.fill(stateGoto, -1);
+        return stateGoto;
+    }
+
+    /**
+     * Append array.
+     * 
+     * @param first first array. (nullable)
+     * @param second second array. (nullable)
+     * @return appended array. if both are null, null.
+     */
+    private static int[] append(final int[] first, final int[] second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        final int[] result = new int[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+}
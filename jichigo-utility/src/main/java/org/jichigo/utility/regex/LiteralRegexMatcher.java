@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+/**
+ * Matcher class of literal equivalent regex.
+ * <p>
+ * supported form is <code>[^][.*]literal[.*][$]</code> (e.g. "foo", "^foo.*", ".*Exception$", ".*Service.*").<br>
+ * literal is searched by Boyer-Moore-Horspool, and '.', '^', '$' are evaluated as same as {@link java.util.regex.Pattern}
+ * default flags. ('.' does not match line terminator, '$' matches before final line terminator)
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+final class LiteralRegexMatcher implements RegexMatcher {
+
+    /**
+     * Size of skip table. (indexed by low byte of character)
+     */
+    private static final int SKIP_TABLE_SIZE = 256;
+
+    /**
+     * Any string regex.
+     */
+    private static final String ANY = ".*";
+
+    /**
+     * Regex.
+     */
+    private final String regex;
+
+    /**
+     * Literal.
+     */
+    private final String literal;
+
+    /**
+     * Is anchored at start by '^'.
+     */
+    private final boolean anchorStart;
+
+    /**
+     * Is literal preceded by ".*".
+     */
+    private final boolean leadingAny;
+
+    /**
+     * Is literal followed by ".*".
+     */
+    private final boolean trailingAny;
+
+    /**
+     * Is anchored at end by '$'.
+     */
+    private final boolean anchorEnd;
+
+    /**
+     * Skip table of Boyer-Moore-Horspool.
+     */
+    private final int[] skipTable = new int[SKIP_TABLE_SIZE];
+
+    /**
+     * Constructor.
+     * 
+     * @param regex regex string.
+     * @param literal literal.
+     * @param anchorStart is anchored at start.
+     * @param leadingAny is literal preceded by ".*".
+     * @param trailingAny is literal followed by ".*".
+     * @param anchorEnd is anchored at end.
+     */
+    private LiteralRegexMatcher(final String regex, final String literal, final boolean anchorStart,
+            final boolean leadingAny, final boolean trailingAny, final boolean anchorEnd) {
+        this.regex = regex;
+        this.literal = literal;
+        this.anchorStart = anchorStart;
+        this.leadingAny = leadingAny;
+        this.trailingAny = trailingAny;
+        this.anchorEnd = anchorEnd;
+        final int last = literal.length() - 1;
+        for (int index = 0; index < SKIP_TABLE_SIZE; index++) {
+            skipTable[index] = literal.length();
+        }
+        // colliding characters share entry, so skip is min of them. (safe)
+        for (int index = 0; index < last; index++) {
+            skipTable[literal.charAt(index) & (SKIP_TABLE_SIZE - 1)] = last - index;
+        }
+    }
+
+    /**
+     * Analyze regex.
+     * 
+     * @param regex regex string.
+     * @return matcher. if regex is not literal equivalent, null.
+     */
+    static LiteralRegexMatcher analyze(final String regex) {
+        int start = 0;
+        int end = regex.length();
+        final boolean anchorStart = regex.startsWith("^");
+        if (anchorStart) {
+            start++;
+        }
+        final boolean leadingAny = regex.startsWith(ANY, start);
+        if (leadingAny) {
+            start += ANY.length();
+        }
+        final boolean anchorEnd = start < end && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1);
+        if (anchorEnd) {
+            end--;
+        }
+        final boolean trailingAny = start + ANY.length() <= end && regex.startsWith(ANY, end - ANY.length())
+                && !isEscaped(regex, end - ANY.length());
+        if (trailingAny) {
+            end -= ANY.length();
+        }
+        final StringBuilder literalBuilder = new StringBuilder(end - start);
+        for (int index = start; index < end; index++) {
+            final char c = regex.charAt(index);
+            if (c == '\\') {
+                if (index + 1 == end) {
+                    return null;
+                }
+                final char escaped = regex.charAt(++index);
+                if (Character.isLetterOrDigit(escaped)) {
+                    return null;
+                }
+                literalBuilder.append(escaped);
+            } else if ("[](){}.*+?^$|".indexOf(c) < 0 && !isLineTerminator(c)) {
+                literalBuilder.append(c);
+            } else {
+                return null;
+            }
+        }
+        if (literalBuilder.length() == 0) {
+            return null;
+        }
+        return new LiteralRegexMatcher(regex, literalBuilder.toString(), anchorStart, leadingAny, trailingAny,
+                anchorEnd);
+    }
+
+    /**
+     * Get regex.
+     * 
+     * @return regex string.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     */
+    public boolean matches(final CharSequence input) {
+        final int length = input.length();
+        if (leadingAny || trailingAny) {
+            if (indexOfLineTerminator(input, 0, length) < length) {
+                return false;
+            }
+        } else {
+            return length == literal.length() && indexOf(input, 0) == 0;
+        }
+        if (!leadingAny) {
+            return indexOf(input, 0) == 0;
+        }
+        if (!trailingAny) {
+            return length >= literal.length() && indexOf(input, length - literal.length()) >= 0;
+        }
+        return indexOf(input, 0) >= 0;
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     */
+    public boolean find(final CharSequence input) {
+        final int length = input.length();
+        // '$' matches at end of input or before final line terminator.
+        final int endLimit = anchorEnd ? length - finalLineTerminatorLength(input) : length;
+        // ".*" before literal is effective only if anchored. (other position can be empty)
+        final int firstLineTerminator = (anchorStart && leadingAny) ? indexOfLineTerminator(input, 0, length)
+                : length;
+        final int lastLineTerminator = (anchorEnd && trailingAny) ? lastIndexOfLineTerminator(input, endLimit) : -1;
+        for (int index = indexOf(input, 0); 0 <= index; index = indexOf(input, index + 1)) {
+            if (anchorStart && (leadingAny ? firstLineTerminator < index : index != 0)) {
+                return false;
+            }
+            final int literalEnd = index + literal.length();
+            if (!anchorEnd) {
+                return true;
+            }
+            if (trailingAny ? lastLineTerminator < literalEnd : (literalEnd == length || literalEnd == endLimit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get index of literal.
+     * 
+     * @param input input string.
+     * @param from start index.
+     * @return index of literal. if not found, -1.
+     */
+    private int indexOf(final CharSequence input, final int from) {
+        final int last = literal.length() - 1;
+        final int limit = input.length() - last;
+        int position = from;
+        while (position < limit) {
+            int index = last;
+            while (input.charAt(position + index) == literal.charAt(index)) {
+                if (index == 0) {
+                    return position;
+                }
+                index--;
+            }
+            position += skipTable[input.charAt(position + last) & (SKIP_TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    /**
+     * Is escaped character.
+     * 
+     * @param regex regex string.
+     * @param index index of character.
+     * @return if preceded by odd count of '\', return true.
+     */
+    private static boolean isEscaped(final String regex, final int index) {
+        int count = 0;
+        for (int position = index - 1; 0 <= position && regex.charAt(position) == '\\'; position--) {
+            count++;
+        }
+        return count % 2 != 0;
+    }
+
+    /**
+     * Is line terminator.
+     * 
+     * @param c character.
+     * @return if line terminator of {@link java.util.regex.Pattern}, return true.
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == 0x0085 || (c | 1) == 0x2029;
+    }
+
+    /**
+     * Get index of first line terminator.
+     * 
+     * @param input input string.
+     * @param from start index.
+     * @param to end index. (exclusive)
+     * @return index of first line terminator. if not found, to.
+     */
+    private static int indexOfLineTerminator(final CharSequence input, final int from, final int to) {
+        for (int index = from; index < to; index++) {
+            if (isLineTerminator(input.charAt(index))) {
+                return index;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Get index of last line terminator.
+     * 
+     * @param input input string.
+     * @param to end index. (exclusive)
+     * @return index of last line terminator. if not found, -1.
+     */
+    private static int lastIndexOfLineTerminator(final CharSequence input, final int to) {
+        for (int index = to - 1; 0 <= index; index--) {
+            if (isLineTerminator(input.charAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get length of final line terminator.
+     * 
+     * @param input input string.
+     * @return length of final line terminator. ("\r\n" is 2) if not end with line terminator, 0.
+     */
+    private static int finalLineTerminatorLength(final CharSequence input) {
+        final int length = input.length();
+        if (length == 0 || !isLineTerminator(input.charAt(length - 1))) {
+            return 0;
+        }
+        if (2 <= length && input.charAt(length - 1) == '\n' && input.charAt(length - 2) == '\r') {
+            return 2;
+        }
+        return 1;
+    }
+
+}
@@ -25,20 +25,38 @@ import java.util.regex.Pattern;
 
 import org.jichigo.utility.cache.LazyCache;
 import org.jichigo.utility.cache.CacheByKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Pattern cache class.
+ * <p>
+ * {@link #getMatcher(String)} analyzes regex, and if it is literal equivalent (e.g. "^foo.*", ".*Exception$"), returns
+ * matcher that does not use {@link Pattern}.<br>
+ * {@link #matches(String, CharSequence)}, {@link #find(String, CharSequence)} and
+ * {@link #borrowMatcher(String, CharSequence)} reuse thread confined {@link java.util.regex.Matcher} per regex.<br>
+ * pattern and matcher are cached by regex and flags. (key is regex itself if flags is 0) if regex has nested
+ * quantifier, warning is logged on compile. (please use
+ * {@link RegexGuard} for untrusted input)
+ * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0
  * @author created by Kazuki Shimizu
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
  */
 public class PatternCache {
 
+    /**
+     * Logger instance of slf4j.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PatternCache.class);
+
     /**
      * instance cache.
      */
-    private static final LazyCache<Pattern> cache = new CacheByKey<Pattern>() {
+    private static final LazyCache<Pattern> cache = new RegexCache<Pattern>(PatternCache.class.getName()) {
         /*
          * ( Javadoc)
          * 
@@ -47,7 +65,44 @@ public class PatternCache {
         @Override
         protected Pattern initialValue(final Object... args) {
             final String regex = String.class.cast(args[0]);
-            return Pattern.compile(regex);
+            final int flags = flagsOf(args);
+            final Pattern pattern = Pattern.compile(regex, flags);
+            if (BacktrackingAnalyzer.hasNestedQuantifier(regex)) {
+                logger.warn("regex has nested quantifier. it may cause catastrophic backtracking. regex is [{}].",
+                        regex);
+            }
+            return pattern;
+        }
+    };
+
+    /**
+     * matcher cache.
+     */
+    private static final LazyCache<RegexMatcher> matcherCache = new RegexCache<RegexMatcher>() {
+
+        @Override
+        protected RegexMatcher initialValue(final Object... args) {
+            final String regex = String.class.cast(args[0]);
+            final int flags = flagsOf(args);
+            if (flags == 0) {
+                final RegexMatcher literalMatcher = LiteralRegexMatcher.analyze(regex);
+                if (literalMatcher != null) {
+                    return literalMatcher;
+                }
+            }
+            return pooledMatcherCache.getOrCreate(regex, Integer.valueOf(flags));
+        }
+    };
+
+    /**
+     * pooled matcher cache.
+     */
+    private static final LazyCache<PatternRegexMatcher> pooledMatcherCache = new RegexCache<PatternRegexMatcher>() {
+
+        @Override
+        protected PatternRegexMatcher initialValue(final Object... args) {
+            final String regex = String.class.cast(args[0]);
+            return new PatternRegexMatcher(getPattern(regex, flagsOf(args)));
         }
     };
 
@@ -68,6 +123,17 @@ public class PatternCache {
         return cache.getOrCreate(regex);
     }
 
+    /**
+     * Get Pattern instance.
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link Pattern}.
+     * @return Pattern instance.
+     */
+    public static Pattern getPattern(final String regex, final int flags) {
+        return cache.getOrCreate(regex, Integer.valueOf(flags));
+    }
+
     /**
      * Get Pattern instance.
      * <p>
@@ -86,11 +152,178 @@ public class PatternCache {
         return pattern;
     }
 
+    /**
+     * Get RegexMatcher instance.
+     * <p>
+     * if regex is literal equivalent, returned matcher uses string search instead of {@link Pattern}.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @return RegexMatcher instance.
+     */
+    public static RegexMatcher getMatcher(final String regex) {
+        return matcherCache.getOrCreate(regex);
+    }
+
+    /**
+     * Get RegexMatcher instance.
+     * <p>
+     * if flags is 0 and regex is literal equivalent, returned matcher uses string search instead of {@link Pattern}.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link Pattern}.
+     * @return RegexMatcher instance.
+     */
+    public static RegexMatcher getMatcher(final String regex, final int flags) {
+        return matcherCache.getOrCreate(regex, Integer.valueOf(flags));
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param regex regex string.
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     */
+    public static boolean matches(final String regex, final CharSequence input) {
+        return getMatcher(regex).matches(input);
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link Pattern}.
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     */
+    public static boolean matches(final String regex, final int flags, final CharSequence input) {
+        return getMatcher(regex, flags).matches(input);
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param regex regex string.
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     */
+    public static boolean find(final String regex, final CharSequence input) {
+        return getMatcher(regex).find(input);
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link Pattern}.
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     */
+    public static boolean find(final String regex, final int flags, final CharSequence input) {
+        return getMatcher(regex, flags).find(input);
+    }
+
+    /**
+     * Borrow matcher.
+     * <p>
+     * for group extraction. please close returned matcher by thread that borrowed.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @param input input string.
+     * @return borrowed matcher reset by input.
+     */
+    public static BorrowedMatcher borrowMatcher(final String regex, final CharSequence input) {
+        return pooledMatcherCache.getOrCreate(regex).borrow(input);
+    }
+
+    /**
+     * Borrow matcher.
+     * <p>
+     * for group extraction. please close returned matcher by thread that borrowed.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link Pattern}.
+     * @param input input string.
+     * @return borrowed matcher reset by input.
+     */
+    public static BorrowedMatcher borrowMatcher(final String regex, final int flags, final CharSequence input) {
+        return pooledMatcherCache.getOrCreate(regex, Integer.valueOf(flags)).borrow(input);
+    }
+
+    /**
+     * Get flags of cache target objects.
+     * 
+     * @param args regex and flags.
+     * @return flags. if not specified, 0.
+     */
+    private static int flagsOf(final Object... args) {
+        if (args.length < 2) {
+            return 0;
+        }
+        return Integer.class.cast(args[1]).intValue();
+    }
+
     /**
      * Clear cache.
      */
     public static void clearCache() {
         cache.clear();
+        matcherCache.clear();
+        pooledMatcherCache.clear();
+    }
+
+    /**
+     * Cache by regex and flags.
+     * <p>
+     * key is regex itself if flags is 0, so lookup without flags does not create key.<br>
+     * otherwise key is "prefix flags:regex". (prefix is NUL, and regex starting with NUL is keyed same way even if
+     * flags is 0, so keys do not collide)
+     * </p>
+     * 
+     * @param <T> type of cached instance.
+     */
+    private abstract static class RegexCache<T> extends CacheByKey<T> {
+
+        /**
+         * Prefix of composite key.
+         */
+        private static final char COMPOSITE_KEY_PREFIX = '\0';
+
+        /**
+         * Default constructor.
+         */
+        private RegexCache() {
+            super();
+        }
+
+        /**
+         * Constructor of snapshot target cache.
+         * 
+         * @param snapshotName snapshot name.
+         */
+        private RegexCache(final String snapshotName) {
+            super(snapshotName);
+        }
+
+        /**
+         * Generate cache key.
+         * 
+         * @param objects regex and flags.
+         * @return cache key.
+         */
+        @Override
+        protected String generateCacheKey(final Object... objects) {
+            final String regex = String.class.cast(objects[0]);
+            final int flags = flagsOf(objects);
+            if (flags == 0 && (regex.length() == 0 || regex.charAt(0) != COMPOSITE_KEY_PREFIX)) {
+                return regex;
+            }
+            return COMPOSITE_KEY_PREFIX + Integer.toString(flags) + ":" + regex;
+        }
     }
 
 }
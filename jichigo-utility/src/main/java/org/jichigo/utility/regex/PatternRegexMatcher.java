@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matcher class of regex using {@link Pattern}.
+ * <p>
+ * {@link Matcher} is thread confined and reused by reset, so matching does not allocate matcher.<br>
+ * value of thread local is only {@link Matcher} (class of JDK), so pooled thread does not retain class loader of
+ * this class.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+final class PatternRegexMatcher implements RegexMatcher {
+
+    /**
+     * Empty input for release reference of input.
+     */
+    private static final String EMPTY_INPUT = "";
+
+    /**
+     * Pattern.
+     */
+    private final Pattern pattern;
+
+    /**
+     * Matcher of current thread. (if borrowed, null)
+     */
+    private final ThreadLocal<Matcher> localMatcher = new ThreadLocal<Matcher>() {
+        @Override
+        protected Matcher initialValue() {
+            return pattern.matcher(EMPTY_INPUT);
+        }
+    };
+
+    /**
+     * Constructor.
+     * 
+     * @param pattern compiled pattern.
+     */
+    PatternRegexMatcher(final Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Get regex.
+     * 
+     * @return regex string.
+     */
+    public String getRegex() {
+        return pattern.pattern();
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     */
+    public boolean matches(final CharSequence input) {
+        final Matcher matcher = localMatcher.get();
+        if (matcher == null) {
+            return pattern.matcher(input).matches();
+        }
+        localMatcher.set(null);
+        try {
+            return matcher.reset(input).matches();
+        } finally {
+            matcher.reset(EMPTY_INPUT);
+            localMatcher.set(matcher);
+        }
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     */
+    public boolean find(final CharSequence input) {
+        final Matcher matcher = localMatcher.get();
+        if (matcher == null) {
+            return pattern.matcher(input).find();
+        }
+        localMatcher.set(null);
+        try {
+            return matcher.reset(input).find();
+        } finally {
+            matcher.reset(EMPTY_INPUT);
+            localMatcher.set(matcher);
+        }
+    }
+
+    /**
+     * Borrow matcher of current thread.
+     * 
+     * @param input input string.
+     * @return borrowed matcher. if already borrowed, new matcher.
+     */
+    BorrowedMatcher borrow(final CharSequence input) {
+        final Matcher matcher = localMatcher.get();
+        if (matcher == null) {
+            return new BorrowedMatcher(pattern.matcher(input), null);
+        }
+        localMatcher.set(null);
+        return new BorrowedMatcher(matcher.reset(input), localMatcher);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guard class of regex evaluation for untrusted input.
+ * <p>
+ * evaluate regex of {@link PatternCache} against step counting input, and abort by
+ * {@link RegexLimitExceededException} if count of character access exceeded max steps or evaluation time exceeded
+ * timeout.<br>
+ * this class's instance is thread safe after settings are injected.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class RegexGuard {
+
+    /**
+     * Default max steps.
+     */
+    private static final long DEFAULT_MAX_STEPS = 1000000;
+
+    /**
+     * Default timeout(milliseconds).
+     */
+    private static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Max steps.
+     */
+    private long maxSteps = DEFAULT_MAX_STEPS;
+
+    /**
+     * Timeout(nano seconds).
+     */
+    private long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIMEOUT_MILLIS);
+
+    /**
+     * Inject max steps.
+     * 
+     * @param maxSteps max count of input character access per evaluation.
+     */
+    public void setMaxSteps(final long maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Inject timeout(milliseconds).
+     * 
+     * @param timeoutMillis max time per evaluation. if 0 or less, not check timeout.
+     */
+    public void setTimeoutMillis(final long timeoutMillis) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param regex regex string.
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     * @throws RegexLimitExceededException if exceeded limit.
+     */
+    public boolean matches(final String regex, final CharSequence input) {
+        return matches(regex, 0, input);
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link java.util.regex.Pattern}.
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     * @throws RegexLimitExceededException if exceeded limit.
+     */
+    public boolean matches(final String regex, final int flags, final CharSequence input) {
+        final BorrowedMatcher borrowedMatcher = PatternCache.borrowMatcher(regex, flags, guard(regex, input));
+        try {
+            return borrowedMatcher.getMatcher().matches();
+        } finally {
+            borrowedMatcher.close();
+        }
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param regex regex string.
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     * @throws RegexLimitExceededException if exceeded limit.
+     */
+    public boolean find(final String regex, final CharSequence input) {
+        return find(regex, 0, input);
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param regex regex string.
+     * @param flags match flags of {@link java.util.regex.Pattern}.
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     * @throws RegexLimitExceededException if exceeded limit.
+     */
+    public boolean find(final String regex, final int flags, final CharSequence input) {
+        final BorrowedMatcher borrowedMatcher = PatternCache.borrowMatcher(regex, flags, guard(regex, input));
+        try {
+            return borrowedMatcher.getMatcher().find();
+        } finally {
+            borrowedMatcher.close();
+        }
+    }
+
+    /**
+     * Guard input.
+     * <p>
+     * returned input is valid for one evaluation. (e.g. matcher for group extraction)
+     * </p>
+     * 
+     * @param regex regex string. (used for exception message)
+     * @param input input string.
+     * @return step counting input.
+     */
+    public CharSequence guard(final String regex, final CharSequence input) {
+        return new BoundedCharSequence(input, regex, maxSteps, timeoutNanos);
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+/**
+ * Exception thrown when regex evaluation by {@link RegexGuard} exceeded limit.
+ * <p>
+ * occurs if count of input character access exceeded max steps, or evaluation time exceeded timeout.<br>
+ * it means that input may cause catastrophic backtracking.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class RegexLimitExceededException extends RuntimeException {
+
+    /**
+     * serialVersion UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Regex.
+     */
+    private final String regex;
+
+    /**
+     * Steps. (count of input character access)
+     */
+    private final long steps;
+
+    /**
+     * Elapsed time(nano seconds).
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor.
+     * 
+     * @param regex regex string.
+     * @param steps count of input character access.
+     * @param elapsedNanos elapsed time(nano seconds).
+     */
+    public RegexLimitExceededException(final String regex, final long steps, final long elapsedNanos) {
+        super("regex evaluation exceeded limit. regex is [" + regex + "]. steps is [" + steps + "]. elapsed is ["
+                + elapsedNanos / 1000000 + "]ms.");
+        this.regex = regex;
+        this.steps = steps;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get regex.
+     * 
+     * @return regex string.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * Get steps.
+     * 
+     * @return count of input character access.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get elapsed time.
+     * 
+     * @return elapsed time(nano seconds).
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+}
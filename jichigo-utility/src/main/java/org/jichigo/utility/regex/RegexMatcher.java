@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+/**
+ * Matcher interface of regex.
+ * <p>
+ * same result as {@link java.util.regex.Matcher#matches()} and {@link java.util.regex.Matcher#find()} of compiled
+ * regex, but implementation may not use {@link java.util.regex.Pattern} (e.g. literal regex).<br>
+ * instance is got from {@link PatternCache#getMatcher(String)}, and is thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public interface RegexMatcher {
+
+    /**
+     * Get regex.
+     * 
+     * @return regex string.
+     */
+    String getRegex();
+
+    /**
+     * Match entire input.
+     * 
+     * @param input input string.
+     * @return if regex matches entire input, return true.
+     */
+    boolean matches(CharSequence input);
+
+    /**
+     * Find in input.
+     * 
+     * @param input input string.
+     * @return if regex is found in input, return true.
+     */
+    boolean find(CharSequence input);
+
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jichigo.utility.cache.CacheByKey;
+import org.jichigo.utility.cache.LazyCache;
+
+/**
+ * Regex set class.
+ * <p>
+ * match input against multiple regexes, and return bit set of matched regex indexes.<br>
+ * required literal of each regex (e.g. "Controller" of ".*Controller") is searched by single pass over input, and
+ * only regexes whose literal is found (or has no literal) are confirmed by matcher of
+ * {@link PatternCache#getMatcher(String)}.<br>
+ * patterns are got from {@link PatternCache}, and regex set is cached by its member regexes.<br>
+ * this class's instance is immutable and thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public final class RegexSet {
+
+    /**
+     * instance cache.
+     */
+    private static final LazyCache<RegexSet> cache = new CacheByKey<RegexSet>() {
+
+        @Override
+        protected RegexSet initialValue(final Object... args) {
+            final String[] regexes = new String[args.length];
+            for (int index = 0; index < args.length; index++) {
+                regexes[index] = String.class.cast(args[index]);
+            }
+            return new RegexSet(regexes);
+        }
+
+        /**
+         * Generate cache key.
+         * <p>
+         * each regex is prefixed by its length, so regexes containing separator are not confused.
+         * </p>
+         * 
+         * @param objects regexes.
+         * @return cache key.
+         */
+        @Override
+        protected String generateCacheKey(final Object... objects) {
+            final StringBuilder cachekeyStrBuilder = new StringBuilder();
+            for (final Object object : objects) {
+                final String regex = String.class.cast(object);
+                cachekeyStrBuilder.append(regex.length()).append(':').append(regex);
+            }
+            return cachekeyStrBuilder.toString();
+        }
+    };
+
+    /**
+     * Regexes.
+     */
+    private final String[] regexes;
+
+    /**
+     * Patterns.
+     */
+    private final Pattern[] patterns;
+
+    /**
+     * Matchers for confirm.
+     */
+    private final RegexMatcher[] matchers;
+
+    /**
+     * Automaton of required literals. (null if no regex has literal)
+     */
+    private final LiteralAutomaton literalAutomaton;
+
+    /**
+     * Regex indexes without required literal. (always confirmed)
+     */
+    private final BitSet unfilteredIndexes = new BitSet();
+
+    /**
+     * Get RegexSet instance.
+     * 
+     * @param regexes regex strings.
+     * @return RegexSet instance.
+     * @throws IllegalArgumentException if regexes is null or contains null.
+     */
+    public static RegexSet getRegexSet(final String... regexes) {
+        validate(regexes);
+        return cache.getOrCreate((Object[]) regexes);
+    }
+
+    /**
+     * Get RegexSet instance.
+     * 
+     * @param regexes regex strings.
+     * @return RegexSet instance.
+     * @throws IllegalArgumentException if regexes is null or contains null.
+     */
+    public static RegexSet getRegexSet(final List<String> regexes) {
+        if (regexes == null) {
+            throw new IllegalArgumentException("regexes is null.");
+        }
+        return getRegexSet(regexes.toArray(new String[regexes.size()]));
+    }
+
+    /**
+     * Clear cache.
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param regexes regex strings.
+     */
+    private RegexSet(final String[] regexes) {
+        this.regexes = regexes.clone();
+        this.patterns = new Pattern[regexes.length];
+        this.matchers = new RegexMatcher[regexes.length];
+        final String[] literals = new String[regexes.length];
+        boolean hasLiteral = false;
+        for (int index = 0; index < regexes.length; index++) {
+            patterns[index] = PatternCache.getPattern(regexes[index]);
+            matchers[index] = PatternCache.getMatcher(regexes[index]);
+            literals[index] = extractRequiredLiteral(regexes[index]);
+            if (literals[index] == null) {
+                unfilteredIndexes.set(index);
+            } else {
+                hasLiteral = true;
+            }
+        }
+        this.literalAutomaton = hasLiteral ? new LiteralAutomaton(literals) : null;
+    }
+
+    /**
+     * Get count of regexes.
+     * 
+     * @return count of regexes.
+     */
+    public int size() {
+        return regexes.length;
+    }
+
+    /**
+     * Get regex.
+     * 
+     * @param index index of regex.
+     * @return regex string.
+     */
+    public String getRegex(final int index) {
+        return regexes[index];
+    }
+
+    /**
+     * Get pattern.
+     * 
+     * @param index index of regex.
+     * @return Pattern instance.
+     */
+    public Pattern getPattern(final int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Match entire input.
+     * 
+     * @param input input string.
+     * @return bit set of regex indexes that matches entire input.
+     */
+    public BitSet matches(final CharSequence input) {
+        final BitSet candidates = candidatesOf(input);
+        for (int index = candidates.nextSetBit(0); 0 <= index; index = candidates.nextSetBit(index + 1)) {
+            if (!matchers[index].matches(input)) {
+                candidates.clear(index);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Find in input.
+     * 
+     * @param input input string.
+     * @return bit set of regex indexes that found in input.
+     */
+    public BitSet find(final CharSequence input) {
+        final BitSet candidates = candidatesOf(input);
+        for (int index = candidates.nextSetBit(0); 0 <= index; index = candidates.nextSetBit(index + 1)) {
+            if (!matchers[index].find(input)) {
+                candidates.clear(index);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Match entire input by any regex.
+     * 
+     * @param input input string.
+     * @return if any regex matches entire input, return true.
+     */
+    public boolean matchesAny(final CharSequence input) {
+        final BitSet candidates = candidatesOf(input);
+        for (int index = candidates.nextSetBit(0); 0 <= index; index = candidates.nextSetBit(index + 1)) {
+            if (matchers[index].matches(input)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get candidate regex indexes.
+     * 
+     * @param input input string.
+     * @return bit set of regex indexes whose required literal is found or has no literal.
+     */
+    private BitSet candidatesOf(final CharSequence input) {
+        final BitSet candidates = new BitSet(regexes.length);
+        candidates.or(unfilteredIndexes);
+        if (literalAutomaton != null) {
+            literalAutomaton.findAll(input, candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Validate regexes.
+     * 
+     * @param regexes regex strings.
+     * @throws IllegalArgumentException if regexes is null or contains null.
+     */
+    private static void validate(final String[] regexes) {
+        if (regexes == null) {
+            throw new IllegalArgumentException("regexes is null.");
+        }
+        for (int index = 0; index < regexes.length; index++) {
+            if (regexes[index] == null) {
+                throw new IllegalArgumentException("regexes[" + index + "] is null.");
+            }
+        }
+    }
+
+    /**
+     * Extract required literal of regex.
+     * <p>
+     * returns longest literal that any matched string must contain.<br>
+     * conservative: if regex has top level alternation, inline flag or quotation, return null.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @return required literal. if not found, null.
+     */
+    static String extractRequiredLiteral(final String regex) {
+        final List<String> runs = new ArrayList<String>();
+        final StringBuilder run = new StringBuilder();
+        int depth = 0;
+        for (int index = 0; index < regex.length(); index++) {
+            final char c = regex.charAt(index);
+            if (c == '\\') {
+                if (index + 1 == regex.length()) {
+                    return null;
+                }
+                final char escaped = regex.charAt(++index);
+                if (escaped == 'Q') {
+                    return null;
+                }
+                if (depth == 0 && !Character.isLetterOrDigit(escaped)) {
+                    run.append(escaped);
+                } else {
+                    endRun(run, runs);
+                    // operands of escape (e.g. \x41, \k<name>) are not literal.
+                    index = endOfEscape(regex, index);
+                    if (index < 0) {
+                        return null;
+                    }
+                }
+            } else if (c == '[') {
+                endRun(run, runs);
+                index = endOfCharacterClass(regex, index);
+                if (index < 0) {
+                    return null;
+                }
+            } else if (c == '(') {
+                if (depth == 0 && index + 2 < regex.length() && regex.charAt(index + 1) == '?'
+                        && (Character.isLetter(regex.charAt(index + 2)) || regex.charAt(index + 2) == '-')) {
+                    return null;
+                }
+                endRun(run, runs);
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth != 0) {
+                continue;
+            } else if (c == '|') {
+                return null;
+            } else if (c == '*' || c == '?' || c == '{') {
+                // previous character is optional.
+                if (run.length() != 0) {
+                    run.setLength(run.length() - 1);
+                }
+                endRun(run, runs);
+                if (c == '{') {
+                    index = regex.indexOf('}', index);
+                    if (index < 0) {
+                        return null;
+                    }
+                }
+            } else if (c == '+') {
+                endRun(run, runs);
+            } else if (c == '.' || c == '^' || c == '$') {
+                endRun(run, runs);
+            } else {
+                run.append(c);
+            }
+        }
+        endRun(run, runs);
+        String longest = null;
+        for (final String candidate : runs) {
+            if (longest == null || longest.length() < candidate.length()) {
+                longest = candidate;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * End literal run.
+     * 
+     * @param run current run.
+     * @param runs ended runs.
+     */
+    private static void endRun(final StringBuilder run, final List<String> runs) {
+        if (run.length() != 0) {
+            runs.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    /**
+     * Get end index of escape sequence.
+     * <p>
+     * skips operands of escape: hexadecimal, unicode, octal, control character, named back reference, unicode
+     * property, unicode name and digits of back reference.
+     * </p>
+     * 
+     * @param regex regex string.
+     * @param start index of escaped character (next to '\').
+     * @return index of last character of escape sequence. if escape sequence is incomplete, -1.
+     */
+    private static int endOfEscape(final String regex, final int start) {
+        final char escaped = regex.charAt(start);
+        final boolean braced = start + 1 < regex.length() && regex.charAt(start + 1) == '{';
+        int end;
+        switch (escaped) {
+        case 'x':
+            end = braced ? regex.indexOf('}', start) : start + 2;
+            break;
+        case 'u':
+            end = start + 4;
+            break;
+        case 'c':
+            end = start + 1;
+            break;
+        case 'k':
+            end = regex.indexOf('>', start);
+            break;
+        case 'p':
+        case 'P':
+            end = braced ? regex.indexOf('}', start) : start + 1;
+            break;
+        case 'N':
+            end = regex.indexOf('}', start);
+            break;
+        case '0':
+            end = start;
+            while (end + 1 < regex.length() && end - start < 3 && isOctalDigit(regex.charAt(end + 1))
+                    && (end - start < 2 || regex.charAt(start + 1) <= '3')) {
+                end++;
+            }
+            break;
+        default:
+            end = start;
+            if (Character.isDigit(escaped)) {
+                while (end + 1 < regex.length() && Character.isDigit(regex.charAt(end + 1))) {
+                    end++;
+                }
+            }
+            break;
+        }
+        return end < regex.length() ? end : -1;
+    }
+
+    /**
+     * Check whether character is octal digit.
+     * 
+     * @param c character.
+     * @return true if '0' - '7'.
+     */
+    private static boolean isOctalDigit(final char c) {
+        return '0' <= c && c <= '7';
+    }
+
+    /**
+     * Get end index of character class.
+     * 
+     * @param regex regex string.
+     * @param start index of '['.
+     * @return index of ']'. if not found, -1.
+     */
+    private static int endOfCharacterClass(final String regex, final int start) {
+        int index = start + 1;
+        if (index < regex.length() && regex.charAt(index) == '^') {
+            index++;
+        }
+        if (index < regex.length() && regex.charAt(index) == ']') {
+            index++;
+        }
+        int nest = 0;
+        for (; index < regex.length(); index++) {
+            final char c = regex.charAt(index);
+            if (c == '\\') {
+                index++;
+            } else if (c == '[') {
+                nest++;
+            } else if (c == ']') {
+                if (nest == 0) {
+                    return index;
+                }
+                nest--;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -45,7 +45,8 @@ public class DatePattern {
     /**
      * instance cache.
      */
-    private static final LazyCache<DatePattern> datePatternCache = new CacheByKey<DatePattern>() {
+    private static final LazyCache<DatePattern> datePatternCache = new CacheByKey<DatePattern>(
+            DatePattern.class.getName()) {
         /*
          * ( Javadoc)
          * 
@@ -42,7 +42,8 @@ public class MessagePattern {
     /**
      * instance cache.
      */
-    private static final LazyCache<MessagePattern> messagePatternCache = new CacheByKey<MessagePattern>() {
+    private static final LazyCache<MessagePattern> messagePatternCache = new CacheByKey<MessagePattern>(
+            MessagePattern.class.getName()) {
         /*
          * ( Javadoc)
          * 
@@ -42,7 +42,8 @@ public class NumberPattern {
     /**
      * instance cache.
      */
-    private static final LazyCache<NumberPattern> numberPatternCache = new CacheByKey<NumberPattern>() {
+    private static final LazyCache<NumberPattern> numberPatternCache = new CacheByKey<NumberPattern>(
+            NumberPattern.class.getName()) {
         /*
          * ( Javadoc)
          * 
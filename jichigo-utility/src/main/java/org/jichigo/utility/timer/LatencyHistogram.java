@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram class.
+ * <p>
+ * log-linear histogram of non negative long value (e.g. nano time).<br>
+ * each power of 2 range is divided into 32 linear sub buckets, so relative error of value is less than about 3%.<br>
+ * this class's instance is thread safe. record method is lock free.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * Bits of sub bucket count.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Sub bucket count per power of 2 range.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Sub bucket mask.
+     */
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    /**
+     * Bucket count.
+     * <p>
+     * enough for {@link Long#MAX_VALUE}.
+     * </p>
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    /**
+     * Counts of bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Total count.
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * Total value.
+     */
+    private final AtomicLong totalValue = new AtomicLong();
+
+    /**
+     * Max value.
+     */
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record value.
+     * 
+     * @param value recorded value. if negative, recorded as 0.
+     */
+    public void record(final long value) {
+        final long recordValue = value < 0 ? 0 : value;
+        counts.incrementAndGet(indexOf(recordValue));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(recordValue);
+        long currentMax = maxValue.get();
+        while (currentMax < recordValue && !maxValue.compareAndSet(currentMax, recordValue)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Add all values of other histogram.
+     * 
+     * @param other other histogram.
+     */
+    public void add(final LatencyHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            final long count = other.counts.get(index);
+            if (count != 0) {
+                counts.addAndGet(index, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalValue.addAndGet(other.totalValue.get());
+        final long otherMax = other.maxValue.get();
+        long currentMax = maxValue.get();
+        while (currentMax < otherMax && !maxValue.compareAndSet(currentMax, otherMax)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Get total count.
+     * 
+     * @return total count.
+     */
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Get max value.
+     * 
+     * @return max value. if empty, 0.
+     */
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Get mean value.
+     * 
+     * @return mean value. if empty, 0.
+     */
+    public double getMean() {
+        final long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return (double) totalValue.get() / count;
+    }
+
+    /**
+     * Get value at percentile.
+     * <p>
+     * returned value is upper bound of bucket (but not over max value).
+     * </p>
+     * 
+     * @param percentile percentile. (0.0 - 100.0)
+     * @return value at percentile. if empty, 0.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        final double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+        final long rank = Math.max(1, (long) Math.ceil(ratio * count));
+        long accumulated = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            accumulated += counts.get(index);
+            if (rank <= accumulated) {
+                return Math.min(upperBoundOf(index), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Reset.
+     * <p>
+     * values recorded concurrently with reset may be partially lost.
+     * </p>
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0);
+        }
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    /**
+     * Get bucket index of value.
+     * 
+     * @param value non negative value.
+     * @return bucket index.
+     */
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    /**
+     * Get lower bound value of bucket.
+     * 
+     * @param index bucket index.
+     * @return lower bound value.
+     */
+    static long lowerBoundOf(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK))) << shift;
+    }
+
+    /**
+     * Get upper bound value of bucket.
+     * 
+     * @param index bucket index.
+     * @return upper bound value (inclusive).
+     */
+    static long upperBoundOf(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return lowerBoundOf(index) + (1L << shift) - 1;
+    }
+
+}
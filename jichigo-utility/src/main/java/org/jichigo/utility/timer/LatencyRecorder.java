@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency recorder class with interval snapshot.
+ * <p>
+ * record to active histogram without lock, and swap active histogram on take interval snapshot.<br>
+ * take interval snapshot waits for writers recording to swapped histogram (epoch based phaser like HdrHistogram's
+ * Recorder), so value is counted in exactly one interval snapshot and is not lost.<br>
+ * this class's instance is thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class LatencyRecorder {
+
+    /**
+     * Active histogram.
+     */
+    private volatile LatencyHistogram activeHistogram = new LatencyHistogram();
+
+    /**
+     * Inactive histogram. (reused on next swap)
+     */
+    private LatencyHistogram inactiveHistogram = new LatencyHistogram();
+
+    /**
+     * Total histogram of all taken intervals.
+     */
+    private final LatencyHistogram totalHistogram = new LatencyHistogram();
+
+    /**
+     * Start epoch of writers. (negative in odd phase)
+     */
+    private final AtomicLong startEpoch = new AtomicLong();
+
+    /**
+     * End epoch of writers started in even phase.
+     */
+    private final AtomicLong evenEndEpoch = new AtomicLong();
+
+    /**
+     * End epoch of writers started in odd phase.
+     */
+    private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record value.
+     * 
+     * @param value recorded value.
+     */
+    public void record(final long value) {
+        final long criticalValue = startEpoch.getAndIncrement();
+        try {
+            activeHistogram.record(value);
+        } finally {
+            if (criticalValue < 0) {
+                oddEndEpoch.getAndIncrement();
+            } else {
+                evenEndEpoch.getAndIncrement();
+            }
+        }
+    }
+
+    /**
+     * Take interval snapshot.
+     * <p>
+     * returned histogram has values recorded since previous snapshot. it is valid until next snapshot.
+     * </p>
+     * 
+     * @return histogram of interval.
+     */
+    public synchronized LatencyHistogram takeIntervalSnapshot() {
+        final LatencyHistogram intervalHistogram = activeHistogram;
+        inactiveHistogram.reset();
+        activeHistogram = inactiveHistogram;
+        inactiveHistogram = intervalHistogram;
+        flipPhase();
+        totalHistogram.add(intervalHistogram);
+        return intervalHistogram;
+    }
+
+    /**
+     * Reset recorded values.
+     * <p>
+     * active histogram is swapped like {@link #takeIntervalSnapshot()}, and total histogram is cleared.
+     * </p>
+     */
+    public synchronized void reset() {
+        takeIntervalSnapshot();
+        totalHistogram.reset();
+    }
+
+    /**
+     * Flip phase of writers, and wait until writers started in previous phase are ended.
+     * <p>
+     * writers started after flip see swapped active histogram.
+     * </p>
+     */
+    private void flipPhase() {
+        final boolean nextPhaseIsEven = startEpoch.get() < 0;
+        final long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+        if (nextPhaseIsEven) {
+            evenEndEpoch.set(initialStartValue);
+        } else {
+            oddEndEpoch.set(initialStartValue);
+        }
+        final long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+        final AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+        while (previousEndEpoch.get() != startValueAtFlip) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Get active histogram. (values recorded since previous snapshot)
+     * 
+     * @return active histogram.
+     */
+    LatencyHistogram getActiveHistogram() {
+        return activeHistogram;
+    }
+
+    /**
+     * Get total histogram of all taken intervals.
+     * 
+     * @return total histogram.
+     */
+    public LatencyHistogram getTotalHistogram() {
+        return totalHistogram;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.io.Closeable;
+
+/**
+ * Section of {@link SectionProfile}.
+ * <p>
+ * instance is handle of preallocated frame of per thread section stack. frame is reused after close, and handle
+ * is stamped with generation of entry, so close of already closed section is ignored.<br>
+ * please close by thread that entered section. (e.g. try-finally or try-with-resources)
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public final class Section implements Closeable {
+
+    /**
+     * Owner stack.
+     */
+    private final SectionProfile.SectionStack stack;
+
+    /**
+     * Depth in stack.
+     */
+    final int depth;
+
+    /**
+     * Generation of entry.
+     */
+    final long generation;
+
+    /**
+     * Constructor.
+     * 
+     * @param stack owner stack.
+     * @param depth depth in stack.
+     * @param generation generation of entry.
+     */
+    Section(final SectionProfile.SectionStack stack, final int depth, final long generation) {
+        this.stack = stack;
+        this.depth = depth;
+        this.generation = generation;
+    }
+
+    /**
+     * Close section.
+     * <p>
+     * record passed time of section. if inner sections are not closed, they are closed too.
+     * </p>
+     */
+    public void close() {
+        stack.exit(this);
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Node of section call tree.
+ * <p>
+ * node has count, total, min and max passed time(nano seconds) of section path.<br>
+ * node of per thread tree is updated by owner thread only. node returned by {@link SectionProfile#snapshot()} is
+ * merged copy.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class SectionNode {
+
+    /**
+     * Empty children.
+     */
+    private static final SectionNode[] NO_CHILDREN = new SectionNode[0];
+
+    /**
+     * Section name.
+     */
+    private final String name;
+
+    /**
+     * Count.
+     */
+    private long count;
+
+    /**
+     * Total time.
+     */
+    private long totalTime;
+
+    /**
+     * Min time.
+     */
+    private long minTime = Long.MAX_VALUE;
+
+    /**
+     * Max time.
+     */
+    private long maxTime;
+
+    /**
+     * Children. (published after child is added)
+     */
+    private volatile SectionNode[] children = NO_CHILDREN;
+
+    /**
+     * Constructor.
+     * 
+     * @param name section name.
+     */
+    SectionNode(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get child node. if not exists, add.
+     * 
+     * @param childName section name of child.
+     * @return child node.
+     */
+    SectionNode child(final String childName) {
+        final SectionNode[] current = children;
+        for (int index = 0; index < current.length; index++) {
+            final SectionNode child = current[index];
+            if (child.name == childName || child.name.equals(childName)) {
+                return child;
+            }
+        }
+        final SectionNode child = new SectionNode(childName);
+        final SectionNode[] newChildren = new SectionNode[current.length + 1];
+        System.arraycopy(current, 0, newChildren, 0, current.length);
+        newChildren[current.length] = child;
+        children = newChildren;
+        return child;
+    }
+
+    /**
+     * Record passed time.
+     * 
+     * @param time passed time.
+     */
+    void record(final long time) {
+        count++;
+        totalTime += time;
+        if (time < minTime) {
+            minTime = time;
+        }
+        if (maxTime < time) {
+            maxTime = time;
+        }
+    }
+
+    /**
+     * Merge other node recursively.
+     * 
+     * @param other other node.
+     */
+    void merge(final SectionNode other) {
+        final long otherCount = other.count;
+        if (otherCount != 0) {
+            count += otherCount;
+            totalTime += other.totalTime;
+            minTime = Math.min(minTime, other.minTime);
+            maxTime = Math.max(maxTime, other.maxTime);
+        }
+        for (final SectionNode otherChild : other.children) {
+            child(otherChild.name).merge(otherChild);
+        }
+    }
+
+    /**
+     * Clear recursively.
+     */
+    void clear() {
+        count = 0;
+        totalTime = 0;
+        minTime = Long.MAX_VALUE;
+        maxTime = 0;
+        children = NO_CHILDREN;
+    }
+
+    /**
+     * Get section name.
+     * 
+     * @return section name. (root is empty)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get count.
+     * 
+     * @return count of closed section.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get total time.
+     * 
+     * @return total passed time.
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Get min time.
+     * 
+     * @return min passed time. if count is 0, 0.
+     */
+    public long getMinTime() {
+        return count == 0 ? 0 : minTime;
+    }
+
+    /**
+     * Get max time.
+     * 
+     * @return max passed time.
+     */
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Get children.
+     * 
+     * @return children nodes.
+     */
+    public List<SectionNode> getChildren() {
+        final List<SectionNode> list = new ArrayList<SectionNode>(children.length);
+        Collections.addAll(list, children);
+        return list;
+    }
+
+}
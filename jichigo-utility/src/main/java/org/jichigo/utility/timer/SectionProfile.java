@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Profile of nested sections.
+ * <p>
+ * section is entered by {@link StopWatch#section(String)}, and pushed to per thread stack of preallocated frames.<br>
+ * passed time of section is aggregated into per thread call tree, and merged across threads by
+ * {@link #snapshot()}.<br>
+ * per thread tree is updated without lock, so snapshot while running is approximate.
+ * </p>
+ * <p>
+ * thread local holds only weak reference to per thread stack, so container threads do not retain class loader of
+ * this class. stacks of terminated threads are merged into one tree and removed when stack of new thread is
+ * created.<br>
+ * please call {@link #purge()} on undeploy if this class is loaded by class loader of web application.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public final class SectionProfile {
+
+    /**
+     * Initial capacity of stack.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
+    /**
+     * Stacks of all threads.
+     */
+    private static final List<SectionStack> STACKS = new CopyOnWriteArrayList<SectionStack>();
+
+    /**
+     * Merged tree of terminated threads. (guarded by class)
+     */
+    private static final SectionNode TERMINATED_ROOT = new SectionNode("");
+
+    /**
+     * Stack of current thread. (weak reference, stack is held by {@link #STACKS})
+     */
+    private static final ThreadLocal<WeakReference<SectionStack>> CURRENT_STACK = new ThreadLocal<WeakReference<SectionStack>>();
+
+    /**
+     * Epoch of profile. incremented on reset.
+     */
+    private static volatile int epoch;
+
+    /**
+     * Constructor.
+     */
+    private SectionProfile() {
+    }
+
+    /**
+     * Enter section on current thread.
+     * 
+     * @param name section name.
+     * @return entered section.
+     */
+    public static Section enter(final String name) {
+        final WeakReference<SectionStack> reference = CURRENT_STACK.get();
+        SectionStack stack = (reference == null) ? null : reference.get();
+        if (stack == null || stack.purged) {
+            stack = newStack();
+        }
+        return stack.enter(name);
+    }
+
+    /**
+     * Create stack of current thread.
+     * <p>
+     * stacks of terminated threads are removed.
+     * </p>
+     * 
+     * @return stack of current thread.
+     */
+    private static synchronized SectionStack newStack() {
+        removeTerminatedStacks();
+        final SectionStack stack = new SectionStack(Thread.currentThread());
+        STACKS.add(stack);
+        CURRENT_STACK.set(new WeakReference<SectionStack>(stack));
+        return stack;
+    }
+
+    /**
+     * Take snapshot of profile merged across threads.
+     * 
+     * @return root node of merged call tree.
+     */
+    public static SectionNode snapshot() {
+        final int currentEpoch = epoch;
+        final SectionNode root = new SectionNode("");
+        for (final SectionStack stack : STACKS) {
+            if (stack.epoch == currentEpoch) {
+                root.merge(stack.root);
+            }
+        }
+        synchronized (SectionProfile.class) {
+            root.merge(TERMINATED_ROOT);
+        }
+        return root;
+    }
+
+    /**
+     * Reset profile.
+     * <p>
+     * per thread tree is cleared on next enter of its thread. stacks of terminated threads are removed.
+     * </p>
+     */
+    public static synchronized void reset() {
+        epoch++;
+        removeTerminatedStacks();
+        TERMINATED_ROOT.clear();
+    }
+
+    /**
+     * Purge profile.
+     * <p>
+     * remove stacks of all threads. stack is created again on next enter of its thread.<br>
+     * please call on undeploy. (e.g. CacheCleanupListener of jichigo-web)
+     * </p>
+     */
+    public static synchronized void purge() {
+        epoch++;
+        for (final SectionStack stack : STACKS) {
+            stack.purged = true;
+        }
+        STACKS.clear();
+        TERMINATED_ROOT.clear();
+    }
+
+    /**
+     * Remove stacks of terminated threads.
+     * <p>
+     * tree of current epoch is merged into tree of terminated threads.
+     * </p>
+     */
+    private static void removeTerminatedStacks() {
+        final Iterator<SectionStack> iterator = STACKS.iterator();
+        while (iterator.hasNext()) {
+            final SectionStack stack = iterator.next();
+            final Thread owner = stack.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                STACKS.remove(stack);
+                if (stack.epoch == epoch) {
+                    TERMINATED_ROOT.merge(stack.root);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per thread stack of sections.
+     */
+    static final class SectionStack {
+
+        /**
+         * Owner thread.
+         */
+        private final WeakReference<Thread> owner;
+
+        /**
+         * Root node of call tree.
+         */
+        private final SectionNode root = new SectionNode("");
+
+        /**
+         * Epoch of call tree.
+         */
+        private volatile int epoch = SectionProfile.epoch;
+
+        /**
+         * Frames.
+         */
+        private Frame[] frames = new Frame[INITIAL_STACK_CAPACITY];
+
+        /**
+         * Depth.
+         */
+        private int depth;
+
+        /**
+         * Is purged.
+         */
+        private volatile boolean purged;
+
+        /**
+         * Generation of last entered frame.
+         */
+        private long generation;
+
+        /**
+         * Constructor.
+         * 
+         * @param owner owner thread.
+         */
+        private SectionStack(final Thread owner) {
+            this.owner = new WeakReference<Thread>(owner);
+        }
+
+        /**
+         * Enter section.
+         * 
+         * @param name section name.
+         * @return entered section.
+         */
+        private Section enter(final String name) {
+            final SectionNode parent;
+            if (depth == 0) {
+                final int currentEpoch = SectionProfile.epoch;
+                if (epoch != currentEpoch) {
+                    root.clear();
+                    epoch = currentEpoch;
+                }
+                parent = root;
+            } else {
+                parent = frames[depth - 1].node;
+            }
+            if (depth == frames.length) {
+                final Frame[] newFrames = new Frame[frames.length * 2];
+                System.arraycopy(frames, 0, newFrames, 0, frames.length);
+                frames = newFrames;
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = new Frame();
+                frames[depth] = frame;
+            }
+            frame.node = parent.child(name);
+            frame.generation = ++generation;
+            final Section section = new Section(this, depth, frame.generation);
+            depth++;
+            frame.startTime = System.nanoTime();
+            return section;
+        }
+
+        /**
+         * Exit section.
+         * 
+         * @param section exited section.
+         */
+        void exit(final Section section) {
+            final long nowTime = System.nanoTime();
+            if (depth <= section.depth || frames[section.depth].generation != section.generation) {
+                // already closed. (frame may be reused by other section)
+                return;
+            }
+            while (section.depth < depth) {
+                depth--;
+                final Frame frame = frames[depth];
+                frame.node.record(nowTime - frame.startTime);
+            }
+        }
+    }
+
+    /**
+     * Preallocated frame of section stack.
+     */
+    private static final class Frame {
+
+        /**
+         * Node of call tree.
+         */
+        private SectionNode node;
+
+        /**
+         * Start time.
+         */
+        private long startTime;
+
+        /**
+         * Generation of entered section.
+         */
+        private long generation;
+    }
+
+}
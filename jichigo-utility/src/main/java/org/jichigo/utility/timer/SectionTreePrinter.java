@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.io.PrintStream;
+
+/**
+ * Printer class of stop watch with section call tree.
+ * <p>
+ * print passed time of stop watch and snapshot of {@link SectionProfile}.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class SectionTreePrinter implements StopWatch.StopWatchPrinter {
+
+    /**
+     * Indent per depth.
+     */
+    private static final String INDENT = "  ";
+
+    /**
+     * Print Stream.
+     */
+    private final PrintStream ps;
+
+    /**
+     * Constructor.
+     * 
+     * @param ps Print Stream.
+     */
+    public SectionTreePrinter(final PrintStream ps) {
+        super();
+        this.ps = ps;
+    }
+
+    /**
+     * Print.
+     * 
+     * @param stopWatch stop watch.
+     */
+    public void print(final StopWatch stopWatch) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("=================\r\n");
+        sb.append("name : ").append(stopWatch.getName()).append("\r\n");
+        sb.append("=================\r\n");
+        sb.append(stopWatch.getFormatPassedTime()).append("\r\n");
+        sb.append("---sections (count / total / min / max)---\r\n");
+        for (final SectionNode child : SectionProfile.snapshot().getChildren()) {
+            appendNode(sb, child, 0);
+        }
+        sb.append("-----------------------");
+        ps.println(sb.toString());
+    }
+
+    /**
+     * Append node recursively.
+     * 
+     * @param sb target string builder.
+     * @param node section node.
+     * @param depth depth of node.
+     */
+    private void appendNode(final StringBuilder sb, final SectionNode node, final int depth) {
+        for (int index = 0; index < depth; index++) {
+            sb.append(INDENT);
+        }
+        sb.append(node.getName()).append(" : ").append(node.getCount()).append(" / ");
+        StopWatch.appendFormatted(sb, node.getTotalTime()).append(" / ");
+        StopWatch.appendFormatted(sb, node.getMinTime()).append(" / ");
+        StopWatch.appendFormatted(sb, node.getMaxTime()).append("\r\n");
+        for (final SectionNode child : node.getChildren()) {
+            appendNode(sb, child, depth + 1);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Printer class of stop watch registry to slf4j logger.
+ * <p>
+ * print count, p50, p90, p99, p99.9 and max (milliseconds) by info level.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class Slf4jStopWatchRegistryPrinter implements StopWatchRegistryPrinter {
+
+    /**
+     * Nano seconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLIS = 1000000.0;
+
+    /**
+     * Logger instance of slf4j.
+     */
+    private final Logger logger;
+
+    /**
+     * Default constructor.
+     */
+    public Slf4jStopWatchRegistryPrinter() {
+        this(LoggerFactory.getLogger(Slf4jStopWatchRegistryPrinter.class));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param logger target logger.
+     */
+    public Slf4jStopWatchRegistryPrinter(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Print histogram.
+     * 
+     * @param name name of histogram.
+     * @param histogram latency histogram. (nano seconds)
+     */
+    public void print(final String name, final LatencyHistogram histogram) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.info("stop watch [{}]. count [{}]. p50 [{}]ms. p90 [{}]ms. p99 [{}]ms. p99.9 [{}]ms. max [{}]ms.",
+                new Object[] { name, histogram.getTotalCount(), toMillis(histogram.getValueAtPercentile(50)),
+                        toMillis(histogram.getValueAtPercentile(90)), toMillis(histogram.getValueAtPercentile(99)),
+                        toMillis(histogram.getValueAtPercentile(99.9)), toMillis(histogram.getMaxValue()) });
+    }
+
+    /**
+     * Convert nano seconds to milliseconds.
+     * 
+     * @param nanos nano seconds.
+     * @return milliseconds.
+     */
+    private static double toMillis(final long nanos) {
+        return nanos / NANOS_PER_MILLIS;
+    }
+
+}
@@ -26,9 +26,19 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jichigo.utility.event.ProfilingEvents;
 
 /**
  * Stop Watch class.
+ * <p>
+ * instance created by {@link #newInstance(String)} is synchronized.<br>
+ * if use in tight loop by one thread, please use {@link #newSingleOwnerInstance(String)} (no monitor).<br>
+ * if read from other thread while running, please use {@link #newConcurrentInstance(String)} (lock free).<br>
+ * split times are stored in long array, and formatted only when printed.<br>
+ * start, split and stop are emitted as {@link ProfilingEvents.Type#STOP_WATCH} event if enabled.
+ * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0
@@ -41,6 +51,21 @@ public class StopWatch {
      */
     private static final StopWatchPrinter DEFAULT_PRINTER = new DefaultStopWatchPrinter(System.out);
 
+    /**
+     * Initial capacity of split times.
+     */
+    private static final int INITIAL_SPLIT_CAPACITY = 8;
+
+    /**
+     * Nano seconds per second.
+     */
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Digits of nano seconds part.
+     */
+    private static final int NANOS_DIGITS = 9;
+
     /**
      * New instance.
      * <p>
@@ -63,6 +88,46 @@ public class StopWatch {
         return new StopWatch(name);
     }
 
+    /**
+     * New single owner instance.
+     * <p>
+     * instance is not synchronized. please use only by one thread.
+     * </p>
+     * 
+     * @param name stop watch name.
+     * @return stop watch instance.
+     */
+    public static StopWatch newSingleOwnerInstance(final String name) {
+        return new SingleOwnerStopWatch(name);
+    }
+
+    /**
+     * New concurrent instance.
+     * <p>
+     * start, stop, split and clear should be called by one thread. other threads can read without lock.
+     * </p>
+     * 
+     * @param name stop watch name.
+     * @return stop watch instance.
+     */
+    public static StopWatch newConcurrentInstance(final String name) {
+        return new ConcurrentStopWatch(name);
+    }
+
+    /**
+     * Enter nested section on current thread.
+     * <p>
+     * please close returned section. passed time of section is aggregated into {@link SectionProfile}.<br>
+     * e.g) Section section = StopWatch.section("dao"); try { ... } finally { section.close(); }
+     * </p>
+     * 
+     * @param name section name.
+     * @return entered section.
+     */
+    public static Section section(final String name) {
+        return SectionProfile.enter(name);
+    }
+
     /**
      * name.
      */
@@ -92,16 +157,26 @@ public class StopWatch {
     private long lastSplitTime;
 
     /**
-     * split time list.
+     * split times.
+     */
+    private long[] splitTimes = new long[INITIAL_SPLIT_CAPACITY];
+
+    /**
+     * split count.
+     */
+    private int splitCount;
+
+    /**
+     * lap recorder of registry. (if null, not recorded)
      */
-    private final List<Long> splitTimeList = new ArrayList<Long>();
+    LatencyRecorder lapRecorder;
 
     /**
      * Constructor.
      * 
      * @param name stop watch name.
      */
-    private StopWatch(final String name) {
+    StopWatch(final String name) {
         super();
         this.name = name;
     }
@@ -110,10 +185,20 @@ public class StopWatch {
      * Start.
      */
     public synchronized void start() {
+        doStart();
+    }
+
+    /**
+     * Start without synchronize.
+     */
+    final void doStart() {
         if (!running) {
             running = true;
             startTime = System.nanoTime();
             lastSplitTime = startTime;
+            if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                ProfilingEvents.stopWatchStarted(name);
+            }
         }
     }
 
@@ -121,13 +206,26 @@ public class StopWatch {
      * Stop.
      */
     public synchronized void stop() {
+        doStop();
+    }
+
+    /**
+     * Stop without synchronize.
+     */
+    final void doStop() {
         if (running) {
             running = false;
             final long nowTime = System.nanoTime();
             passedTime = passedTime + (nowTime - startTime);
-            if (!splitTimeList.isEmpty()) {
+            if (splitCount != 0) {
                 setSplit(nowTime);
             }
+            if (lapRecorder != null) {
+                lapRecorder.record(nowTime - startTime);
+            }
+            if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                ProfilingEvents.stopWatchStopped(name, nowTime - startTime);
+            }
         }
     }
 
@@ -138,8 +236,18 @@ public class StopWatch {
      * </p>
      */
     public synchronized void split() {
+        doSplit();
+    }
+
+    /**
+     * Split without synchronize.
+     */
+    final void doSplit() {
         if (running) {
             setSplit(System.nanoTime());
+            if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                ProfilingEvents.stopWatchSplit(name, splitTimes[splitCount - 1]);
+            }
         }
     }
 
@@ -149,7 +257,12 @@ public class StopWatch {
      * @param nowTime now time.
      */
     private void setSplit(final long nowTime) {
-        splitTimeList.add(nowTime - lastSplitTime);
+        if (splitCount == splitTimes.length) {
+            final long[] newSplitTimes = new long[splitTimes.length * 2];
+            System.arraycopy(splitTimes, 0, newSplitTimes, 0, splitCount);
+            splitTimes = newSplitTimes;
+        }
+        splitTimes[splitCount++] = nowTime - lastSplitTime;
         lastSplitTime = nowTime;
     }
 
@@ -157,11 +270,18 @@ public class StopWatch {
      * Clear.
      */
     public synchronized void clear() {
+        doClear();
+    }
+
+    /**
+     * Clear without synchronize.
+     */
+    final void doClear() {
         if (!running) {
             startTime = 0;
             passedTime = 0;
             lastSplitTime = 0;
-            splitTimeList.clear();
+            splitCount = 0;
         }
     }
 
@@ -171,6 +291,15 @@ public class StopWatch {
      * @return passed time.
      */
     public synchronized long getPassedTime() {
+        return doGetPassedTime();
+    }
+
+    /**
+     * Get the passed time without synchronize.
+     * 
+     * @return passed time.
+     */
+    final long doGetPassedTime() {
         if (running) {
             return passedTime + (System.nanoTime() - startTime);
         } else {
@@ -178,6 +307,73 @@ public class StopWatch {
         }
     }
 
+    /**
+     * Get the split count.
+     * 
+     * @return split count.
+     */
+    public synchronized int getSplitCount() {
+        return splitCount;
+    }
+
+    /**
+     * Get the split time.
+     * 
+     * @param index index of split. (0 origin)
+     * @return split time.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    public synchronized long getSplitTime(final int index) {
+        return doGetSplitTime(index);
+    }
+
+    /**
+     * Get the split time without synchronize.
+     * 
+     * @param index index of split. (0 origin)
+     * @return split time.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    final long doGetSplitTime(final int index) {
+        if (index < 0 || splitCount <= index) {
+            throw new IndexOutOfBoundsException("index is out of range. index is [" + index + "]. split count is ["
+                    + splitCount + "].");
+        }
+        return splitTimes[index];
+    }
+
+    /**
+     * Copy the split times.
+     * <p>
+     * copies split count and split times at once, so clear by other thread does not break the copy.
+     * </p>
+     * 
+     * @return copy of split times.
+     */
+    synchronized long[] copySplitTimes() {
+        return doCopySplitTimes();
+    }
+
+    /**
+     * Copy the split times without synchronize.
+     * 
+     * @return copy of split times.
+     */
+    final long[] doCopySplitTimes() {
+        final long[] copy = new long[splitCount];
+        System.arraycopy(splitTimes, 0, copy, 0, splitCount);
+        return copy;
+    }
+
+    /**
+     * Get the name.
+     * 
+     * @return stop watch name.
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Get the formatted passed time.
      * 
@@ -193,9 +389,10 @@ public class StopWatch {
      * @return formatted split time list.
      */
     public List<String> getFormatSplitTimeList() {
-        final List<String> list = new ArrayList<String>();
-        for (final Long splitTime : splitTimeList) {
-            list.add(formatString(splitTime.longValue()));
+        final long[] times = copySplitTimes();
+        final List<String> list = new ArrayList<String>(times.length);
+        for (final long time : times) {
+            list.add(formatString(time));
         }
         return list;
     }
@@ -212,8 +409,24 @@ public class StopWatch {
      * @return formatted time string.
      */
     private String formatString(final long nanoTime) {
-        final TimeUnit nanoTimeUnit = TimeUnit.NANOSECONDS;
-        return String.format("%d.%09d", nanoTimeUnit.toSeconds(nanoTime), nanoTimeUnit.toNanos(nanoTime) % 1000000000);
+        return appendFormatted(new StringBuilder(NANOS_DIGITS + 4), nanoTime).toString();
+    }
+
+    /**
+     * Append formatted time.
+     * 
+     * @param sb target string builder.
+     * @param nanoTime nano's time.
+     * @return target string builder.
+     * @see #formatString(long)
+     */
+    static StringBuilder appendFormatted(final StringBuilder sb, final long nanoTime) {
+        sb.append(nanoTime / NANOS_PER_SECOND).append('.');
+        final long nanos = nanoTime % NANOS_PER_SECOND;
+        for (long digit = NANOS_PER_SECOND / 10; 1 < digit && nanos < digit; digit /= 10) {
+            sb.append('0');
+        }
+        return sb.append(nanos);
     }
 
     /**
@@ -274,12 +487,12 @@ public class StopWatch {
          */
         public final void print(final StopWatch stopWatch) {
             final StringBuilder sb = new StringBuilder();
-            appendHeader(sb, stopWatch.name);
+            appendHeader(sb, stopWatch.getName());
             appendPassedTime(sb, stopWatch.getFormatPassedTime());
             final List<String> formattedSplitTimeList = stopWatch.getFormatSplitTimeList();
             if (!formattedSplitTimeList.isEmpty()) {
                 appendSplitTimeHeader(sb);
-                int size = stopWatch.splitTimeList.size();
+                int size = formattedSplitTimeList.size();
                 int length = 1;
                 while (0 < (size = size / 10)) {
                     length++;
@@ -292,7 +505,7 @@ public class StopWatch {
                 }
                 appendSplitTimeFooter(sb);
             }
-            appendFooter(sb, stopWatch.name);
+            appendFooter(sb, stopWatch.getName());
             ps.println(sb.toString());
         }
 
@@ -377,4 +590,238 @@ public class StopWatch {
 
     }
 
+    /**
+     * Single owner stop watch.
+     * <p>
+     * not synchronized.
+     * </p>
+     */
+    private static class SingleOwnerStopWatch extends StopWatch {
+
+        /**
+         * Constructor.
+         * 
+         * @param name stop watch name.
+         */
+        private SingleOwnerStopWatch(final String name) {
+            super(name);
+        }
+
+        @Override
+        public void start() {
+            doStart();
+        }
+
+        @Override
+        public void stop() {
+            doStop();
+        }
+
+        @Override
+        public void split() {
+            doSplit();
+        }
+
+        @Override
+        public void clear() {
+            doClear();
+        }
+
+        @Override
+        public long getPassedTime() {
+            return doGetPassedTime();
+        }
+
+        @Override
+        public int getSplitCount() {
+            return super.splitCount;
+        }
+
+        @Override
+        public long getSplitTime(final int index) {
+            return doGetSplitTime(index);
+        }
+
+        @Override
+        long[] copySplitTimes() {
+            return doCopySplitTimes();
+        }
+    }
+
+    /**
+     * Concurrent stop watch.
+     * <p>
+     * written by one thread, and read by any thread without lock. (sequence lock)
+     * </p>
+     */
+    private static class ConcurrentStopWatch extends StopWatch {
+
+        /**
+         * sequence of write. odd while writing.
+         */
+        private final AtomicLong sequence = new AtomicLong();
+
+        /**
+         * running flag.
+         */
+        private volatile boolean sharedRunning;
+
+        /**
+         * start time.
+         */
+        private volatile long sharedStartTime;
+
+        /**
+         * passed time.
+         */
+        private volatile long sharedPassedTime;
+
+        /**
+         * last split time.
+         */
+        private long sharedLastSplitTime;
+
+        /**
+         * split times.
+         */
+        private volatile long[] sharedSplitTimes = new long[INITIAL_SPLIT_CAPACITY];
+
+        /**
+         * split count. (published after split time is written)
+         */
+        private volatile int sharedSplitCount;
+
+        /**
+         * Constructor.
+         * 
+         * @param name stop watch name.
+         */
+        private ConcurrentStopWatch(final String name) {
+            super(name);
+        }
+
+        @Override
+        public void start() {
+            if (!sharedRunning) {
+                final long nowTime = System.nanoTime();
+                sequence.incrementAndGet();
+                sharedStartTime = nowTime;
+                sharedRunning = true;
+                sequence.incrementAndGet();
+                sharedLastSplitTime = nowTime;
+                if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                    ProfilingEvents.stopWatchStarted(getName());
+                }
+            }
+        }
+
+        @Override
+        public void stop() {
+            if (sharedRunning) {
+                final long nowTime = System.nanoTime();
+                sequence.incrementAndGet();
+                final long lapTime = nowTime - sharedStartTime;
+                sharedPassedTime = sharedPassedTime + lapTime;
+                sharedRunning = false;
+                sequence.incrementAndGet();
+                if (sharedSplitCount != 0) {
+                    setSplit(nowTime);
+                }
+                if (lapRecorder != null) {
+                    lapRecorder.record(lapTime);
+                }
+                if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                    ProfilingEvents.stopWatchStopped(getName(), lapTime);
+                }
+            }
+        }
+
+        @Override
+        public void split() {
+            if (sharedRunning) {
+                setSplit(System.nanoTime());
+                if (ProfilingEvents.isEnabled(ProfilingEvents.Type.STOP_WATCH)) {
+                    ProfilingEvents.stopWatchSplit(getName(), sharedSplitTimes[sharedSplitCount - 1]);
+                }
+            }
+        }
+
+        /**
+         * Set split time.
+         * 
+         * @param nowTime now time.
+         */
+        private void setSplit(final long nowTime) {
+            final int count = sharedSplitCount;
+            long[] times = sharedSplitTimes;
+            if (count == times.length) {
+                final long[] newTimes = new long[times.length * 2];
+                System.arraycopy(times, 0, newTimes, 0, count);
+                times = newTimes;
+            }
+            times[count] = nowTime - sharedLastSplitTime;
+            sequence.incrementAndGet();
+            sharedSplitTimes = times;
+            sharedSplitCount = count + 1;
+            sequence.incrementAndGet();
+            sharedLastSplitTime = nowTime;
+        }
+
+        @Override
+        public void clear() {
+            if (!sharedRunning) {
+                sequence.incrementAndGet();
+                sharedStartTime = 0;
+                sharedPassedTime = 0;
+                sharedSplitCount = 0;
+                sequence.incrementAndGet();
+                sharedLastSplitTime = 0;
+            }
+        }
+
+        @Override
+        public long getPassedTime() {
+            while (true) {
+                final long before = sequence.get();
+                final boolean running = sharedRunning;
+                final long startTime = sharedStartTime;
+                final long passedTime = sharedPassedTime;
+                if ((before & 1) == 0 && before == sequence.get()) {
+                    return running ? passedTime + (System.nanoTime() - startTime) : passedTime;
+                }
+                Thread.yield();
+            }
+        }
+
+        @Override
+        public int getSplitCount() {
+            return sharedSplitCount;
+        }
+
+        @Override
+        public long getSplitTime(final int index) {
+            final int count = sharedSplitCount;
+            if (index < 0 || count <= index) {
+                throw new IndexOutOfBoundsException("index is out of range. index is [" + index
+                        + "]. split count is [" + count + "].");
+            }
+            return sharedSplitTimes[index];
+        }
+
+        @Override
+        long[] copySplitTimes() {
+            while (true) {
+                final long before = sequence.get();
+                final int count = sharedSplitCount;
+                final long[] times = sharedSplitTimes;
+                final long[] copy = new long[count];
+                System.arraycopy(times, 0, copy, 0, count);
+                if ((before & 1) == 0 && before == sequence.get()) {
+                    return copy;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.utility.timer;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of stop watches aggregated by name.
+ * <p>
+ * each stop of stop watch created by {@link #newStopWatch(String)} is recorded into latency histogram of the name.<br>
+ * histogram of name is striped (selected by thread) to reduce contention, and each stripe swaps histogram on take
+ * interval snapshot.<br>
+ * memory: each stripe holds 3 histograms (about 15KB each), and is created on first record by thread of it. so a
+ * name uses about 45KB per used stripe, up to stripe count (default is number of processors, at most 4).<br>
+ * {@link #getSnapshot(String)} and {@link #percentilesMillis(String)} allocate merged histogram (about 15KB) per call.
+ * {@link #count(String)} does not allocate.<br>
+ * {@link #print(StopWatchRegistryPrinter)} prints interval since previous print (reset on read).<br>
+ * this class's instance is thread safe.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class StopWatchRegistry implements StopWatchRegistryMBean {
+
+    /**
+     * Default stripe count.
+     */
+    private static final int DEFAULT_STRIPE_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    /**
+     * Reported percentiles.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    /**
+     * Nano seconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLIS = 1000000.0;
+
+    /**
+     * Default registry.
+     */
+    private static final StopWatchRegistry DEFAULT_REGISTRY = new StopWatchRegistry();
+
+    /**
+     * Get default registry.
+     * 
+     * @return default registry.
+     */
+    public static StopWatchRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Entries by name.
+     */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * Stripe count.
+     */
+    private final int stripeCount;
+
+    /**
+     * Default constructor.
+     */
+    public StopWatchRegistry() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param stripeCount stripe count of histogram per name.
+     * @throws IllegalArgumentException if stripeCount is less than 1.
+     */
+    public StopWatchRegistry(final int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be greater than 0. stripeCount is [" + stripeCount
+                    + "].");
+        }
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * New stop watch recorded into this registry.
+     * <p>
+     * stop watch is single owner instance. please use only by current thread.
+     * </p>
+     * 
+     * @param name stop watch name.
+     * @return stop watch instance.
+     */
+    public StopWatch newStopWatch(final String name) {
+        final StopWatch stopWatch = StopWatch.newSingleOwnerInstance(name);
+        stopWatch.lapRecorder = entryOf(name).stripeOf(Thread.currentThread());
+        return stopWatch;
+    }
+
+    /**
+     * Record passed time.
+     * 
+     * @param name stop watch name.
+     * @param nanoTime passed time(nano seconds).
+     */
+    public void record(final String name, final long nanoTime) {
+        entryOf(name).stripeOf(Thread.currentThread()).record(nanoTime);
+    }
+
+    /**
+     * Get cumulative snapshot of name.
+     * 
+     * @param name stop watch name.
+     * @return merged histogram. if name is not registered, empty histogram.
+     */
+    public LatencyHistogram getSnapshot(final String name) {
+        final Entry entry = entries.get(name);
+        if (entry == null) {
+            return new LatencyHistogram();
+        }
+        return entry.cumulativeSnapshot();
+    }
+
+    /**
+     * Take interval snapshots of all names. (reset on read)
+     * 
+     * @return histograms since previous interval snapshot by name. (sorted)
+     */
+    public Map<String, LatencyHistogram> takeIntervalSnapshots() {
+        final Map<String, LatencyHistogram> snapshots = new LinkedHashMap<String, LatencyHistogram>();
+        for (final Map.Entry<String, Entry> entry : new TreeMap<String, Entry>(entries).entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().takeIntervalSnapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Print interval snapshots of all names. (reset on read)
+     * 
+     * @param printer target printer.
+     */
+    public void print(final StopWatchRegistryPrinter printer) {
+        for (final Map.Entry<String, LatencyHistogram> snapshot : takeIntervalSnapshots().entrySet()) {
+            printer.print(snapshot.getKey(), snapshot.getValue());
+        }
+    }
+
+    /**
+     * Clear recorded values of all names.
+     * <p>
+     * recorders are reset in place, so stop watches created before clear keep recording into this registry. (names
+     * stay registered)
+     * </p>
+     */
+    public void clear() {
+        for (final Entry entry : entries.values()) {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Register to platform MBean server.
+     * 
+     * @param objectName object name. (e.g. org.jichigo:type=StopWatchRegistry)
+     * @throws IllegalStateException if fail register.
+     */
+    public void registerMBean(final String objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(objectName));
+        } catch (final JMException e) {
+            throw new IllegalStateException("fail register mbean. object name is [" + objectName + "].", e);
+        }
+    }
+
+    /**
+     * Get names.
+     * 
+     * @return registered names. (sorted)
+     */
+    public String[] getNames() {
+        return new TreeMap<String, Entry>(entries).keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Get count of name.
+     * 
+     * @param name stop watch name.
+     * @return count of stop.
+     */
+    public long count(final String name) {
+        final Entry entry = entries.get(name);
+        if (entry == null) {
+            return 0;
+        }
+        return entry.count();
+    }
+
+    /**
+     * Get percentiles (p50, p90, p99, p99.9) of name.
+     * 
+     * @param name stop watch name.
+     * @return percentiles(milliseconds). if name is not registered, empty.
+     */
+    public double[] percentilesMillis(final String name) {
+        if (!entries.containsKey(name)) {
+            return new double[0];
+        }
+        final LatencyHistogram histogram = getSnapshot(name);
+        final double[] values = new double[PERCENTILES.length];
+        for (int index = 0; index < PERCENTILES.length; index++) {
+            values[index] = histogram.getValueAtPercentile(PERCENTILES[index]) / NANOS_PER_MILLIS;
+        }
+        return values;
+    }
+
+    /**
+     * Get entry of name. if not exists, add.
+     * 
+     * @param name stop watch name.
+     * @return entry.
+     */
+    private Entry entryOf(final String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            entry = new Entry(stripeCount);
+            final Entry existing = entries.putIfAbsent(name, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Entry of name.
+     */
+    private static class Entry {
+
+        /**
+         * Striped recorders. (created on first use)
+         */
+        private final AtomicReferenceArray<LatencyRecorder> stripes;
+
+        /**
+         * Constructor.
+         * 
+         * @param stripeCount stripe count.
+         */
+        private Entry(final int stripeCount) {
+            stripes = new AtomicReferenceArray<LatencyRecorder>(stripeCount);
+        }
+
+        /**
+         * Get stripe of thread. if not exists, create.
+         * 
+         * @param thread thread.
+         * @return recorder of stripe.
+         */
+        private LatencyRecorder stripeOf(final Thread thread) {
+            final int index = (int) ((thread.getId() & Long.MAX_VALUE) % stripes.length());
+            final LatencyRecorder stripe = stripes.get(index);
+            if (stripe != null) {
+                return stripe;
+            }
+            stripes.compareAndSet(index, null, new LatencyRecorder());
+            return stripes.get(index);
+        }
+
+        /**
+         * Take interval snapshot merged across stripes.
+         * 
+         * @return histogram since previous interval snapshot.
+         */
+        private synchronized LatencyHistogram takeIntervalSnapshot() {
+            final LatencyHistogram interval = new LatencyHistogram();
+            for (int index = 0; index < stripes.length(); index++) {
+                final LatencyRecorder stripe = stripes.get(index);
+                if (stripe != null) {
+                    interval.add(stripe.takeIntervalSnapshot());
+                }
+            }
+            return interval;
+        }
+
+        /**
+         * Reset recorded values of stripes.
+         */
+        private synchronized void reset() {
+            for (int index = 0; index < stripes.length(); index++) {
+                final LatencyRecorder stripe = stripes.get(index);
+                if (stripe != null) {
+                    stripe.reset();
+                }
+            }
+        }
+
+        /**
+         * Take cumulative snapshot. (taken intervals and current interval)
+         * 
+         * @return cumulative histogram.
+         */
+        private synchronized LatencyHistogram cumulativeSnapshot() {
+            final LatencyHistogram cumulative = new LatencyHistogram();
+            for (int index = 0; index < stripes.length(); index++) {
+                final LatencyRecorder stripe = stripes.get(index);
+                if (stripe != null) {
+                    cumulative.add(stripe.getTotalHistogram());
+                    cumulative.add(stripe.getActiveHistogram());
+                }
+            }
+            return cumulative;
+        }
+
+        /**
+         * Get cumulative count. (taken intervals and current interval)
+         * 
+         * @return count of stop.
+         */
+        private synchronized long count() {
+            long count = 0;
+            for (int index = 0; index < stripes.length(); index++) {
+                final LatencyRecorder stripe = stripes.get(index);
+                if (stripe != null) {
+                    count += stripe.getTotalHistogram().getTotalCount() + stripe.getActiveHistogram().getTotalCount();
+                }
+            }
+            return count;
+        }
+    }
+
+}
@@ -39,7 +39,7 @@ public class JAXBContextCache {
     /**
      * instance cache.
      */
-    private static final LazyCache<JAXBContext> cache = new CacheByKey<JAXBContext>() {
+    private static final LazyCache<JAXBContext> cache = new CacheByKey<JAXBContext>(JAXBContextCache.class.getName()) {
         /*
          * ( Javadoc)
          * 
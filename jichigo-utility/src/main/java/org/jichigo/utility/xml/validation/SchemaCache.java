@@ -45,7 +45,7 @@ public class SchemaCache {
     /**
      * instance cache.
      */
-    private static final LazyCache<Schema> cache = new CacheByKey<Schema>() {
+    private static final LazyCache<Schema> cache = new CacheByKey<Schema>(SchemaCache.class.getName()) {
         /*
          * ( Javadoc)
          * 
@@ -0,0 +1,65 @@
+package org.jichigo.utility.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void putIfAbsent() {
+
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(2);
+
+        Assert.assertNull(cache.putIfAbsent("key", "value1"));
+        Assert.assertEquals("value1", cache.putIfAbsent("key", "value2"));
+        Assert.assertEquals("value1", cache.get("key"));
+        Assert.assertEquals(1, cache.size());
+
+    }
+
+    @Test
+    public void putIfAbsent_evict() {
+
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(3);
+        cache.putIfAbsent("hot", "hot");
+        cache.get("hot");
+
+        for (int i = 0; i < 100; i++) {
+            cache.putIfAbsent("key" + i, "value" + i);
+            cache.get("hot");
+        }
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals("hot", cache.get("hot"));
+        Assert.assertEquals("value99", cache.get("key99"));
+        Assert.assertNull(cache.get("key0"));
+        Assert.assertNull(cache.putIfAbsent("key0", "value0"));
+
+    }
+
+    @Test
+    public void remove_clear() {
+
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(2);
+        cache.putIfAbsent("key1", "value1");
+        cache.putIfAbsent("key2", "value2");
+
+        Assert.assertEquals("value1", cache.remove("key1"));
+        Assert.assertNull(cache.remove("key1"));
+        cache.putIfAbsent("key3", "value3");
+        Assert.assertEquals("value2", cache.get("key2"));
+        Assert.assertEquals("value3", cache.get("key3"));
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("key2"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_invalidMaxSize() {
+
+        new BoundedCache<String, String>(0);
+
+    }
+
+}
@@ -1,5 +1,14 @@
 package org.jichigo.utility.cache;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
@@ -188,4 +197,287 @@ public class CacheByKeyTest {
 
     }
 
+    @Test
+    public void purgeClassLoader() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return new Object();
+            }
+        };
+        URL classes = CacheByKeyTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes }, null);
+        Class<?> otherClass = classLoader.loadClass(CacheByKeyTest.class.getName());
+
+        Object shared1 = cache.getOrCreate(CacheByKeyTest.class);
+        Object scoped1 = cache.getOrCreate(otherClass);
+        Object scoped2 = cache.getOrCreate(otherClass);
+        CacheByKey.purgeClassLoader(classLoader);
+        Object shared2 = cache.getOrCreate(CacheByKeyTest.class);
+        Object scoped3 = cache.getOrCreate(otherClass);
+
+        Assert.assertNotSame(otherClass, CacheByKeyTest.class);
+        Assert.assertNotSame(shared1, scoped1);
+        Assert.assertSame(scoped1, scoped2);
+        Assert.assertSame(shared1, shared2);
+        Assert.assertNotSame(scoped1, scoped3);
+
+    }
+
+    @Test
+    public void purgeClassLoader_descendant() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return new Object();
+            }
+        };
+        URL classes = CacheByKeyTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader parentClassLoader = new URLClassLoader(new URL[0], null);
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes }, parentClassLoader);
+        Class<?> otherClass = classLoader.loadClass(CacheByKeyTest.class.getName());
+
+        Object scoped1 = cache.getOrCreate(otherClass);
+        CacheByKey.purgeClassLoader(parentClassLoader);
+        Object scoped2 = cache.getOrCreate(otherClass);
+
+        Assert.assertNotSame(scoped1, scoped2);
+
+    }
+
+    @Test
+    public void purgeClassLoader_cacheDefinedByClassLoader() throws Exception {
+
+        URL classes = CacheByKeyTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes }, CacheByKeyTest.class.getClassLoader()) {
+            @Override
+            protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!PurgeTargetCache.class.getName().equals(name)) {
+                    return super.loadClass(name, resolve);
+                }
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    loadedClass = findClass(name);
+                }
+                return loadedClass;
+            }
+        };
+        @SuppressWarnings("unchecked")
+        LazyCache<Object> cache = (LazyCache<Object>) classLoader.loadClass(PurgeTargetCache.class.getName())
+                .newInstance();
+
+        Object shared1 = cache.getOrCreate("key");
+        CacheByKey.purgeClassLoader(new URLClassLoader(new URL[0], null));
+        Object shared2 = cache.getOrCreate("key");
+        CacheByKey.purgeClassLoader(classLoader);
+        Object shared3 = cache.getOrCreate("key");
+
+        Assert.assertNotSame(PurgeTargetCache.class, cache.getClass());
+        Assert.assertSame(shared1, shared2);
+        Assert.assertNotSame(shared1, shared3);
+
+    }
+
+    @Test
+    public void purgeClassLoader_asyncExecutor() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return new Object();
+            }
+        };
+
+        cache.getOrCreateAsync("key1").get();
+        Executor executor = CacheByKey.getOwnedAsyncExecutor();
+        CacheByKey.purgeClassLoader(new URLClassLoader(new URL[0], null));
+
+        Assert.assertNotNull(executor);
+        Assert.assertSame(executor, CacheByKey.getOwnedAsyncExecutor());
+
+        CacheByKey.purgeClassLoader(CacheByKey.class.getClassLoader());
+
+        Assert.assertNull(CacheByKey.getOwnedAsyncExecutor());
+        Assert.assertNotNull(cache.getOrCreateAsync("key2").get());
+
+    }
+
+    @Test
+    public void getOrCreateAsync() throws Exception {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger loadCount = new AtomicInteger();
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                loadCount.incrementAndGet();
+                return new Object();
+            }
+        };
+
+        Future<Object> future1 = cache.getOrCreateAsync("key");
+        Future<Object> future2 = cache.getOrCreateAsync("key");
+        latch.countDown();
+        Object actualValue = future1.get();
+        Future<Object> future3 = cache.getOrCreateAsync("key");
+
+        Assert.assertSame(actualValue, future2.get());
+        Assert.assertTrue(future3.isDone());
+        Assert.assertSame(actualValue, future3.get());
+        Assert.assertSame(actualValue, cache.getOrCreate("key"));
+        Assert.assertEquals(1, loadCount.get());
+
+    }
+
+    @Test
+    public void getOrCreateAsync_executorShutDown() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return "value";
+            }
+        };
+        // shut down between get and execute. (e.g. purge by undeploy of other application)
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>()) {
+            @Override
+            public void execute(Runnable command) {
+                CacheByKey.setDefaultAsyncExecutor(null);
+                shutdown();
+                super.execute(command);
+            }
+        };
+        CacheByKey.setDefaultAsyncExecutor(executor);
+        try {
+            Assert.assertEquals("value", cache.getOrCreateAsync("key").get(5, TimeUnit.SECONDS));
+            Assert.assertTrue(executor.isShutdown());
+        } finally {
+            CacheByKey.setDefaultAsyncExecutor(null);
+        }
+
+    }
+
+    @Test
+    public void getOrCreateAsync_failed() throws Exception {
+
+        final AtomicInteger loadCount = new AtomicInteger();
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                if (loadCount.incrementAndGet() == 1) {
+                    throw new IllegalStateException("failed.");
+                }
+                return new Object();
+            }
+        };
+
+        Future<Object> future1 = cache.getOrCreateAsync("key");
+        try {
+            future1.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Object actualValue = null;
+        for (int count = 0; actualValue == null && count < 100; count++) {
+            Future<Object> future2 = cache.getOrCreateAsync("key");
+            try {
+                actualValue = future2.get();
+            } catch (ExecutionException e) {
+                // completed load is not removed yet.
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                Thread.sleep(10);
+            }
+        }
+
+        Assert.assertNotNull(actualValue);
+        Assert.assertEquals(2, loadCount.get());
+
+    }
+
+    @Test
+    public void getOrCreateAsync_cancel() throws Exception {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            }
+        };
+
+        Future<Object> future1 = cache.getOrCreateAsync("key");
+        Future<Object> future2 = cache.getOrCreateAsync("key");
+        boolean cancelled = future1.cancel(true);
+        latch.countDown();
+
+        Assert.assertFalse(cancelled);
+        Assert.assertFalse(future1.isCancelled());
+        Assert.assertEquals("value", future1.get());
+        Assert.assertEquals("value", future2.get());
+
+    }
+
+    @Test
+    public void getOrCreateAsync_listener() throws Exception {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            }
+        };
+        Executor directExecutor = new Executor() {
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        final CountDownLatch listenerLatch = new CountDownLatch(2);
+
+        LoadFuture<Object> future1 = cache.getOrCreateAsync("key");
+        future1.addListener(new Runnable() {
+            public void run() {
+                listenerLatch.countDown();
+            }
+        }, directExecutor);
+        latch.countDown();
+        future1.get();
+        LoadFuture<Object> future2 = cache.getOrCreateAsync("key");
+        future2.addListener(new Runnable() {
+            public void run() {
+                listenerLatch.countDown();
+            }
+        }, directExecutor);
+
+        Assert.assertTrue(listenerLatch.await(5, TimeUnit.SECONDS));
+
+    }
+
+    public static class PurgeTargetCache extends CacheByKey<Object> {
+
+        @Override
+        protected Object initialValue(Object... args) {
+            return new Object();
+        }
+    }
+
 }
@@ -0,0 +1,196 @@
+package org.jichigo.utility.cache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CacheSnapshotManagerTest {
+
+    private static final String CACHE_NAME = CacheSnapshotManagerTest.class.getName();
+
+    private static final List<String> loadedKeys = Collections.synchronizedList(new ArrayList<String>());
+
+    private static final LazyCache<String> cache = new CacheByKey<String>(CACHE_NAME) {
+        @Override
+        protected String initialValue(Object... args) {
+            String key = Arrays.asList(args).toString();
+            if (key.contains("invalid")) {
+                throw new IllegalArgumentException(key);
+            }
+            loadedKeys.add(key);
+            return key;
+        }
+    };
+
+    private File snapshotDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        snapshotDirectory = File.createTempFile("cache-snapshot", "");
+        snapshotDirectory.delete();
+        cache.clear();
+        loadedKeys.clear();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = snapshotDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        snapshotDirectory.delete();
+    }
+
+    @Test
+    public void writeSnapshots_and_warmUp() throws IOException {
+
+        CacheSnapshotManager manager = newManager();
+        manager.start();
+        cache.getOrCreate("a", Locale.JAPAN);
+        for (int count = 0; count < 3; count++) {
+            cache.getOrCreate("b", Integer.valueOf(1));
+        }
+        cache.getOrCreate(String.class);
+        cache.getOrCreate(new Object());
+        manager.stop();
+
+        List<String> lines = readLines(new File(snapshotDirectory, CACHE_NAME + ".snapshot"));
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(0).startsWith("#"));
+        // load and touch in interval.
+        Assert.assertTrue(lines.get(1).startsWith("2\t"));
+
+        cache.clear();
+        loadedKeys.clear();
+        newManager().start();
+
+        Assert.assertEquals(3, loadedKeys.size());
+        Assert.assertTrue(loadedKeys.contains("[a, ja_JP]"));
+        Assert.assertTrue(loadedKeys.contains("[b, 1]"));
+        Assert.assertTrue(loadedKeys.contains("[class java.lang.String]"));
+
+    }
+
+    @Test
+    public void writeSnapshots_concurrent() throws Exception {
+
+        final CacheSnapshotManager manager = newManager();
+        manager.start();
+        cache.getOrCreate("a");
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int count = 0; count < 50; count++) {
+                        cache.getOrCreate("a");
+                        manager.writeSnapshots();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        manager.stop();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertFalse(new File(snapshotDirectory, CACHE_NAME + ".snapshot.tmp").exists());
+        List<String> lines = readLines(new File(snapshotDirectory, CACHE_NAME + ".snapshot"));
+        Assert.assertTrue(lines.get(0).startsWith("#"));
+
+    }
+
+    @Test
+    public void warmUp_decayCount() throws IOException {
+
+        snapshotDirectory.mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(snapshotDirectory, CACHE_NAME
+                + ".snapshot")), "UTF-8");
+        writer.write("# test\n");
+        writer.write("8\ts%3Afrequent\n");
+        writer.write("1\ts%3Arare\n");
+        writer.close();
+
+        CacheSnapshotManager manager = newManager();
+        manager.start();
+        manager.stop();
+
+        List<String> lines = readLines(new File(snapshotDirectory, CACHE_NAME + ".snapshot"));
+        Assert.assertEquals(2, lines.size());
+        Assert.assertEquals("4\ts%3Afrequent", lines.get(1));
+
+    }
+
+    @Test
+    public void warmUp_invalidKeys() throws IOException {
+
+        snapshotDirectory.mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(snapshotDirectory, CACHE_NAME
+                + ".snapshot")), "UTF-8");
+        writer.write("# test\n");
+        writer.write("5\ts%3Avalid\n");
+        writer.write("4\tc%3Anot.exists.Class\n");
+        writer.write("3\ts%3Ainvalid\n");
+        writer.write("x\ts%3Ainvalid-count\n");
+        writer.write("broken line\n");
+        writer.write("2\tz%3Aunknown\n");
+        writer.close();
+
+        newManager().start();
+
+        Assert.assertEquals(Arrays.asList("[valid]"), loadedKeys);
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_snapshotDirectoryIsNull() {
+
+        new CacheSnapshotManager().start();
+
+    }
+
+    private CacheSnapshotManager newManager() {
+        CacheSnapshotManager manager = new CacheSnapshotManager();
+        manager.setSnapshotDirectory(snapshotDirectory);
+        manager.setCacheNames(Arrays.asList(CACHE_NAME, "not.exists.Cache"));
+        manager.setIntervalSeconds(0);
+        manager.setWarmUpThreads(2);
+        return manager;
+    }
+
+    private List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.jichigo.utility.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jichigo.utility.event.ProfilingEvents.Type;
+import org.jichigo.utility.exception.ExceptionLogger;
+import org.jichigo.utility.regex.PatternCache;
+import org.jichigo.utility.timer.StopWatch;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfilingEventsTest {
+
+    @After
+    public void tearDown() {
+        ProfilingEvents.setListener(null);
+    }
+
+    @Test
+    public void isEnabled_notRegistered() {
+
+        for (Type type : Type.values()) {
+            Assert.assertFalse(ProfilingEvents.isEnabled(type));
+        }
+
+    }
+
+    @Test
+    public void stopWatch() {
+
+        RecordingListener listener = new RecordingListener(Type.STOP_WATCH);
+        ProfilingEvents.setListener(listener);
+
+        StopWatch stopWatch = StopWatch.newInstance("test");
+        stopWatch.start();
+        stopWatch.split();
+        stopWatch.stop();
+
+        Assert.assertEquals(3, listener.events.size());
+        Assert.assertEquals("start:test", listener.events.get(0));
+        Assert.assertEquals("split:test", listener.events.get(1));
+        Assert.assertEquals("stop:test", listener.events.get(2));
+
+    }
+
+    @Test
+    public void refresh() {
+
+        RecordingListener listener = new RecordingListener(Type.STOP_WATCH);
+        ProfilingEvents.setListener(listener);
+        Assert.assertTrue(ProfilingEvents.isEnabled(Type.STOP_WATCH));
+
+        listener.enabledType = Type.CACHE_LOAD;
+        ProfilingEvents.refresh();
+
+        Assert.assertFalse(ProfilingEvents.isEnabled(Type.STOP_WATCH));
+        Assert.assertTrue(ProfilingEvents.isEnabled(Type.CACHE_LOAD));
+
+        listener.enabledType = null;
+        ProfilingEvents.refresh();
+
+        for (Type type : Type.values()) {
+            Assert.assertFalse(ProfilingEvents.isEnabled(type));
+        }
+
+    }
+
+    @Test
+    public void cacheLoad() {
+
+        RecordingListener listener = new RecordingListener(Type.CACHE_LOAD);
+        ProfilingEvents.setListener(listener);
+
+        Pattern pattern = PatternCache.getPattern("profiling-event-[0-9]+");
+        PatternCache.getPattern("profiling-event-[0-9]+");
+
+        Assert.assertNotNull(pattern);
+        Assert.assertEquals(1, listener.events.size());
+        Assert.assertEquals("load:" + PatternCache.class.getName() + ":profiling-event-[0-9]+:true",
+                listener.events.get(0));
+
+    }
+
+    @Test
+    public void exceptionLog() {
+
+        RecordingListener listener = new RecordingListener(Type.EXCEPTION_LOG);
+        ProfilingEvents.setListener(listener);
+
+        new ExceptionLogger().error("test", new IllegalStateException("message"));
+
+        Assert.assertEquals(1, listener.events.size());
+        Assert.assertTrue(listener.events.get(0).startsWith("log:error:"));
+
+    }
+
+    @Test
+    public void disabledType() {
+
+        RecordingListener listener = new RecordingListener(Type.CACHE_LOAD);
+        ProfilingEvents.setListener(listener);
+
+        StopWatch stopWatch = StopWatch.newInstance("test");
+        stopWatch.start();
+        stopWatch.stop();
+
+        Assert.assertTrue(listener.events.isEmpty());
+        Assert.assertFalse(ProfilingEvents.isEnabled(Type.STOP_WATCH));
+
+    }
+
+    @Test
+    public void failingListener() {
+
+        ProfilingEvents.setListener(new FailingListener());
+
+        StopWatch stopWatch = StopWatch.newInstance("test");
+        stopWatch.start();
+        stopWatch.split();
+        stopWatch.stop();
+        Pattern pattern = PatternCache.getPattern("profiling-event-failing-[0-9]+");
+        new ExceptionLogger().error("test", new IllegalStateException("message"));
+
+        Assert.assertNotNull(pattern);
+        // split and stop.
+        Assert.assertEquals(2, stopWatch.getSplitCount());
+
+    }
+
+    private static class RecordingListener implements ProfilingEventListener {
+
+        private Type enabledType;
+
+        private final List<String> events = new ArrayList<String>();
+
+        private RecordingListener(Type enabledType) {
+            this.enabledType = enabledType;
+        }
+
+        public boolean isEnabled(Type type) {
+            return type == enabledType;
+        }
+
+        public void stopWatchStarted(String name) {
+            events.add("start:" + name);
+        }
+
+        public void stopWatchSplit(String name, long splitNanos) {
+            events.add("split:" + name);
+        }
+
+        public void stopWatchStopped(String name, long durationNanos) {
+            events.add("stop:" + name);
+        }
+
+        public void cacheLoaded(String cacheName, String key, long durationNanos, boolean success) {
+            events.add("load:" + cacheName + ":" + key + ":" + success);
+        }
+
+        public void exceptionLogged(String level, String message, Exception e) {
+            events.add("log:" + level + ":" + message);
+        }
+
+    }
+
+    private static class FailingListener implements ProfilingEventListener {
+
+        public boolean isEnabled(Type type) {
+            return true;
+        }
+
+        public void stopWatchStarted(String name) {
+            throw new IllegalStateException("failed.");
+        }
+
+        public void stopWatchSplit(String name, long splitNanos) {
+            throw new IllegalStateException("failed.");
+        }
+
+        public void stopWatchStopped(String name, long durationNanos) {
+            throw new IllegalStateException("failed.");
+        }
+
+        public void cacheLoaded(String cacheName, String key, long durationNanos, boolean success) {
+            throw new IllegalStateException("failed.");
+        }
+
+        public void exceptionLogged(String level, String message, Exception e) {
+            throw new IllegalStateException("failed.");
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.jichigo.utility.regex;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.bind.JAXBException;
@@ -24,6 +25,19 @@ public class PatternCacheTest {
         Assert.assertSame(pattern1, pattern2);
     }
 
+    @Test
+    public void getPattern_keyNotCollide() {
+
+        Pattern flagged = PatternCache.getPattern("abc", Pattern.CASE_INSENSITIVE);
+        Pattern literal = PatternCache.getPattern(Pattern.CASE_INSENSITIVE + ":abc");
+        Pattern prefixed = PatternCache.getPattern("\0" + Pattern.CASE_INSENSITIVE + ":abc");
+
+        Assert.assertEquals(Pattern.CASE_INSENSITIVE, flagged.flags());
+        Assert.assertEquals(0, literal.flags());
+        Assert.assertEquals(0, prefixed.flags());
+        Assert.assertNotSame(flagged, prefixed);
+    }
+
     @Test
     public void getPatternNoCache_not_exists_cache() throws JAXBException {
 
@@ -52,4 +66,116 @@ public class PatternCacheTest {
         Assert.assertNotSame(pattern1, pattern2);
     }
 
+    @Test
+    public void getPattern_flags() {
+
+        Pattern pattern1 = PatternCache.getPattern("abc", Pattern.CASE_INSENSITIVE);
+        Pattern pattern2 = PatternCache.getPattern("abc", Pattern.CASE_INSENSITIVE);
+        Pattern pattern3 = PatternCache.getPattern("abc");
+
+        Assert.assertSame(pattern1, pattern2);
+        Assert.assertNotSame(pattern1, pattern3);
+        Assert.assertSame(pattern3, PatternCache.getPattern("abc", 0));
+        Assert.assertTrue(pattern1.matcher("ABC").matches());
+        Assert.assertFalse(pattern3.matcher("ABC").matches());
+    }
+
+    @Test
+    public void getMatcher() {
+
+        RegexMatcher matcher1 = PatternCache.getMatcher(".*Exception$");
+        RegexMatcher matcher2 = PatternCache.getMatcher(".*Exception$");
+        RegexMatcher matcher3 = PatternCache.getMatcher("[0-9]+");
+
+        Assert.assertSame(matcher1, matcher2);
+        Assert.assertTrue(matcher1 instanceof LiteralRegexMatcher);
+        Assert.assertTrue(matcher3 instanceof PatternRegexMatcher);
+        Assert.assertEquals(".*Exception$", matcher1.getRegex());
+    }
+
+    @Test
+    public void getMatcher_sameAsPattern() {
+
+        String[] regexes = { "foo", "^foo", "foo$", "^foo$", "^foo.*", "foo.*$", "^foo.*$", ".*foo", "^.*foo",
+                ".*foo$", ".*foo.*", "^.*foo.*$", "a\\.b", "\\$", "abcabd" };
+        String[] inputs = { "", "foo", "xfoo", "foox", "xfoox", "foo\n", "foo\r\n", "x\nfoo", "foo\nx",
+                "\nfoo\n", "fo", "a.b", "axb", "$", "x$", "abcabcabd", "abcab", "foo\u2028", "x\u0085foo" };
+
+        for (String regex : regexes) {
+            RegexMatcher matcher = PatternCache.getMatcher(regex);
+            Assert.assertTrue(regex, matcher instanceof LiteralRegexMatcher);
+            for (String input : inputs) {
+                Pattern pattern = PatternCache.getPattern(regex);
+                Assert.assertEquals(regex + " : " + input, pattern.matcher(input).matches(), matcher.matches(input));
+                Assert.assertEquals(regex + " : " + input, pattern.matcher(input).find(), matcher.find(input));
+            }
+        }
+    }
+
+    @Test
+    public void matches_find() {
+
+        Assert.assertTrue(PatternCache.matches("[0-9]+", "123"));
+        Assert.assertFalse(PatternCache.matches("[0-9]+", "a123"));
+        Assert.assertTrue(PatternCache.find("[0-9]+", "a123"));
+        Assert.assertTrue(PatternCache.matches("^foo.*", "foobar"));
+        Assert.assertFalse(PatternCache.find("[0-9]+", "abc"));
+    }
+
+    @Test
+    public void matches_find_flags() {
+
+        Assert.assertFalse(PatternCache.matches("^foo.*", "FOOBAR"));
+        Assert.assertTrue(PatternCache.matches("^foo.*", Pattern.CASE_INSENSITIVE, "FOOBAR"));
+        Assert.assertFalse(PatternCache.find("bar", "FOOBAR"));
+        Assert.assertTrue(PatternCache.find("bar", Pattern.CASE_INSENSITIVE, "FOOBAR"));
+        Assert.assertSame(PatternCache.getMatcher("foo.*"), PatternCache.getMatcher("foo.*", 0));
+        Assert.assertNotSame(PatternCache.getMatcher("foo.*"), PatternCache.getMatcher("foo.*",
+                Pattern.CASE_INSENSITIVE));
+
+        BorrowedMatcher borrowed = PatternCache.borrowMatcher("([a-z]+)-([0-9]+)", Pattern.CASE_INSENSITIVE,
+                "ABC-123");
+        try {
+            Assert.assertTrue(borrowed.getMatcher().matches());
+            Assert.assertEquals("ABC", borrowed.getMatcher().group(1));
+        } finally {
+            borrowed.close();
+        }
+
+    }
+
+    @Test
+    public void borrowMatcher() {
+
+        BorrowedMatcher borrowed1 = PatternCache.borrowMatcher("([a-z]+)-([0-9]+)", "abc-123");
+        Matcher matcher1 = borrowed1.getMatcher();
+        Assert.assertTrue(matcher1.matches());
+        Assert.assertEquals("abc", matcher1.group(1));
+
+        // nested borrow.
+        BorrowedMatcher borrowed2 = PatternCache.borrowMatcher("([a-z]+)-([0-9]+)", "def-456");
+        Assert.assertNotSame(matcher1, borrowed2.getMatcher());
+        Assert.assertTrue(PatternCache.matches("([a-z]+)-([0-9]+)", "ghi-789"));
+        Assert.assertEquals("123", matcher1.group(2));
+        borrowed2.close();
+        borrowed1.close();
+
+        // reuse after close.
+        BorrowedMatcher borrowed3 = PatternCache.borrowMatcher("([a-z]+)-([0-9]+)", "jkl-000");
+        Assert.assertSame(matcher1, borrowed3.getMatcher());
+        Assert.assertTrue(borrowed3.getMatcher().matches());
+        Assert.assertEquals("jkl", borrowed3.getMatcher().group(1));
+        borrowed3.close();
+    }
+
+    @Test
+    public void getMatcher_notLiteral() {
+
+        String[] regexes = { "", "^.*$", "a|b", "fo+", "f.o", "[a-z]", "\\d", "(foo)", "foo.*bar" };
+
+        for (String regex : regexes) {
+            Assert.assertNull(regex, LiteralRegexMatcher.analyze(regex));
+        }
+    }
+
 }
@@ -0,0 +1,93 @@
+package org.jichigo.utility.regex;
+
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegexGuardTest {
+
+    @Test
+    public void matches() {
+
+        RegexGuard guard = new RegexGuard();
+
+        Assert.assertTrue(guard.matches("([a-z]+)-([0-9]+)", "abc-123"));
+        Assert.assertFalse(guard.matches("([a-z]+)-([0-9]+)", "abc-"));
+        Assert.assertTrue(guard.find("[0-9]+", "abc-123"));
+
+    }
+
+    @Test
+    public void matches_flags() {
+
+        RegexGuard guard = new RegexGuard();
+
+        Assert.assertFalse(guard.matches("([a-z]+)-([0-9]+)", "ABC-123"));
+        Assert.assertTrue(guard.matches("([a-z]+)-([0-9]+)", Pattern.CASE_INSENSITIVE, "ABC-123"));
+        Assert.assertTrue(guard.find("abc", Pattern.CASE_INSENSITIVE, "ABC-123"));
+
+    }
+
+    @Test
+    public void matches_maxSteps() {
+
+        RegexGuard guard = new RegexGuard();
+        guard.setMaxSteps(10000);
+        guard.setTimeoutMillis(0);
+        StringBuilder input = new StringBuilder();
+        for (int count = 0; count < 30; count++) {
+            input.append('a');
+        }
+        input.append('!');
+
+        try {
+            guard.matches("(a+)+", input);
+            Assert.fail();
+        } catch (RegexLimitExceededException e) {
+            Assert.assertEquals("(a+)+", e.getRegex());
+            Assert.assertEquals(10001, e.getSteps());
+        }
+
+        // matcher is returned after abort.
+        Assert.assertTrue(guard.matches("(a+)+", "aaa"));
+
+    }
+
+    @Test
+    public void matches_timeout() {
+
+        RegexGuard guard = new RegexGuard();
+        guard.setMaxSteps(Long.MAX_VALUE);
+        guard.setTimeoutMillis(50);
+        StringBuilder input = new StringBuilder();
+        for (int count = 0; count < 40; count++) {
+            input.append('a');
+        }
+        input.append('!');
+
+        try {
+            guard.matches("(a|aa)+", input);
+            Assert.fail();
+        } catch (RegexLimitExceededException e) {
+            Assert.assertTrue(e.getElapsedNanos() >= 50000000L);
+        }
+
+    }
+
+    @Test
+    public void hasNestedQuantifier() {
+
+        Assert.assertTrue(BacktrackingAnalyzer.hasNestedQuantifier("(a+)+"));
+        Assert.assertTrue(BacktrackingAnalyzer.hasNestedQuantifier("^(\\w+\\s?)*$"));
+        Assert.assertTrue(BacktrackingAnalyzer.hasNestedQuantifier("((ab)*c)+"));
+        Assert.assertTrue(BacktrackingAnalyzer.hasNestedQuantifier("(x{2,})+"));
+        Assert.assertFalse(BacktrackingAnalyzer.hasNestedQuantifier("(ab)+c*"));
+        Assert.assertFalse(BacktrackingAnalyzer.hasNestedQuantifier("[(a+)]+"));
+        Assert.assertFalse(BacktrackingAnalyzer.hasNestedQuantifier("(a+)?b"));
+        Assert.assertFalse(BacktrackingAnalyzer.hasNestedQuantifier("\\(a+\\)+"));
+        Assert.assertFalse(BacktrackingAnalyzer.hasNestedQuantifier("(a{1})+"));
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.jichigo.utility.regex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegexSetTest {
+
+    @Before
+    public void setup() {
+        RegexSet.clearCache();
+    }
+
+    @Test
+    public void getRegexSet() {
+
+        RegexSet regexSet1 = RegexSet.getRegexSet("a_b", "c");
+        RegexSet regexSet2 = RegexSet.getRegexSet(Arrays.asList("a_b", "c"));
+        RegexSet regexSet3 = RegexSet.getRegexSet("a", "b_c");
+
+        Assert.assertSame(regexSet1, regexSet2);
+        Assert.assertNotSame(regexSet1, regexSet3);
+        Assert.assertEquals(2, regexSet1.size());
+        Assert.assertSame(PatternCache.getPattern("a_b"), regexSet1.getPattern(0));
+
+    }
+
+    @Test
+    public void matches() {
+
+        RegexSet regexSet = RegexSet.getRegexSet(".*Controller", "org\\.jichigo\\..*", "[a-z.]+", ".*(Rest|Api).*",
+                "com\\.example\\..*Controller");
+
+        BitSet matched = regexSet.matches("org.jichigo.sample.HomeController");
+
+        Assert.assertEquals("{0, 1}", matched.toString());
+        Assert.assertEquals("{0, 3, 4}", regexSet.matches("com.example.RestController").toString());
+        Assert.assertEquals("{2}", regexSet.matches("org.jichigo").toString());
+        Assert.assertTrue(regexSet.matches("").isEmpty());
+
+    }
+
+    @Test
+    public void matches_sameAsPattern() {
+
+        String[] regexes = { "ab+c", "x?yz", "a\\.b", "(foo)?bar", "q{2}r", "[xy]z", "\u3042\u3044.*", "\\d+-\\d+",
+                "a|b", "(?i)hello", "\\x41BC", "\\x{41}BC", "\\u0041BC", "\\0101BC", "\\0400", "\\cAxyz",
+                "(?<n>a)\\k<n>", "\\p{Lu}BC", "\\pLBC", "(a)\\1BC" };
+        String[] inputs = { "abbc", "ac", "yz", "xyz", "a.b", "axb", "bar", "foobar", "qqr", "qr", "xz",
+                "\u3042\u3044\u3046", "12-34", "a", "b", "HELLO", "", "ABC", "41BC", "0041BC", "0101BC", "\u00200",
+                "\u0001xyz", "cAxyz", "aa", "k<n>", "aaBC", "1BC" };
+        RegexSet regexSet = RegexSet.getRegexSet(regexes);
+
+        for (String input : inputs) {
+            BitSet matched = regexSet.matches(input);
+            BitSet found = regexSet.find(input);
+            for (int index = 0; index < regexes.length; index++) {
+                Assert.assertEquals(regexes[index] + " : " + input,
+                        PatternCache.getPattern(regexes[index]).matcher(input).matches(), matched.get(index));
+                Assert.assertEquals(regexes[index] + " : " + input,
+                        PatternCache.getPattern(regexes[index]).matcher(input).find(), found.get(index));
+            }
+            Assert.assertEquals(!matched.isEmpty(), regexSet.matchesAny(input));
+        }
+
+    }
+
+    @Test
+    public void extractRequiredLiteral() {
+
+        Assert.assertEquals("Controller", RegexSet.extractRequiredLiteral(".*Controller"));
+        Assert.assertEquals("org.jichigo.", RegexSet.extractRequiredLiteral("org\\.jichigo\\..*"));
+        Assert.assertEquals("ab", RegexSet.extractRequiredLiteral("ab+c"));
+        Assert.assertEquals("bar", RegexSet.extractRequiredLiteral("(foo)?bar"));
+        Assert.assertEquals("yz", RegexSet.extractRequiredLiteral("x?yz"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("a|b"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("(?i)hello"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("[a-z]+"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("\\Qa.b\\E"));
+        Assert.assertEquals("BC", RegexSet.extractRequiredLiteral("\\x41BC"));
+        Assert.assertEquals("BC", RegexSet.extractRequiredLiteral("\\u0041BC"));
+        Assert.assertEquals("BC", RegexSet.extractRequiredLiteral("\\0101BC"));
+        Assert.assertEquals("xyz", RegexSet.extractRequiredLiteral("\\cAxyz"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("(?<n>a)\\k<n>"));
+        Assert.assertNull(RegexSet.extractRequiredLiteral("\\x4"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getRegexSet_null() {
+
+        RegexSet.getRegexSet("a", null);
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.jichigo.utility.timer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void indexOf_bounds() {
+
+        long[] values = { 0, 1, 31, 32, 33, 63, 64, 65, 1000, 123456789, Long.MAX_VALUE };
+
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            Assert.assertTrue(LatencyHistogram.lowerBoundOf(index) <= value);
+            Assert.assertTrue(value <= LatencyHistogram.upperBoundOf(index));
+        }
+
+    }
+
+    @Test
+    public void getValueAtPercentile() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        Assert.assertEquals(1000, histogram.getTotalCount());
+        Assert.assertEquals(1000000, histogram.getMaxValue());
+        Assert.assertEquals(500500.0, histogram.getMean(), 0.001);
+        assertWithinError(500000, histogram.getValueAtPercentile(50));
+        assertWithinError(990000, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+
+    }
+
+    @Test
+    public void getValueAtPercentile_empty() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(0.0, histogram.getMean(), 0.0);
+
+    }
+
+    @Test
+    public void add() {
+
+        LatencyHistogram histogram1 = new LatencyHistogram();
+        LatencyHistogram histogram2 = new LatencyHistogram();
+        histogram1.record(10);
+        histogram2.record(20);
+        histogram2.record(30);
+
+        histogram1.add(histogram2);
+
+        Assert.assertEquals(3, histogram1.getTotalCount());
+        Assert.assertEquals(30, histogram1.getMaxValue());
+        Assert.assertEquals(20, histogram1.getValueAtPercentile(50));
+
+    }
+
+    @Test
+    public void reset() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+
+        histogram.reset();
+
+        Assert.assertEquals(0, histogram.getTotalCount());
+        Assert.assertEquals(0, histogram.getMaxValue());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+
+    }
+
+    private void assertWithinError(long expected, long actual) {
+        Assert.assertTrue("expected " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 30);
+    }
+
+}
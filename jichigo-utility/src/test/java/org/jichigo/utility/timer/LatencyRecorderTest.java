@@ -0,0 +1,71 @@
+package org.jichigo.utility.timer;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyRecorderTest {
+
+    @Test
+    public void takeIntervalSnapshot() {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(10);
+        recorder.record(20);
+
+        LatencyHistogram interval1 = recorder.takeIntervalSnapshot();
+        Assert.assertEquals(2, interval1.getTotalCount());
+        Assert.assertEquals(20, interval1.getMaxValue());
+
+        recorder.record(30);
+
+        LatencyHistogram interval2 = recorder.takeIntervalSnapshot();
+        Assert.assertEquals(1, interval2.getTotalCount());
+        Assert.assertEquals(30, interval2.getMaxValue());
+        Assert.assertEquals(3, recorder.getTotalHistogram().getTotalCount());
+
+    }
+
+    @Test
+    public void takeIntervalSnapshot_empty() {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        LatencyHistogram interval = recorder.takeIntervalSnapshot();
+        Assert.assertEquals(0, interval.getTotalCount());
+        Assert.assertEquals(0, recorder.getTotalHistogram().getTotalCount());
+
+    }
+
+    @Test
+    public void takeIntervalSnapshot_concurrentRecord() throws InterruptedException {
+
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final int threadCount = 4;
+        final int recordCount = 100000;
+        final CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int index = 0; index < threadCount; index++) {
+            new Thread() {
+                public void run() {
+                    for (int count = 0; count < recordCount; count++) {
+                        recorder.record(count);
+                    }
+                    endLatch.countDown();
+                }
+            }.start();
+        }
+
+        boolean ended = false;
+        long snapshotCount = 0;
+        while (!ended) {
+            ended = endLatch.getCount() == 0;
+            snapshotCount += recorder.takeIntervalSnapshot().getTotalCount();
+        }
+
+        Assert.assertEquals(threadCount * recordCount, snapshotCount);
+        Assert.assertEquals(threadCount * recordCount, recorder.getTotalHistogram().getTotalCount());
+
+    }
+
+}
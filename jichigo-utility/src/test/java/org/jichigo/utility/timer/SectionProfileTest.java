@@ -0,0 +1,155 @@
+package org.jichigo.utility.timer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SectionProfileTest {
+
+    @Before
+    public void setUp() {
+        SectionProfile.reset();
+    }
+
+    @Test
+    public void section_nested() {
+
+        for (int i = 0; i < 3; i++) {
+            Section controller = StopWatch.section("controller");
+            try {
+                Section service = StopWatch.section("service");
+                try {
+                    StopWatch.section("dao").close();
+                    StopWatch.section("dao").close();
+                } finally {
+                    service.close();
+                }
+            } finally {
+                controller.close();
+            }
+        }
+
+        SectionNode root = SectionProfile.snapshot();
+        SectionNode controller = root.getChildren().get(0);
+        Assert.assertEquals("controller", controller.getName());
+        Assert.assertEquals(3, controller.getCount());
+        SectionNode service = controller.getChildren().get(0);
+        Assert.assertEquals(3, service.getCount());
+        SectionNode dao = service.getChildren().get(0);
+        Assert.assertEquals("dao", dao.getName());
+        Assert.assertEquals(6, dao.getCount());
+        Assert.assertTrue(dao.getMinTime() <= dao.getMaxTime());
+        Assert.assertTrue(dao.getTotalTime() <= service.getTotalTime());
+
+    }
+
+    @Test
+    public void section_closeOuterFirst() {
+
+        Section outer = StopWatch.section("outer");
+        Section inner = StopWatch.section("inner");
+        outer.close();
+        inner.close();
+
+        SectionNode outerNode = SectionProfile.snapshot().getChildren().get(0);
+        Assert.assertEquals(1, outerNode.getCount());
+        Assert.assertEquals(1, outerNode.getChildren().get(0).getCount());
+
+    }
+
+    @Test
+    public void section_closeTwice() {
+
+        Section first = StopWatch.section("first");
+        first.close();
+        Section second = StopWatch.section("second");
+        first.close();
+        StopWatch.section("inner").close();
+        second.close();
+
+        List<SectionNode> children = SectionProfile.snapshot().getChildren();
+        Assert.assertEquals(2, children.size());
+        Assert.assertEquals(1, children.get(0).getCount());
+        SectionNode secondNode = children.get(1);
+        Assert.assertEquals("second", secondNode.getName());
+        Assert.assertEquals(1, secondNode.getCount());
+        Assert.assertEquals("inner", secondNode.getChildren().get(0).getName());
+
+    }
+
+    @Test
+    public void snapshot_mergeThreads() throws InterruptedException {
+
+        Runnable task = new Runnable() {
+            public void run() {
+                StopWatch.section("task").close();
+            }
+        };
+        Thread thread1 = new Thread(task);
+        Thread thread2 = new Thread(task);
+        thread1.start();
+        thread2.start();
+        thread1.join();
+        thread2.join();
+        task.run();
+
+        List<SectionNode> children = SectionProfile.snapshot().getChildren();
+        Assert.assertEquals(1, children.size());
+        Assert.assertEquals(3, children.get(0).getCount());
+
+    }
+
+    @Test
+    public void reset() {
+
+        StopWatch.section("before").close();
+
+        SectionProfile.reset();
+        StopWatch.section("after").close();
+
+        List<SectionNode> children = SectionProfile.snapshot().getChildren();
+        Assert.assertEquals(1, children.size());
+        Assert.assertEquals("after", children.get(0).getName());
+
+    }
+
+    @Test
+    public void purge() {
+
+        StopWatch.section("before").close();
+
+        SectionProfile.purge();
+        Assert.assertTrue(SectionProfile.snapshot().getChildren().isEmpty());
+        StopWatch.section("after").close();
+
+        List<SectionNode> children = SectionProfile.snapshot().getChildren();
+        Assert.assertEquals(1, children.size());
+        Assert.assertEquals("after", children.get(0).getName());
+
+    }
+
+    @Test
+    public void print() {
+
+        StopWatch stopWatch = StopWatch.newSingleOwnerInstance("test");
+        stopWatch.start();
+        Section section = StopWatch.section("service");
+        StopWatch.section("dao").close();
+        section.close();
+        stopWatch.stop();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stopWatch.print(new SectionTreePrinter(new PrintStream(out)));
+
+        String printed = out.toString();
+        Assert.assertTrue(printed.contains("name : test"));
+        Assert.assertTrue(printed.contains("service : 1 / "));
+        Assert.assertTrue(printed.contains("  dao : 1 / "));
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.jichigo.utility.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StopWatchRegistryTest {
+
+    @Test
+    public void newStopWatch() {
+
+        StopWatchRegistry registry = new StopWatchRegistry(2);
+
+        for (int count = 0; count < 3; count++) {
+            StopWatch stopWatch = registry.newStopWatch("test");
+            stopWatch.start();
+            stopWatch.stop();
+        }
+
+        Assert.assertArrayEquals(new String[] { "test" }, registry.getNames());
+        Assert.assertEquals(3, registry.count("test"));
+        Assert.assertEquals(4, registry.percentilesMillis("test").length);
+
+    }
+
+    @Test
+    public void clear() {
+
+        StopWatchRegistry registry = new StopWatchRegistry(1);
+        StopWatch stopWatch = registry.newStopWatch("test");
+        stopWatch.start();
+        stopWatch.stop();
+
+        registry.clear();
+        Assert.assertEquals(0, registry.count("test"));
+
+        stopWatch.clear();
+        stopWatch.start();
+        stopWatch.stop();
+
+        Assert.assertEquals(1, registry.count("test"));
+        Assert.assertEquals(1, registry.takeIntervalSnapshots().get("test").getTotalCount());
+
+    }
+
+    @Test
+    public void record_multiThread() throws InterruptedException {
+
+        final StopWatchRegistry registry = new StopWatchRegistry(4);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int index = 0; index < 8; index++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int count = 0; count < 1000; count++) {
+                        registry.record("test", 100);
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(8000, registry.getSnapshot("test").getTotalCount());
+        Assert.assertEquals(100, registry.getSnapshot("test").getMaxValue());
+
+    }
+
+    @Test
+    public void takeIntervalSnapshots() {
+
+        StopWatchRegistry registry = new StopWatchRegistry();
+        registry.record("b", 20);
+        registry.record("a", 10);
+
+        Map<String, LatencyHistogram> snapshots = registry.takeIntervalSnapshots();
+
+        Assert.assertArrayEquals(new String[] { "a", "b" }, snapshots.keySet().toArray());
+        Assert.assertEquals(1, snapshots.get("a").getTotalCount());
+
+        registry.record("a", 30);
+
+        Assert.assertEquals(1, registry.takeIntervalSnapshots().get("a").getTotalCount());
+        Assert.assertEquals(0, registry.takeIntervalSnapshots().get("b").getTotalCount());
+        Assert.assertEquals(2, registry.getSnapshot("a").getTotalCount());
+
+    }
+
+    @Test
+    public void print() {
+
+        StopWatchRegistry registry = new StopWatchRegistry();
+        registry.record("test", 1000000);
+        final List<String> printed = new ArrayList<String>();
+
+        registry.print(new StopWatchRegistryPrinter() {
+            public void print(String name, LatencyHistogram histogram) {
+                printed.add(name + ":" + histogram.getTotalCount());
+            }
+        });
+        registry.print(new Slf4jStopWatchRegistryPrinter());
+
+        Assert.assertEquals(1, printed.size());
+        Assert.assertEquals("test:1", printed.get(0));
+
+    }
+
+    @Test
+    public void getSnapshot_notRegistered() {
+
+        StopWatchRegistry registry = new StopWatchRegistry();
+
+        Assert.assertEquals(0, registry.getSnapshot("none").getTotalCount());
+        Assert.assertEquals(0, registry.percentilesMillis("none").length);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_invalidStripeCount() {
+
+        new StopWatchRegistry(0);
+
+    }
+
+}
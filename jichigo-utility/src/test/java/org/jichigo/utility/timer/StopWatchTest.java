@@ -0,0 +1,97 @@
+package org.jichigo.utility.timer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StopWatchTest {
+
+    @Test
+    public void split() {
+
+        StopWatch[] stopWatches = { StopWatch.newInstance("sync"), StopWatch.newSingleOwnerInstance("single"),
+                StopWatch.newConcurrentInstance("concurrent") };
+
+        for (StopWatch stopWatch : stopWatches) {
+            stopWatch.start();
+            for (int i = 0; i < 20; i++) {
+                stopWatch.split();
+            }
+            stopWatch.stop();
+
+            Assert.assertEquals(21, stopWatch.getSplitCount());
+            long total = 0;
+            for (int i = 0; i < stopWatch.getSplitCount(); i++) {
+                total += stopWatch.getSplitTime(i);
+            }
+            Assert.assertEquals(stopWatch.getPassedTime(), total);
+            Assert.assertEquals(21, stopWatch.getFormatSplitTimeList().size());
+
+            stopWatch.clear();
+            Assert.assertEquals(0, stopWatch.getSplitCount());
+            Assert.assertEquals(0, stopWatch.getPassedTime());
+        }
+
+    }
+
+    @Test
+    public void getFormatSplitTimeList_concurrentClear() throws Exception {
+
+        StopWatch[] stopWatches = { StopWatch.newInstance("sync"), StopWatch.newConcurrentInstance("concurrent") };
+
+        for (final StopWatch stopWatch : stopWatches) {
+            final Thread writer = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 2000; i++) {
+                        stopWatch.start();
+                        for (int j = 0; j < 10; j++) {
+                            stopWatch.split();
+                        }
+                        stopWatch.stop();
+                        stopWatch.clear();
+                    }
+                }
+            };
+            writer.start();
+            while (writer.isAlive()) {
+                Assert.assertTrue(stopWatch.getFormatSplitTimeList().size() <= 11);
+            }
+            writer.join();
+        }
+
+    }
+
+    @Test
+    public void getFormatPassedTime() {
+
+        Assert.assertEquals("0.000000000", StopWatch.appendFormatted(new StringBuilder(), 0).toString());
+        Assert.assertEquals("0.000000123", StopWatch.appendFormatted(new StringBuilder(), 123).toString());
+        Assert.assertEquals("1.123456789", StopWatch.appendFormatted(new StringBuilder(), 1123456789).toString());
+        Assert.assertEquals("12.100000000", StopWatch.appendFormatted(new StringBuilder(), 12100000000L).toString());
+
+    }
+
+    @Test
+    public void print() {
+
+        StopWatch stopWatch = StopWatch.newSingleOwnerInstance("test");
+        stopWatch.start();
+        stopWatch.split();
+        stopWatch.stop();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stopWatch.print(new StopWatch.DefaultStopWatchPrinter(new PrintStream(out)));
+
+        String printed = out.toString();
+        Assert.assertTrue(printed.contains("name : test"));
+        List<String> splitTimes = stopWatch.getFormatSplitTimeList();
+        Assert.assertTrue(printed.contains("1 : " + splitTimes.get(0)));
+        Assert.assertTrue(printed.contains("2 : " + splitTimes.get(1)));
+
+    }
+
+}
@@ -1,57 +1,179 @@
 package org.jichigo.web.base.util;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+
+import org.jichigo.utility.cache.BoundedCache;
 
 public class AcceptMimeTypeMatcher {
-    private static final Pattern ACCEPT_ENTRY_SPLIT_PATTERN = Pattern.compile(",");
-    private static final Pattern TYPE_PARAMETER_SPLIT_PATTERN = Pattern.compile(";");
-    private static final Pattern MIME_TYPE_SPLIT_PATTERN = Pattern.compile("/");
     private static final String WILD_CARD_CHAR = "*";
+    private static final int MAX_CACHE_SIZE = 64;
+    private static final int NO_MATCH = 0;
+    private static final int MATCH_ALL_TYPE = 1;
+    private static final int MATCH_TYPE = 2;
+    private static final int MATCH_SUBTYPE = 3;
+
+    private volatile MimeType[] targetMimeTypes = new MimeType[0];
 
-    private List<MimeType> targetMimeTypes;
+    private volatile BoundedCache<String, Boolean> matchResultCache = new BoundedCache<String, Boolean>(MAX_CACHE_SIZE);
 
     public void setTargetAcceptMimeTypes(List<String> targetAcceptMimeTypes) {
         List<MimeType> list = new ArrayList<MimeType>();
         for (String targetAcceptMimeType : targetAcceptMimeTypes) {
             list.add(new MimeType(targetAcceptMimeType));
         }
-        this.targetMimeTypes = list;
+        this.targetMimeTypes = list.toArray(new MimeType[list.size()]);
+        this.matchResultCache = new BoundedCache<String, Boolean>(MAX_CACHE_SIZE);
     }
 
     public boolean matches(String accept) {
-        if (targetMimeTypes == null || targetMimeTypes.isEmpty()) {
+        MimeType[] mimeTypes = targetMimeTypes;
+        if (mimeTypes.length == 0) {
             return true;
         }
-        List<String> acceptEntries = Arrays.asList(ACCEPT_ENTRY_SPLIT_PATTERN.split(accept));
-        for (MimeType targetMimeType : targetMimeTypes) {
-            for (String acceptEntry : acceptEntries) {
-                MimeType acceptMimeType = new MimeType(acceptEntry);
-                boolean typeMatch = WILD_CARD_CHAR.equals(acceptMimeType.getType())
-                        || acceptMimeType.getType().equals(targetMimeType.getType());
-                boolean subTypeMatch = WILD_CARD_CHAR.equals(acceptMimeType.getSubType())
-                        || acceptMimeType.getSubType().equals(targetMimeType.getSubType());
-                if (typeMatch && subTypeMatch) {
-                    return true;
+        BoundedCache<String, Boolean> cache = matchResultCache;
+        Boolean cachedResult = cache.get(accept);
+        if (cachedResult != null) {
+            return cachedResult.booleanValue();
+        }
+        boolean match = false;
+        for (MimeType targetMimeType : mimeTypes) {
+            if (isAcceptable(accept, targetMimeType)) {
+                match = true;
+                break;
+            }
+        }
+        cache.putIfAbsent(accept, Boolean.valueOf(match));
+        return match;
+    }
+
+    int getMatchResultCacheSize() {
+        return matchResultCache.size();
+    }
+
+    // target is acceptable if quality value of the most specific matched media range is not 0.
+    private boolean isAcceptable(String accept, MimeType targetMimeType) {
+        int bestSpecificity = NO_MATCH;
+        boolean bestAcceptable = false;
+        int length = accept.length();
+        int index = 0;
+        while (index < length) {
+            // media range.
+            int typeStart = skipWhitespace(accept, index, length);
+            int typeEnd = typeStart;
+            while (typeEnd < length && !isDelimiter(accept.charAt(typeEnd), '/')) {
+                typeEnd++;
+            }
+            int subTypeStart = typeEnd;
+            int subTypeEnd = typeEnd;
+            if (typeEnd < length && accept.charAt(typeEnd) == '/') {
+                subTypeStart = skipWhitespace(accept, typeEnd + 1, length);
+                subTypeEnd = subTypeStart;
+                while (subTypeEnd < length && !isDelimiter(accept.charAt(subTypeEnd), ';')) {
+                    subTypeEnd++;
+                }
+            }
+            // parameters.
+            index = subTypeEnd;
+            boolean acceptable = true;
+            while (index < length && accept.charAt(index) != ',') {
+                char c = accept.charAt(index);
+                if (c == ';') {
+                    int nameIndex = skipWhitespace(accept, index + 1, length);
+                    if (nameIndex < length && (accept.charAt(nameIndex) == 'q' || accept.charAt(nameIndex) == 'Q')) {
+                        int equalIndex = skipWhitespace(accept, nameIndex + 1, length);
+                        if (equalIndex < length && accept.charAt(equalIndex) == '=') {
+                            acceptable = !isZeroQuality(accept, skipWhitespace(accept, equalIndex + 1, length), length);
+                        }
+                    }
                 }
+                index++;
+            }
+            index++;
+            int specificity = specificityOf(accept, typeStart, typeEnd, subTypeStart, subTypeEnd, targetMimeType);
+            if (bestSpecificity < specificity) {
+                bestSpecificity = specificity;
+                bestAcceptable = acceptable;
+            } else if (bestSpecificity == specificity && specificity != NO_MATCH) {
+                bestAcceptable |= acceptable;
             }
         }
-        return false;
+        return bestAcceptable;
+    }
+
+    private int specificityOf(String accept, int typeStart, int typeEnd, int subTypeStart, int subTypeEnd,
+            MimeType targetMimeType) {
+        if (typeEnd == typeStart) {
+            return NO_MATCH;
+        }
+        boolean wildCardType = regionEquals(accept, typeStart, typeEnd, WILD_CARD_CHAR);
+        if (subTypeEnd == subTypeStart) {
+            // tolerate "*" sent by some clients as "*/*".
+            return wildCardType ? MATCH_ALL_TYPE : NO_MATCH;
+        }
+        boolean wildCardSubType = regionEquals(accept, subTypeStart, subTypeEnd, WILD_CARD_CHAR);
+        if (wildCardType) {
+            return wildCardSubType || regionEquals(accept, subTypeStart, subTypeEnd, targetMimeType.getSubType())
+                    ? MATCH_ALL_TYPE : NO_MATCH;
+        }
+        if (!regionEquals(accept, typeStart, typeEnd, targetMimeType.getType())) {
+            return NO_MATCH;
+        }
+        if (wildCardSubType) {
+            return MATCH_TYPE;
+        }
+        if (!regionEquals(accept, subTypeStart, subTypeEnd, targetMimeType.getSubType())) {
+            return NO_MATCH;
+        }
+        return MATCH_SUBTYPE;
+    }
+
+    private static boolean isZeroQuality(String accept, int valueStart, int length) {
+        if (valueStart >= length || accept.charAt(valueStart) != '0') {
+            return false;
+        }
+        int index = valueStart + 1;
+        if (index < length && accept.charAt(index) == '.') {
+            index++;
+            while (index < length && accept.charAt(index) >= '0' && accept.charAt(index) <= '9') {
+                if (accept.charAt(index) != '0') {
+                    return false;
+                }
+                index++;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(String accept, int start, int end, String value) {
+        return end - start == value.length() && accept.regionMatches(true, start, value, 0, value.length());
+    }
+
+    private static boolean isDelimiter(char c, char delimiter) {
+        return c == delimiter || c == ',' || c == ';' || c == ' ' || c == '\t';
+    }
+
+    private static int skipWhitespace(String accept, int index, int length) {
+        int current = index;
+        while (current < length && (accept.charAt(current) == ' ' || accept.charAt(current) == '\t')) {
+            current++;
+        }
+        return current;
     }
 
     private class MimeType {
-        private static final int SPLIT_INDEX_OF_TYPE = 0;
-        private static final int SPLIT_INDEX_OF_SUBTYPE = 1;
         private String type;
         private String subType;
 
-        private MimeType(String acceptEntry) {
-            String mimeType = TYPE_PARAMETER_SPLIT_PATTERN.split(acceptEntry)[0];
-            String[] mimeTypeSplitValues = MIME_TYPE_SPLIT_PATTERN.split(mimeType);
-            this.type = mimeTypeSplitValues[SPLIT_INDEX_OF_TYPE];
-            this.subType = mimeTypeSplitValues[SPLIT_INDEX_OF_SUBTYPE];
+        private MimeType(String mimeType) {
+            int parameterIndex = mimeType.indexOf(';');
+            String typeAndSubType = (parameterIndex < 0 ? mimeType : mimeType.substring(0, parameterIndex)).trim();
+            int slashIndex = typeAndSubType.indexOf('/');
+            if (slashIndex < 0) {
+                throw new IllegalArgumentException("invalid mime type. mime type is [" + mimeType + "].");
+            }
+            this.type = typeAndSubType.substring(0, slashIndex).trim();
+            this.subType = typeAndSubType.substring(slashIndex + 1).trim();
         }
 
         private String getType() {
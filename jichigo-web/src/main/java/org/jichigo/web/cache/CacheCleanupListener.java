@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.cache;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.jichigo.utility.cache.CacheByKey;
+import org.jichigo.utility.timer.SectionProfile;
+import org.jichigo.web.base.support.ServletContextEventListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener class for purge cache entries of web application on undeploy.
+ * <p>
+ * on context destroyed, entries held for class loader of web application are removed from all
+ * {@link CacheByKey} (e.g. JAXBContextCache), so shared library does not retain class loader after redeploy.<br>
+ * if jichigo library is deployed in web application, all entries of its caches are removed, and default async load
+ * executor of {@link CacheByKey} is shut down, so its threads do not outlive web application.<br>
+ * if jichigo library is deployed in web application, {@link SectionProfile} is purged too.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ * @see {@link org.slf4j.Logger} Using logger.
+ * @see {@link org.slf4j.LoggerFactory} Using logger.
+ */
+public class CacheCleanupListener extends ServletContextEventListenerSupport implements ServletContextListener {
+
+    /**
+     * Logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CacheCleanupListener.class);
+
+    /**
+     * Do nothing on initialized.
+     * 
+     * @param event servlet context event.
+     */
+    @Override
+    public void contextInitialized(final ServletContextEvent event) {
+        // do nothing.
+    }
+
+    /**
+     * Purge cache entries of web application.
+     * 
+     * @param event servlet context event.
+     */
+    @Override
+    public void contextDestroyed(final ServletContextEvent event) {
+        ClassLoader classLoader = event.getServletContext().getClassLoader();
+        if (classLoader == null) {
+            classLoader = Thread.currentThread().getContextClassLoader();
+        }
+        CacheByKey.purgeClassLoader(classLoader);
+        if (SectionProfile.class.getClassLoader() == classLoader) {
+            SectionProfile.purge();
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("servlet context [{}] cache entries purged. class loader [{}].",
+                    array(event.getServletContext().getContextPath(), classLoader));
+        }
+    }
+
+}
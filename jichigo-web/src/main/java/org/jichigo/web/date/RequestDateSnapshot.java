@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.date;
+
+import java.util.Date;
+
+import javax.servlet.ServletRequest;
+
+import org.jichigo.date.DateProvider;
+import org.jichigo.date.EpochMillisProvider;
+
+/**
+ * Request scoped snapshot of date.
+ * <p>
+ * date is provided lazily on first get, and same date is returned until end of request.<br>
+ * this class's instance is thread safe. (for async dispatch)
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class RequestDateSnapshot {
+
+    /**
+     * Request attribute name of snapshot.
+     */
+    public static final String ATTRIBUTE_NAME = RequestDateSnapshot.class.getName();
+
+    /**
+     * Snapshot bound to current thread.
+     */
+    private static final ThreadLocal<RequestDateSnapshot> currentSnapshot = new ThreadLocal<RequestDateSnapshot>();
+
+    /**
+     * Date provider.
+     */
+    private final DateProvider dateProvider;
+
+    /**
+     * Snapshot time millis.
+     */
+    private long snapshotMillis;
+
+    /**
+     * Resolved flag.
+     */
+    private boolean resolved;
+
+    /**
+     * Constructor.
+     * 
+     * @param dateProvider date provider.
+     */
+    public RequestDateSnapshot(final DateProvider dateProvider) {
+        super();
+        this.dateProvider = dateProvider;
+    }
+
+    /**
+     * Get snapshot of request.
+     * 
+     * @param request servlet request.
+     * @return snapshot. if not exists, null.
+     */
+    public static RequestDateSnapshot get(final ServletRequest request) {
+        return (RequestDateSnapshot) request.getAttribute(ATTRIBUTE_NAME);
+    }
+
+    /**
+     * Get snapshot bound to current thread.
+     * 
+     * @return snapshot. if not bound, null.
+     */
+    public static RequestDateSnapshot current() {
+        return currentSnapshot.get();
+    }
+
+    /**
+     * Bind snapshot to current thread.
+     * 
+     * @param snapshot snapshot. if null, unbind.
+     * @return previous bound snapshot.
+     */
+    static RequestDateSnapshot bind(final RequestDateSnapshot snapshot) {
+        final RequestDateSnapshot previousSnapshot = currentSnapshot.get();
+        if (snapshot == null) {
+            currentSnapshot.remove();
+        } else {
+            currentSnapshot.set(snapshot);
+        }
+        return previousSnapshot;
+    }
+
+    /**
+     * Get date of snapshot.
+     * <p>
+     * if not resolved, provide date by date provider.
+     * </p>
+     * 
+     * @return copy of snapshot date.
+     */
+    public Date getDate() {
+        return new Date(getTime());
+    }
+
+    /**
+     * Get time millis of snapshot.
+     * <p>
+     * if not resolved, provide date by date provider.
+     * </p>
+     * 
+     * @return snapshot time millis.
+     */
+    public synchronized long getTime() {
+        if (!resolved) {
+            if (dateProvider instanceof EpochMillisProvider) {
+                snapshotMillis = ((EpochMillisProvider) dateProvider).provideEpochMillis();
+            } else {
+                snapshotMillis = dateProvider.provide().getTime();
+            }
+            resolved = true;
+        }
+        return snapshotMillis;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.date;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.jichigo.date.DateProvider;
+import org.jichigo.web.base.support.FilterSupport;
+
+/**
+ * Filter class for take snapshot of date per request.
+ * <p>
+ * date provider is called once per request, lazily on first use by {@link RequestDateSnapshotProvider}.<br>
+ * snapshot is held in request attribute, and bound to current thread on each dispatch.<br>
+ * if use async servlet, please map this filter with async-supported and ASYNC dispatcher. async dispatch uses the
+ * snapshot of original request.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class RequestDateSnapshotFilter extends FilterSupport implements Filter {
+
+    /**
+     * Date provider.
+     */
+    private DateProvider dateProvider;
+
+    /**
+     * Inject date provider.
+     * 
+     * @param dateProvider date provider for take snapshot.
+     */
+    public void setDateProvider(final DateProvider dateProvider) {
+        this.dateProvider = dateProvider;
+    }
+
+    /**
+     * Check setting.
+     * 
+     * @throws IllegalStateException if dateProvider is null.
+     */
+    @Override
+    protected void initBean() {
+        if (dateProvider == null) {
+            throw new IllegalStateException("dateProvider is null. please set.");
+        }
+    }
+
+    /**
+     * Bind snapshot of date.
+     * 
+     * @param request servlet request.
+     * @param response servlet response.
+     * @param chain filter chain.
+     * @throws IOException if occur io error in chain.
+     * @throws ServletException if occur servlet error in chain.
+     */
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        RequestDateSnapshot snapshot = RequestDateSnapshot.get(request);
+        if (snapshot == null) {
+            snapshot = new RequestDateSnapshot(dateProvider);
+            request.setAttribute(RequestDateSnapshot.ATTRIBUTE_NAME, snapshot);
+        }
+        final RequestDateSnapshot previousSnapshot = RequestDateSnapshot.bind(snapshot);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDateSnapshot.bind(previousSnapshot);
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.date;
+
+import java.util.Date;
+
+import org.jichigo.date.DateProvider;
+import org.jichigo.date.EpochMillisProvider;
+
+/**
+ * Provider class for date of request snapshot.
+ * <p>
+ * provide date of snapshot bound to current thread by {@link RequestDateSnapshotFilter}.<br>
+ * if snapshot is not bound (e.g. batch thread or thread started by AsyncContext#start), provide date by fallback
+ * date provider.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class RequestDateSnapshotProvider implements DateProvider, EpochMillisProvider {
+
+    /**
+     * Fallback date provider.
+     */
+    private DateProvider fallbackDateProvider;
+
+    /**
+     * Inject fallback date provider.
+     * 
+     * @param fallbackDateProvider date provider used if snapshot is not bound.
+     */
+    public void setFallbackDateProvider(final DateProvider fallbackDateProvider) {
+        this.fallbackDateProvider = fallbackDateProvider;
+    }
+
+    /**
+     * Provide date.
+     * 
+     * @return copy of snapshot date.
+     * @throws IllegalStateException if snapshot is not bound and fallbackDateProvider is null.
+     */
+    public Date provide() {
+        final RequestDateSnapshot snapshot = RequestDateSnapshot.current();
+        if (snapshot != null) {
+            return snapshot.getDate();
+        }
+        if (fallbackDateProvider == null) {
+            throw new IllegalStateException("request date snapshot is not bound and fallbackDateProvider is null.");
+        }
+        return fallbackDateProvider.provide();
+    }
+
+    /**
+     * Provide date as epoch milliseconds.
+     * 
+     * @return time of snapshot date.
+     * @throws IllegalStateException if snapshot is not bound and fallbackDateProvider is null.
+     */
+    public long provideEpochMillis() {
+        final RequestDateSnapshot snapshot = RequestDateSnapshot.current();
+        if (snapshot != null) {
+            return snapshot.getTime();
+        }
+        if (fallbackDateProvider == null) {
+            throw new IllegalStateException("request date snapshot is not bound and fallbackDateProvider is null.");
+        }
+        if (fallbackDateProvider instanceof EpochMillisProvider) {
+            return ((EpochMillisProvider) fallbackDateProvider).provideEpochMillis();
+        }
+        return fallbackDateProvider.provide().getTime();
+    }
+
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jichigo.utility.timer.LatencyHistogram;
+import org.jichigo.utility.timer.LatencyRecorder;
+import org.jichigo.web.base.support.FilterSupport;
+
+/**
+ * Filter class for record request latency histogram per route.
+ * <p>
+ * route is request method and best matching pattern of Spring MVC. if pattern is not available (e.g. not found),
+ * request is recorded to {@value #UNMAPPED_ROUTE}.<br>
+ * count of routes is limited by maxRoutes, and overflowed requests are recorded to {@value #OVERFLOW_ROUTE}.<br>
+ * latency is recorded without lock, and reported per interval. interval is rolled on read after intervalMillis, so
+ * reported interval may be longer than intervalMillis if not read. (actual start and end time of interval are
+ * reported)<br>
+ * report is available by JMX and text endpoint (reportPath). text endpoint exposes all routes, so it is served only to
+ * local address (loopback) by default. if reportRole is set, it is served only to user in the role. (please protect
+ * it by security constraint too if needed)<br>
+ * if async request is started, latency is until return of first dispatch.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public class LatencyHistogramFilter extends FilterSupport implements Filter, LatencyHistogramFilterMBean {
+
+    /**
+     * Request attribute name of best matching pattern. (same as Spring MVC HandlerMapping)
+     */
+    public static final String BEST_MATCHING_PATTERN_ATTRIBUTE =
+            "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+    /**
+     * Route of overflowed requests.
+     */
+    public static final String OVERFLOW_ROUTE = "(other)";
+
+    /**
+     * Route of requests that has no best matching pattern.
+     */
+    public static final String UNMAPPED_ROUTE = "(unmapped)";
+
+    /**
+     * Default max routes.
+     */
+    private static final int DEFAULT_MAX_ROUTES = 256;
+
+    /**
+     * Default interval(milliseconds).
+     */
+    private static final long DEFAULT_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Reported percentiles.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    /**
+     * Nano seconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLIS = 1000000.0;
+
+    /**
+     * Latencies of route.
+     */
+    private final ConcurrentMap<String, RouteLatency> routeLatencies = new ConcurrentHashMap<String, RouteLatency>();
+
+    /**
+     * Max routes.
+     */
+    private int maxRoutes = DEFAULT_MAX_ROUTES;
+
+    /**
+     * Interval(milliseconds).
+     */
+    private long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+
+    /**
+     * Path of text report.
+     */
+    private String reportPath;
+
+    /**
+     * Role allowed to read text report. (if null, only local address is allowed)
+     */
+    private String reportRole;
+
+    /**
+     * JMX enabled flag.
+     */
+    private boolean jmxEnabled = true;
+
+    /**
+     * Registered object name.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Inject max routes.
+     * 
+     * @param maxRoutes max count of routes. default is 256.
+     */
+    public void setMaxRoutes(final int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /**
+     * Inject interval(milliseconds).
+     * 
+     * @param intervalMillis interval of report. default is 60000.
+     */
+    public void setIntervalMillis(final long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Inject path of text report.
+     * 
+     * @param reportPath servlet path of text report (e.g. /latency). if null, text report is disabled.
+     */
+    public void setReportPath(final String reportPath) {
+        this.reportPath = reportPath;
+    }
+
+    /**
+     * Inject role allowed to read text report.
+     * 
+     * @param reportRole role allowed to read text report. if null, only local address (loopback) is allowed.
+     */
+    public void setReportRole(final String reportRole) {
+        this.reportRole = reportRole;
+    }
+
+    /**
+     * Inject JMX enabled flag.
+     * 
+     * @param jmxEnabled if register to platform MBean server, true. default is true.
+     */
+    public void setJmxEnabled(final boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    /**
+     * Register to platform MBean server.
+     * 
+     * @throws IllegalStateException if fail register.
+     */
+    @Override
+    protected void initBean() {
+        if (!jmxEnabled) {
+            return;
+        }
+        try {
+            final ObjectName name = new ObjectName("org.jichigo.web:type=LatencyHistogramFilter,context="
+                    + ObjectName.quote(filterConfig.getServletContext().getContextPath()) + ",name="
+                    + ObjectName.quote(filterConfig.getFilterName()));
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(this, name);
+            objectName = name;
+        } catch (final JMException e) {
+            throw new IllegalStateException("fail register mbean.", e);
+        }
+    }
+
+    /**
+     * Unregister from platform MBean server.
+     */
+    @Override
+    protected void destroyBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (final JMException e) {
+            logger.warn("fail unregister mbean. object name is [" + objectName + "].", e);
+        }
+        objectName = null;
+    }
+
+    /**
+     * Record latency of request.
+     * 
+     * @param request servlet request.
+     * @param response servlet response.
+     * @param chain filter chain.
+     * @throws IOException if occur io error in chain.
+     * @throws ServletException if occur servlet error in chain.
+     */
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (reportPath != null && reportPath.equals(httpRequest.getServletPath())) {
+            if (!isReportAllowed(httpRequest)) {
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+            response.setContentType("text/plain;charset=UTF-8");
+            final PrintWriter writer = response.getWriter();
+            writer.print(getReport());
+            writer.flush();
+            return;
+        }
+        final long startNanos = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            routeLatencyOf(httpRequest).recorder.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Is request allowed to read text report.
+     * 
+     * @param request http servlet request.
+     * @return if user is in report role (or remote address is loopback if report role is not set), return true.
+     */
+    private boolean isReportAllowed(final HttpServletRequest request) {
+        if (reportRole != null) {
+            return request.isUserInRole(reportRole);
+        }
+        final String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null) {
+            return false;
+        }
+        try {
+            // remote address is ip literal, so name is not resolved.
+            return InetAddress.getByName(remoteAddr).isLoopbackAddress();
+        } catch (final UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get routes.
+     * 
+     * @return recorded routes. (sorted)
+     */
+    public String[] getRoutes() {
+        return new TreeMap<String, RouteLatency>(routeLatencies).keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Get report of all routes.
+     * 
+     * @return text report. (tab separated. from and to are start and end time of interval in epoch milliseconds)
+     */
+    public String getReport() {
+        final StringBuilder report = new StringBuilder();
+        report.append("route\tfrom\tto\tcount\tp50(ms)\tp90(ms)\tp99(ms)\tp99.9(ms)\tmax(ms)\n");
+        final long nowMillis = System.currentTimeMillis();
+        for (final Map.Entry<String, RouteLatency> entry : new TreeMap<String, RouteLatency>(routeLatencies)
+                .entrySet()) {
+            final Interval interval = entry.getValue().lastInterval(nowMillis, intervalMillis);
+            final LatencyHistogram histogram = interval.histogram;
+            report.append(entry.getKey()).append('\t').append(interval.startMillis).append('\t')
+                    .append(interval.endMillis).append('\t').append(histogram.getTotalCount());
+            for (final double percentile : PERCENTILES) {
+                report.append('\t').append(toMillis(histogram.getValueAtPercentile(percentile)));
+            }
+            report.append('\t').append(toMillis(histogram.getMaxValue())).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Get request count of route in last interval.
+     * 
+     * @param route route.
+     * @return request count. if route is not recorded, 0.
+     */
+    public long count(final String route) {
+        final RouteLatency routeLatency = routeLatencies.get(route);
+        if (routeLatency == null) {
+            return 0;
+        }
+        return routeLatency.lastInterval(System.currentTimeMillis(), intervalMillis).histogram.getTotalCount();
+    }
+
+    /**
+     * Get start and end time of last interval of route.
+     * 
+     * @param route route.
+     * @return start and end time(epoch milliseconds). if route is not recorded, empty.
+     */
+    public long[] lastIntervalMillis(final String route) {
+        final RouteLatency routeLatency = routeLatencies.get(route);
+        if (routeLatency == null) {
+            return new long[0];
+        }
+        final Interval interval = routeLatency.lastInterval(System.currentTimeMillis(), intervalMillis);
+        return new long[] { interval.startMillis, interval.endMillis };
+    }
+
+    /**
+     * Get percentiles (p50, p90, p99, p99.9) of route in last interval.
+     * 
+     * @param route route.
+     * @return percentiles(milliseconds). if route is not recorded, empty.
+     */
+    public double[] percentilesMillis(final String route) {
+        final RouteLatency routeLatency = routeLatencies.get(route);
+        if (routeLatency == null) {
+            return new double[0];
+        }
+        final LatencyHistogram histogram = routeLatency.lastInterval(System.currentTimeMillis(),
+                intervalMillis).histogram;
+        final double[] values = new double[PERCENTILES.length];
+        for (int index = 0; index < PERCENTILES.length; index++) {
+            values[index] = toMillis(histogram.getValueAtPercentile(PERCENTILES[index]));
+        }
+        return values;
+    }
+
+    /**
+     * Reset all routes.
+     */
+    public void reset() {
+        routeLatencies.clear();
+    }
+
+    /**
+     * Get latency of route.
+     * 
+     * @param request http servlet request.
+     * @return latency of route.
+     */
+    private RouteLatency routeLatencyOf(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final String route = pattern instanceof String ? request.getMethod() + " " + pattern : UNMAPPED_ROUTE;
+        RouteLatency routeLatency = routeLatencies.get(route);
+        if (routeLatency != null) {
+            return routeLatency;
+        }
+        String newRoute = route;
+        if (maxRoutes <= routeLatencies.size()) {
+            newRoute = OVERFLOW_ROUTE;
+            routeLatency = routeLatencies.get(OVERFLOW_ROUTE);
+            if (routeLatency != null) {
+                return routeLatency;
+            }
+        }
+        routeLatency = new RouteLatency(System.currentTimeMillis());
+        final RouteLatency existing = routeLatencies.putIfAbsent(newRoute, routeLatency);
+        return existing != null ? existing : routeLatency;
+    }
+
+    /**
+     * Convert nano seconds to milliseconds.
+     * 
+     * @param nanos nano seconds.
+     * @return milliseconds. (3 digits of fraction)
+     */
+    private static double toMillis(final long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    /**
+     * Latency of route.
+     */
+    private static class RouteLatency {
+
+        /**
+         * Recorder.
+         */
+        private final LatencyRecorder recorder = new LatencyRecorder();
+
+        /**
+         * Last interval.
+         */
+        private Interval lastInterval;
+
+        /**
+         * Start time of current interval.
+         */
+        private long intervalStartMillis;
+
+        /**
+         * Constructor.
+         * 
+         * @param intervalStartMillis start time of first interval.
+         */
+        private RouteLatency(final long intervalStartMillis) {
+            this.intervalStartMillis = intervalStartMillis;
+            this.lastInterval = new Interval(new LatencyHistogram(), intervalStartMillis, intervalStartMillis);
+        }
+
+        /**
+         * Get last interval.
+         * <p>
+         * if interval is elapsed, roll interval.
+         * </p>
+         * 
+         * @param nowMillis current time millis.
+         * @param intervalMillis interval(milliseconds).
+         * @return last interval.
+         */
+        private synchronized Interval lastInterval(final long nowMillis, final long intervalMillis) {
+            if (intervalStartMillis + intervalMillis <= nowMillis) {
+                final LatencyHistogram histogram = new LatencyHistogram();
+                histogram.add(recorder.takeIntervalSnapshot());
+                lastInterval = new Interval(histogram, intervalStartMillis, nowMillis);
+                intervalStartMillis = nowMillis;
+            }
+            return lastInterval;
+        }
+    }
+
+    /**
+     * Interval of route.
+     */
+    private static class Interval {
+
+        /**
+         * Histogram of interval.
+         */
+        private final LatencyHistogram histogram;
+
+        /**
+         * Start time of interval.
+         */
+        private final long startMillis;
+
+        /**
+         * End time of interval.
+         */
+        private final long endMillis;
+
+        /**
+         * Constructor.
+         * 
+         * @param histogram histogram of interval.
+         * @param startMillis start time of interval.
+         * @param endMillis end time of interval.
+         */
+        private Interval(final LatencyHistogram histogram, final long startMillis, final long endMillis) {
+            this.histogram = histogram;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+
+}
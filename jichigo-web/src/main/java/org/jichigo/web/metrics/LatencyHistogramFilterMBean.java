@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012 jichigo's developers team.
+ *
+ * jichigo's source code and binaries are distributed the MIT License.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software 
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial 
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, 
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE 
+ * AND NONINFRINGEMENT. 
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, 
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE 
+ * OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.jichigo.web.metrics;
+
+/**
+ * Management interface of {@link LatencyHistogramFilter}.
+ * <p>
+ * latency is reported in milliseconds of last interval. interval is rolled on read, so please check actual start
+ * and end time of interval by {@link #lastIntervalMillis(String)}.
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0
+ */
+public interface LatencyHistogramFilterMBean {
+
+    /**
+     * Get routes.
+     * 
+     * @return recorded routes.
+     */
+    String[] getRoutes();
+
+    /**
+     * Get report of all routes.
+     * 
+     * @return text report. (tab separated)
+     */
+    String getReport();
+
+    /**
+     * Get request count of route in last interval.
+     * 
+     * @param route route.
+     * @return request count. if route is not recorded, 0.
+     */
+    long count(String route);
+
+    /**
+     * Get start and end time of last interval of route.
+     * 
+     * @param route route.
+     * @return start and end time(epoch milliseconds). if route is not recorded, empty.
+     */
+    long[] lastIntervalMillis(String route);
+
+    /**
+     * Get percentiles (p50, p90, p99, p99.9) of route in last interval.
+     * 
+     * @param route route.
+     * @return percentiles(milliseconds). if route is not recorded, empty.
+     */
+    double[] percentilesMillis(String route);
+
+    /**
+     * Reset all routes.
+     */
+    void reset();
+
+}
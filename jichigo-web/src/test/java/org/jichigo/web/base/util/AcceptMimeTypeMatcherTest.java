@@ -0,0 +1,103 @@
+package org.jichigo.web.base.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AcceptMimeTypeMatcherTest {
+
+    @Test
+    public void matches_noTarget() {
+
+        AcceptMimeTypeMatcher matcher = new AcceptMimeTypeMatcher();
+        matcher.setTargetAcceptMimeTypes(Collections.<String> emptyList());
+
+        Assert.assertTrue(matcher.matches("text/html"));
+
+    }
+
+    @Test
+    public void matches_wildcard() {
+
+        AcceptMimeTypeMatcher matcher = newMatcher("application/json");
+
+        Assert.assertTrue(matcher.matches("application/json"));
+        Assert.assertTrue(matcher.matches("text/html, application/json;charset=UTF-8"));
+        Assert.assertTrue(matcher.matches("*/*"));
+        Assert.assertTrue(matcher.matches("application/*"));
+        Assert.assertTrue(matcher.matches("*"));
+        Assert.assertTrue(matcher.matches("APPLICATION/JSON"));
+        Assert.assertFalse(matcher.matches("text/*"));
+        Assert.assertFalse(matcher.matches("application/xml"));
+        Assert.assertFalse(matcher.matches("application/jsonp"));
+
+    }
+
+    @Test
+    public void matches_zeroQuality() {
+
+        AcceptMimeTypeMatcher matcher = newMatcher("application/json");
+
+        Assert.assertFalse(matcher.matches("application/json;q=0, */*"));
+        Assert.assertFalse(matcher.matches("*/*, application/json; q=0.000"));
+        Assert.assertFalse(matcher.matches("application/json;Q=0"));
+        Assert.assertTrue(matcher.matches("application/*;q=0, application/json"));
+        Assert.assertTrue(matcher.matches("*/*;q=0, application/*"));
+        Assert.assertTrue(matcher.matches("application/json;q=0.001"));
+        Assert.assertTrue(matcher.matches("application/json;q=0, application/json"));
+        Assert.assertFalse(matcher.matches("*/*;q=0"));
+
+    }
+
+    @Test
+    public void matches_malformed() {
+
+        AcceptMimeTypeMatcher matcher = newMatcher("application/json");
+
+        Assert.assertFalse(matcher.matches(""));
+        Assert.assertFalse(matcher.matches(",, ,"));
+        Assert.assertFalse(matcher.matches("application"));
+        Assert.assertFalse(matcher.matches("/json"));
+        Assert.assertFalse(matcher.matches(";q=0"));
+        Assert.assertTrue(matcher.matches("bad, application/json;q="));
+        Assert.assertTrue(matcher.matches("application/json;q=abc"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTargetAcceptMimeTypes_invalid() {
+
+        newMatcher("json");
+
+    }
+
+    @Test
+    public void matches_cache() {
+
+        AcceptMimeTypeMatcher matcher = newMatcher("application/json");
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertFalse(matcher.matches("text/x-scan-" + i));
+        }
+        Assert.assertEquals(64, matcher.getMatchResultCacheSize());
+        Assert.assertTrue(matcher.matches("application/json"));
+        Assert.assertTrue(matcher.matches("application/json"));
+        Assert.assertTrue(64 >= matcher.getMatchResultCacheSize());
+
+        matcher.setTargetAcceptMimeTypes(Arrays.asList("text/html"));
+
+        Assert.assertEquals(0, matcher.getMatchResultCacheSize());
+        Assert.assertFalse(matcher.matches("application/json"));
+        Assert.assertTrue(matcher.matches("text/x-scan-1, text/html"));
+
+    }
+
+    private AcceptMimeTypeMatcher newMatcher(String... targetAcceptMimeTypes) {
+        AcceptMimeTypeMatcher matcher = new AcceptMimeTypeMatcher();
+        matcher.setTargetAcceptMimeTypes(Arrays.asList(targetAcceptMimeTypes));
+        return matcher;
+    }
+
+}
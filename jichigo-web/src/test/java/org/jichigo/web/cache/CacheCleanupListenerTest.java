@@ -0,0 +1,85 @@
+package org.jichigo.web.cache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+
+import org.jichigo.utility.cache.CacheByKey;
+import org.jichigo.utility.cache.LazyCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CacheCleanupListenerTest {
+
+    @Test
+    public void contextDestroyed() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return new Object();
+            }
+        };
+        URL classes = CacheCleanupListenerTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes }, null);
+        Class<?> otherClass = classLoader.loadClass(CacheCleanupListenerTest.class.getName());
+
+        Object shared1 = cache.getOrCreate(CacheCleanupListenerTest.class);
+        Object scoped1 = cache.getOrCreate(otherClass);
+        new CacheCleanupListener().contextDestroyed(new ServletContextEvent(servletContext(classLoader)));
+        Object shared2 = cache.getOrCreate(CacheCleanupListenerTest.class);
+        Object scoped2 = cache.getOrCreate(otherClass);
+
+        Assert.assertSame(shared1, shared2);
+        Assert.assertNotSame(scoped1, scoped2);
+
+    }
+
+    @Test
+    public void contextDestroyed_classLoaderOfThread() throws Exception {
+
+        LazyCache<Object> cache = new CacheByKey<Object>() {
+            @Override
+            protected Object initialValue(Object... args) {
+                return new Object();
+            }
+        };
+        URL classes = CacheCleanupListenerTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes }, null);
+        Class<?> otherClass = classLoader.loadClass(CacheCleanupListenerTest.class.getName());
+
+        Object scoped1 = cache.getOrCreate(otherClass);
+        ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            new CacheCleanupListener().contextDestroyed(new ServletContextEvent(servletContext(null)));
+        } finally {
+            Thread.currentThread().setContextClassLoader(previousClassLoader);
+        }
+        Object scoped2 = cache.getOrCreate(otherClass);
+
+        Assert.assertNotSame(scoped1, scoped2);
+
+    }
+
+    private static ServletContext servletContext(final ClassLoader classLoader) {
+        return (ServletContext) Proxy.newProxyInstance(CacheCleanupListenerTest.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method target, Object[] args) {
+                        if ("getClassLoader".equals(target.getName())) {
+                            return classLoader;
+                        }
+                        if ("getContextPath".equals(target.getName())) {
+                            return "/test";
+                        }
+                        return null;
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.jichigo.web.date;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.jichigo.date.DateProvider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestDateSnapshotFilterTest {
+
+    private RequestDateSnapshotFilter filter;
+
+    private RequestDateSnapshotProvider provider;
+
+    private int provideCount;
+
+    @Before
+    public void setUp() {
+        filter = new RequestDateSnapshotFilter();
+        filter.setDateProvider(new DateProvider() {
+            public Date provide() {
+                provideCount++;
+                return new Date(provideCount * 1000L);
+            }
+        });
+        provider = new RequestDateSnapshotProvider();
+        provider.setFallbackDateProvider(new DateProvider() {
+            public Date provide() {
+                return new Date(999);
+            }
+        });
+    }
+
+    @Test
+    public void doFilter_sameDateInRequest() throws Exception {
+
+        final List<Long> times = new ArrayList<Long>();
+        FilterChain chain = new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                times.add(provider.provide().getTime());
+                times.add(provider.provideEpochMillis());
+            }
+        };
+
+        filter.doFilter(request(), null, chain);
+        filter.doFilter(request(), null, chain);
+
+        Assert.assertEquals(1000L, times.get(0).longValue());
+        Assert.assertEquals(1000L, times.get(1).longValue());
+        Assert.assertEquals(2000L, times.get(2).longValue());
+        Assert.assertEquals(2000L, times.get(3).longValue());
+        Assert.assertEquals(2, provideCount);
+        Assert.assertNull(RequestDateSnapshot.current());
+
+    }
+
+    @Test
+    public void doFilter_notProvidedIfNotUsed() throws Exception {
+
+        filter.doFilter(request(), null, new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response) {
+            }
+        });
+
+        Assert.assertEquals(0, provideCount);
+
+    }
+
+    @Test
+    public void doFilter_unbindOnException() throws Exception {
+
+        try {
+            filter.doFilter(request(), null, new FilterChain() {
+                public void doFilter(ServletRequest request, ServletResponse response) throws ServletException {
+                    Assert.assertNotNull(RequestDateSnapshot.current());
+                    throw new ServletException("failed.");
+                }
+            });
+            Assert.fail();
+        } catch (ServletException e) {
+            Assert.assertEquals("failed.", e.getMessage());
+        }
+
+        Assert.assertNull(RequestDateSnapshot.current());
+        Assert.assertEquals(999L, provider.provideEpochMillis());
+
+    }
+
+    @Test
+    public void doFilter_dispatchUsesSnapshotOfRequest() throws Exception {
+
+        final List<Long> times = new ArrayList<Long>();
+        FilterChain chain = new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                times.add(provider.provideEpochMillis());
+            }
+        };
+        ServletRequest request = request();
+
+        filter.doFilter(request, null, chain);
+        filter.doFilter(request, null, chain);
+
+        Assert.assertEquals(times.get(0), times.get(1));
+        Assert.assertEquals(1, provideCount);
+
+    }
+
+    @Test
+    public void provide_fallback() {
+
+        Assert.assertEquals(new Date(999), provider.provide());
+        Assert.assertEquals(999L, provider.provideEpochMillis());
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void provide_noFallback() {
+
+        new RequestDateSnapshotProvider().provide();
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void initBean_noDateProvider() {
+
+        new RequestDateSnapshotFilter().initBean();
+
+    }
+
+    private static ServletRequest request() {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        return (ServletRequest) Proxy.newProxyInstance(RequestDateSnapshotFilterTest.class.getClassLoader(),
+                new Class<?>[] { ServletRequest.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method target, Object[] args) {
+                        if ("getAttribute".equals(target.getName())) {
+                            return attributes.get(args[0]);
+                        }
+                        if ("setAttribute".equals(target.getName())) {
+                            attributes.put((String) args[0], args[1]);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.jichigo.web.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyHistogramFilterTest {
+
+    private LatencyHistogramFilter filter;
+
+    private FilterChain chain;
+
+    @Before
+    public void setUp() {
+        filter = new LatencyHistogramFilter();
+        filter.setJmxEnabled(false);
+        chain = new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response) throws IOException,
+                    ServletException {
+            }
+        };
+    }
+
+    @Test
+    public void doFilter_route() throws Exception {
+
+        filter.doFilter(request("GET", "/users/{id}", "/users/1"), null, chain);
+        filter.doFilter(request("GET", "/users/{id}", "/users/2"), null, chain);
+
+        Assert.assertEquals(Arrays.asList("GET /users/{id}"), Arrays.asList(filter.getRoutes()));
+
+    }
+
+    @Test
+    public void doFilter_unmapped() throws Exception {
+
+        filter.doFilter(request("GET", null, "/unknown1"), null, chain);
+        filter.doFilter(request("POST", null, "/unknown2"), null, chain);
+
+        Assert.assertEquals(Arrays.asList(LatencyHistogramFilter.UNMAPPED_ROUTE), Arrays.asList(filter.getRoutes()));
+
+    }
+
+    @Test
+    public void doFilter_overflow() throws Exception {
+
+        filter.setMaxRoutes(1);
+
+        filter.doFilter(request("GET", "/a", "/a"), null, chain);
+        filter.doFilter(request("GET", "/b", "/b"), null, chain);
+        filter.doFilter(request("GET", "/c", "/c"), null, chain);
+
+        Assert.assertEquals(Arrays.asList(LatencyHistogramFilter.OVERFLOW_ROUTE, "GET /a"), Arrays.asList(filter
+                .getRoutes()));
+
+    }
+
+    @Test
+    public void doFilter_reportLocal() throws Exception {
+
+        filter.setReportPath("/latency");
+        filter.doFilter(request("GET", "/a", "/a"), null, chain);
+
+        StringWriter body = new StringWriter();
+        int[] status = new int[1];
+        filter.doFilter(request("GET", null, "/latency", "127.0.0.1", null), response(body, status), chain);
+
+        Assert.assertEquals(0, status[0]);
+        Assert.assertTrue(body.toString().contains("GET /a\t"));
+
+    }
+
+    @Test
+    public void doFilter_reportRemoteForbidden() throws Exception {
+
+        filter.setReportPath("/latency");
+
+        StringWriter body = new StringWriter();
+        int[] status = new int[1];
+        filter.doFilter(request("GET", null, "/latency", "192.0.2.1", null), response(body, status), chain);
+
+        Assert.assertEquals(HttpServletResponse.SC_FORBIDDEN, status[0]);
+        Assert.assertEquals("", body.toString());
+
+    }
+
+    @Test
+    public void doFilter_reportRole() throws Exception {
+
+        filter.setReportPath("/latency");
+        filter.setReportRole("monitor");
+
+        StringWriter body = new StringWriter();
+        int[] status = new int[1];
+        filter.doFilter(request("GET", null, "/latency", "127.0.0.1", "admin"), response(body, status), chain);
+        Assert.assertEquals(HttpServletResponse.SC_FORBIDDEN, status[0]);
+
+        status[0] = 0;
+        filter.doFilter(request("GET", null, "/latency", "192.0.2.1", "monitor"), response(body, status), chain);
+        Assert.assertEquals(0, status[0]);
+        Assert.assertTrue(body.toString().startsWith("route\tfrom\tto\t"));
+
+    }
+
+    @Test
+    public void lastIntervalMillis() throws Exception {
+
+        filter.setIntervalMillis(1);
+        filter.doFilter(request("GET", "/a", "/a"), null, chain);
+        Thread.sleep(5);
+
+        long[] interval = filter.lastIntervalMillis("GET /a");
+        Thread.sleep(5);
+
+        // not read during interval, so interval is longer than intervalMillis.
+        long[] next = filter.lastIntervalMillis("GET /a");
+        Assert.assertEquals(interval[1], next[0]);
+        Assert.assertTrue(next[1] - next[0] >= 5);
+        Assert.assertEquals(0, filter.count("GET /a"));
+        Assert.assertEquals(0, filter.lastIntervalMillis("GET /b").length);
+
+    }
+
+    private static HttpServletRequest request(final String method, final String pattern, final String servletPath) {
+        return request(method, pattern, servletPath, null, null);
+    }
+
+    private static HttpServletRequest request(final String method, final String pattern, final String servletPath,
+            final String remoteAddr, final String role) {
+        return (HttpServletRequest) Proxy.newProxyInstance(LatencyHistogramFilterTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method target, Object[] args) {
+                        if ("getMethod".equals(target.getName())) {
+                            return method;
+                        }
+                        if ("getServletPath".equals(target.getName())) {
+                            return servletPath;
+                        }
+                        if ("getRemoteAddr".equals(target.getName())) {
+                            return remoteAddr;
+                        }
+                        if ("isUserInRole".equals(target.getName())) {
+                            return args[0].equals(role);
+                        }
+                        if ("getAttribute".equals(target.getName())
+                                && LatencyHistogramFilter.BEST_MATCHING_PATTERN_ATTRIBUTE.equals(args[0])) {
+                            return pattern;
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static HttpServletResponse response(final StringWriter body, final int[] status) {
+        return (HttpServletResponse) Proxy.newProxyInstance(LatencyHistogramFilterTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method target, Object[] args) {
+                        if ("sendError".equals(target.getName())) {
+                            status[0] = (Integer) args[0];
+                        }
+                        if ("getWriter".equals(target.getName())) {
+                            return new PrintWriter(body, true);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+}